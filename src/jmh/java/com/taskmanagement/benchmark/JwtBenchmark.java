@@ -0,0 +1,59 @@
+package com.taskmanagement.benchmark;
+
+import com.taskmanagement.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation and parsing as done at login and on every authenticated
+ * request (extractUserId goes through extractAllClaims).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private Map<String, Object> claims;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "benchmarkSecretKeyThatIsLongEnoughForHmacSha512Signatures0123456789");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+
+        claims = new HashMap<>();
+        claims.put("userId", 42L);
+        claims.put("role", "user");
+        token = jwtUtil.generateToken("EMP1042", claims);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("EMP1042", new HashMap<>(claims));
+    }
+
+    @Benchmark
+    public Long parseToken() {
+        return jwtUtil.extractUserId(token);
+    }
+}
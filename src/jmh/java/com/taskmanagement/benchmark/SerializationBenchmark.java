@@ -0,0 +1,59 @@
+package com.taskmanagement.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanagement.config.JacksonConfig;
+import com.taskmanagement.dto.ActivityDTO;
+import com.taskmanagement.model.Notification;
+import com.taskmanagement.service.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of response lists with the application's mapper
+ * (JacksonConfig), as written by the activity and notification endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<ActivityDTO> activities;
+    private List<Notification> notifications;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new JacksonConfig().objectMapper();
+        activities = BenchmarkData.activityDtos(size, 5, 5);
+        notifications = BenchmarkData.notifications(size);
+    }
+
+    @Benchmark
+    public byte[] activityDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(activities);
+    }
+
+    @Benchmark
+    public byte[] notifications() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(notifications);
+    }
+}
@@ -0,0 +1,60 @@
+package com.taskmanagement.benchmark;
+
+import com.taskmanagement.config.JacksonConfig;
+import com.taskmanagement.model.Notification;
+import com.taskmanagement.service.BenchmarkData;
+import com.taskmanagement.websocket.NotificationWebSocketHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and serializing the notification envelope pushed over WebSocket.
+ * The session is a stub that discards the message, so no I/O is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebSocketEnvelopeBenchmark {
+
+    private NotificationWebSocketHandler handler;
+    private Notification notification;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        handler = new NotificationWebSocketHandler();
+        ReflectionTestUtils.setField(handler, "objectMapper", new JacksonConfig().objectMapper());
+        ReflectionTestUtils.setField(handler, "meterRegistry", new SimpleMeterRegistry());
+        handler.registerMetrics();
+
+        WebSocketSession session = BenchmarkData.stub(WebSocketSession.class, method ->
+            "isOpen".equals(method) ? Boolean.TRUE : "getId".equals(method) ? "benchmark" : null);
+        Map<Long, WebSocketSession> sessions =
+            (Map<Long, WebSocketSession>) ReflectionTestUtils.getField(handler, "userSessions");
+        sessions.put(1L, session);
+
+        notification = BenchmarkData.notifications(1).get(0);
+    }
+
+    @Benchmark
+    public void sendNotification() {
+        handler.sendNotificationToUser(1L, notification);
+    }
+}
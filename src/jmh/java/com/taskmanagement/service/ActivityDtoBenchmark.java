@@ -0,0 +1,56 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.dto.ActivityDTO;
+import com.taskmanagement.model.Activity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ActivityService.convertToDTO over a page of activities. The remark lookup
+ * is stubbed, so this measures assembly only, not the query it triggers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActivityDtoBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int members;
+
+    @Param({"0", "20"})
+    public int remarks;
+
+    private ActivityService service;
+    private List<Activity> activities;
+
+    @Setup
+    public void setUp() {
+        service = BenchmarkData.activityService(BenchmarkData.remarks(remarks));
+        activities = BenchmarkData.activities(50, members, 3);
+    }
+
+    @Benchmark
+    public List<ActivityDTO> convertPage() {
+        List<ActivityDTO> dtos = new ArrayList<>(activities.size());
+        for (Activity activity : activities) {
+            dtos.add(service.convertToDTO(activity));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,172 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.dto.ActivityDTO;
+import com.taskmanagement.model.Activity;
+import com.taskmanagement.model.ActivityLink;
+import com.taskmanagement.model.Attachment;
+import com.taskmanagement.model.Notification;
+import com.taskmanagement.model.Remark;
+import com.taskmanagement.model.Team;
+import com.taskmanagement.model.User;
+import com.taskmanagement.repository.RemarkRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Synthetic entity graphs for the benchmarks, built without a database.
+ * Collaborators are stubbed with plain proxies rather than mocks so the stub
+ * itself costs next to nothing in the measured path.
+ */
+public final class BenchmarkData {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 15, 9, 30);
+
+    private BenchmarkData() {
+    }
+
+    public static List<Activity> activities(int count, int members, int attachments) {
+        Team team = new Team();
+        team.setId(1L);
+        team.setName("Platform");
+
+        List<User> users = users(members);
+        List<Activity> activities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Activity activity = new Activity();
+            activity.setId((long) i + 1);
+            activity.setName("Activity " + i);
+            activity.setDescription("Synthetic activity used for benchmarking DTO assembly and serialization");
+            activity.setPriority(i % 2 == 0 ? "high" : "medium");
+            activity.setStatus(Activity.ActivityStatus.IN_PROGRESS);
+            activity.setCreatorSubscribed(true);
+            activity.setTargetDate(NOW.plusDays(i % 30));
+            activity.setCreatedBy(users.get(0).getId());
+            activity.setCreator(users.get(0));
+            activity.setCreatedAt(NOW);
+            activity.setUpdatedAt(NOW);
+            activity.setTeam(team);
+            activity.setAssignedMembers(new HashSet<>(users));
+
+            Set<Attachment> files = new HashSet<>();
+            for (int a = 0; a < attachments; a++) {
+                Attachment attachment = new Attachment("f" + i + "-" + a, "report-" + a + ".pdf",
+                    "uploads/f" + i + "-" + a, 120_000L + a, "application/pdf", activity);
+                attachment.setId((long) (i * attachments + a + 1));
+                files.add(attachment);
+            }
+            activity.setAttachments(files);
+
+            Set<ActivityLink> links = new HashSet<>();
+            ActivityLink link = new ActivityLink();
+            link.setId((long) i + 1);
+            link.setUrl("https://example.com/tickets/" + i);
+            link.setTitle("Ticket " + i);
+            link.setCreatedAt(NOW);
+            link.setActivity(activity);
+            links.add(link);
+            activity.setLinks(links);
+
+            activities.add(activity);
+        }
+        return activities;
+    }
+
+    public static List<Remark> remarks(int count) {
+        User author = users(1).get(0);
+        List<Remark> remarks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Remark remark = new Remark();
+            remark.setId((long) i + 1);
+            remark.setText("Remark number " + i + " with a sentence or two of progress notes.");
+            remark.setUserId(author.getId());
+            remark.setUser(author);
+            remark.setActivityId(1L);
+            remark.setType(i % 3 == 0 ? Remark.RemarkType.STATUS_UPDATE : Remark.RemarkType.GENERAL);
+            remark.setCreatedAt(NOW.minusHours(i));
+            remarks.add(remark);
+        }
+        return remarks;
+    }
+
+    public static List<Notification> notifications(int count) {
+        List<Notification> notifications = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Notification notification = new Notification();
+            notification.setId((long) i + 1);
+            notification.setUserId(1L);
+            notification.setTitle("Activity Status Changed");
+            notification.setMessage("Activity 'Activity " + i + "' status changed to: IN_PROGRESS");
+            notification.setType("ACTIVITY_STATUS_CHANGED");
+            notification.setRelatedActivityId((long) i + 1);
+            notification.setIsRead(i % 4 == 0);
+            notification.setCreatedAt(NOW);
+            notification.setUpdatedAt(NOW);
+            notifications.add(notification);
+        }
+        return notifications;
+    }
+
+    /**
+     * ActivityService whose remark lookup returns the given remarks for every
+     * activity, standing in for the per-activity query convertToDTO makes.
+     */
+    public static ActivityService activityService(List<Remark> remarks) {
+        ActivityService service = new ActivityService();
+        RemarkRepository remarkRepository = stub(RemarkRepository.class, method ->
+            "findByActivityIdOrderByCreatedAtDesc".equals(method) ? remarks : null);
+        ReflectionTestUtils.setField(service, "remarkRepository", remarkRepository);
+        return service;
+    }
+
+    public static List<ActivityDTO> activityDtos(int count, int members, int remarks) {
+        ActivityService service = activityService(remarks(remarks));
+        List<ActivityDTO> dtos = new ArrayList<>(count);
+        for (Activity activity : activities(count, members, 2)) {
+            dtos.add(service.convertToDTO(activity));
+        }
+        return dtos;
+    }
+
+    public interface StubAnswer {
+        Object answer(String method);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> type, StubAnswer answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return type.getSimpleName() + " stub";
+                default:
+                    Object result = answer.answer(method.getName());
+                    if (result == null && method.getReturnType() == boolean.class) {
+                        return false;
+                    }
+                    return result;
+            }
+        });
+    }
+
+    private static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < Math.max(count, 1); i++) {
+            User user = new User();
+            user.setId((long) i + 1);
+            user.setName("User " + i);
+            user.setEmpId("EMP" + (1000 + i));
+            user.setRole("user");
+            users.add(user);
+        }
+        return users;
+    }
+}
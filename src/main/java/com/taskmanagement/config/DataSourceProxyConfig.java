@@ -0,0 +1,62 @@
+package com.taskmanagement.config;
+
+import com.taskmanagement.util.QueryStats;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Wraps the DataSource in a proxy that reports every executed statement to
+ * the QueryStats of the current request. JPA and JdbcTemplate both go
+ * through it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.db.query-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceProxyConfig {
+
+    @Bean
+    public static BeanPostProcessor queryStatsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create((DataSource) bean)
+                    .name(beanName)
+                    .listener(new QueryStatsListener())
+                    .build();
+            }
+        };
+    }
+
+    private static class QueryStatsListener implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            QueryStats stats = QueryStats.current();
+            if (stats == null) {
+                return;
+            }
+            // One round trip per statement; a JDBC batch counts once
+            long elapsed = execInfo.getElapsedTime();
+            for (QueryInfo query : queryInfoList) {
+                stats.record(query.getQuery(), 1, elapsed);
+                elapsed = 0;
+            }
+        }
+    }
+}
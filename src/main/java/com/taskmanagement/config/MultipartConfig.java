@@ -13,6 +13,8 @@ public class MultipartConfig {
         StandardServletMultipartResolver resolver = new StandardServletMultipartResolver();
         // Set to true to defer parsing until we're ready
         resolver.setStrictServletCompliance(true);
+        // Attachment endpoints stream the raw body themselves, so never parse it up front
+        resolver.setResolveLazily(true);
         return resolver;
     }
 }
@@ -0,0 +1,136 @@
+package com.taskmanagement.config;
+
+import com.taskmanagement.util.QueryStats;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements each request runs and the time spent in them,
+ * recorded per endpoint as app.db.statements and app.db.time. A request over
+ * app.db.statement-budget is logged together with the statements it
+ * repeated, which is how N+1 loading shows up.
+ *
+ * An async request (the streamed export, SSE streams) is recorded once, when
+ * its last dispatch ends: the stats are carried over to the async dispatch
+ * and bound on the worker thread that runs a StreamingResponseBody. Pushes to
+ * an open SSE stream do not query on its behalf, so a stream's figures are
+ * its connect and replay queries.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "app.db.query-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryStatsFilter.class);
+
+    private static final String STATS_ATTRIBUTE = QueryStatsFilter.class.getName() + ".STATS";
+
+    // Shown in the budget warning
+    private static final int MAX_REPORTED_STATEMENTS = 5;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.db.statement-budget:30}")
+    private int statementBudget;
+
+    @Value("${app.db.repeat-threshold:5}")
+    private int repeatThreshold;
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryStats stats = isAsyncDispatch(request) ? (QueryStats) request.getAttribute(STATS_ATTRIBUTE) : null;
+        if (stats != null) {
+            QueryStats.bind(stats);
+        } else {
+            stats = QueryStats.start();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+            WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(STATS_ATTRIBUTE, new BindingInterceptor(stats));
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryStats.clear();
+            // Otherwise recorded when the async dispatch ends
+            if (!isAsyncStarted(request)) {
+                record(request, stats);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = pattern != null ? pattern.toString() : "UNMAPPED";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("app.db.statements")
+            .tag("method", method)
+            .tag("uri", endpoint)
+            .register(meterRegistry)
+            .record(stats.getStatements());
+        meterRegistry.timer("app.db.time", "method", method, "uri", endpoint)
+            .record(stats.getElapsedMillis(), TimeUnit.MILLISECONDS);
+
+        if (stats.getStatements() <= statementBudget) {
+            return;
+        }
+        StringBuilder warning = new StringBuilder()
+            .append("Statement budget exceeded: ").append(method).append(' ').append(endpoint)
+            .append(" ran ").append(stats.getStatements()).append(" statements (budget ").append(statementBudget)
+            .append(", ").append(stats.getElapsedMillis()).append(" ms in database)");
+        List<Map.Entry<String, Integer>> repeated = stats.repeated(repeatThreshold);
+        for (int i = 0; i < repeated.size() && i < MAX_REPORTED_STATEMENTS; i++) {
+            warning.append("\n  ").append(repeated.get(i).getValue()).append("x ").append(repeated.get(i).getKey());
+        }
+        log.warn(warning.toString());
+    }
+
+    // Counts what a StreamingResponseBody or Callable runs on its worker thread
+    private static class BindingInterceptor implements CallableProcessingInterceptor {
+
+        private final QueryStats stats;
+
+        BindingInterceptor(QueryStats stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+            QueryStats.bind(stats);
+        }
+
+        @Override
+        public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+            QueryStats.clear();
+        }
+    }
+}
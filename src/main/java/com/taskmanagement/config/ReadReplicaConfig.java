@@ -0,0 +1,101 @@
+package com.taskmanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+/**
+ * Sends read-only transactions of @ReplicaRead methods to a read replica
+ * (app.datasource.replica.*) and everything else to the primary
+ * (spring.datasource.*). Read-only transactions also run Hibernate with
+ * flushing off and entities loaded read-only, so no dirty-checking
+ * snapshots are kept.
+ *
+ * Both pools are built here rather than exposed as beans, so the only
+ * DataSource bean is the routing one and the query-stats proxy wraps it
+ * once. For local testing the replica can be any second database with the
+ * same schema; the lag query then reports 0.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    // Replay delay on a streaming replica; 0 on a primary or a replica that has caught up
+    static final String POSTGRES_LAG_QUERY = "SELECT CASE"
+        + " WHEN NOT pg_is_in_recovery() THEN 0"
+        + " WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+        + " ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${app.datasource.replica.max-lag-seconds:10}")
+    private double maxLagSeconds;
+
+    @Value("${app.datasource.replica.lag-query:" + POSTGRES_LAG_QUERY + "}")
+    private String lagQuery;
+
+    private HikariDataSource primaryPool;
+    private HikariDataSource replicaPool;
+    private ReadReplicaRoutingDataSource routing;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties primaryProperties) {
+        Binder binder = Binder.get(environment);
+
+        primaryPool = primaryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primaryPool.setPoolName("primary");
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primaryPool));
+
+        DataSourceProperties replicaProperties = binder.bind("app.datasource.replica", DataSourceProperties.class)
+            .orElseGet(DataSourceProperties::new);
+        if (replicaProperties.getUrl() == null || replicaProperties.getUrl().isEmpty()) {
+            throw new IllegalStateException("app.datasource.replica.url is required when the replica is enabled");
+        }
+        replicaPool = replicaProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        replicaPool.setPoolName("replica");
+        replicaPool.setReadOnly(true);
+        // Fail over to the primary quickly instead of waiting out the default 30 s
+        replicaPool.setConnectionTimeout(2000);
+        binder.bind("app.datasource.replica.hikari", Bindable.ofInstance(replicaPool));
+
+        routing = new ReadReplicaRoutingDataSource(primaryPool, replicaPool, maxLagSeconds, lagQuery);
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // A binder rather than an injected registry: the registry's own pool metrics depend on the DataSource
+    @Bean
+    public MeterBinder readReplicaMetrics(DataSource dataSource) {
+        return meterRegistry -> routing.registerMetrics(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-ms:5000}")
+    public void checkReplicaLag() {
+        if (routing != null) {
+            routing.checkLag();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (replicaPool != null) {
+            replicaPool.close();
+        }
+        if (primaryPool != null) {
+            primaryPool.close();
+        }
+    }
+}
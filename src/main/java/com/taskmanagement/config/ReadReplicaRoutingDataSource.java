@@ -0,0 +1,124 @@
+package com.taskmanagement.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Hands out replica connections to read-only transactions started by a
+ * @ReplicaRead method and primary connections everywhere else. A read-only
+ * transaction alone is not enough: Spring Data runs every repository call
+ * outside a service transaction (findById, existsById, ...) read-only, and
+ * those often read back what the request just wrote.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction manager
+ * asks for a connection before it marks the transaction read-only, and the
+ * lazy proxy defers that until the first statement.
+ *
+ * The replica is skipped while its replication lag is above the limit, or
+ * after a failed connection attempt, until the next lag check succeeds.
+ */
+class ReadReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final double maxLagSeconds;
+    private final String lagQuery;
+
+    private volatile boolean replicaAvailable = true;
+    private volatile double lagSeconds;
+
+    private Counter primaryConnections;
+    private Counter replicaConnections;
+    private Counter fallbacks;
+
+    ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, double maxLagSeconds, String lagQuery) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagQuery = lagQuery;
+    }
+
+    void registerMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("app.db.replica.lag", this, source -> source.lagSeconds)
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder("app.db.replica.available", this, source -> source.replicaAvailable ? 1 : 0)
+            .register(meterRegistry);
+        primaryConnections = meterRegistry.counter("app.db.routing", "target", "primary");
+        replicaConnections = meterRegistry.counter("app.db.routing", "target", "replica");
+        fallbacks = meterRegistry.counter("app.db.replica.fallbacks");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReplicaReadAspect.isReplicaRead() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            && replicaAvailable) {
+            try {
+                Connection connection = replica.getConnection();
+                increment(replicaConnections);
+                return connection;
+            } catch (SQLException e) {
+                markUnavailable("connection failed: " + e.getMessage());
+                increment(fallbacks);
+            }
+        }
+        increment(primaryConnections);
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Measures replication lag on the replica and takes it out of (or puts it
+     * back into) rotation.
+     */
+    void checkLag() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+        } catch (SQLException e) {
+            markUnavailable("lag check failed: " + e.getMessage());
+            return;
+        }
+        if (lagSeconds > maxLagSeconds) {
+            markUnavailable(String.format("lag %.1f s over limit %.1f s", lagSeconds, maxLagSeconds));
+        } else if (!replicaAvailable) {
+            replicaAvailable = true;
+            log.info("Read replica back in rotation (lag {} s)", lagSeconds);
+        }
+    }
+
+    boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    private void markUnavailable(String reason) {
+        if (replicaAvailable) {
+            log.warn("Read replica taken out of rotation, reads go to the primary: {}", reason);
+        }
+        replicaAvailable = false;
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
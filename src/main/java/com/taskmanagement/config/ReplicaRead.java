@@ -0,0 +1,21 @@
+package com.taskmanagement.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a @Transactional(readOnly = true) service method whose results may
+ * come from the read replica, and so may be up to
+ * app.datasource.replica.max-lag-seconds behind. Read-only transactions
+ * without it, including the ones Spring Data opens for findById and other
+ * repository calls, stay on the primary so a write is always visible to the
+ * next read.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicaRead {
+}
@@ -0,0 +1,39 @@
+package com.taskmanagement.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Flags the current thread while a @ReplicaRead method runs, so
+ * ReadReplicaRoutingDataSource may hand it a replica connection. Ordered
+ * outside the transaction interceptor: the flag is set before the
+ * transaction begins and cleared after it ends.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReplicaReadAspect {
+
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    @Around("@annotation(com.taskmanagement.config.ReplicaRead)")
+    public Object markReplicaRead(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (REPLICA_READ.get() != null) {
+            return joinPoint.proceed();
+        }
+        REPLICA_READ.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            REPLICA_READ.remove();
+        }
+    }
+
+    static boolean isReplicaRead() {
+        return REPLICA_READ.get() != null;
+    }
+}
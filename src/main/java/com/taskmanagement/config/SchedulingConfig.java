@@ -0,0 +1,23 @@
+package com.taskmanagement.config;
+
+import org.springframework.boot.task.TaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * Pool for the @Scheduled sweeps, sized by spring.task.scheduling.pool.size.
+     * Spring Boot backs off from creating its own because the WebSocket
+     * support registers a TaskScheduler, which would leave every scheduled
+     * task queued behind the others on a single thread.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(TaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+}
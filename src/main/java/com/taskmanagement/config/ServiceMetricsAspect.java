@@ -0,0 +1,83 @@
+package com.taskmanagement.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the core services (app.service.calls) and
+ * counts the exceptions they throw (app.service.errors). Calls a service makes
+ * to its own methods do not go through the proxy and are not recorded
+ * separately.
+ *
+ * Notification fan-outs (the notify* and createBulk* methods) also record how
+ * many notifications they saved (app.notifications.fanout.recipients); their
+ * latency is the app.service.calls timer for the same method.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Notifications saved by the fan-out running on this thread
+    private final ThreadLocal<int[]> fanOutRecipients = new ThreadLocal<>();
+
+    @Around("execution(public * com.taskmanagement.service.ActivityService.*(..))"
+        + " || execution(public * com.taskmanagement.service.NotificationService.*(..))"
+        + " || execution(public * com.taskmanagement.service.TeamService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        String outcome = "success";
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = "error";
+            meterRegistry.counter("app.service.errors",
+                "service", service, "method", method, "exception", e.getClass().getSimpleName()).increment();
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("app.service.calls",
+                "service", service, "method", method, "outcome", outcome));
+        }
+    }
+
+    @Around("execution(public void com.taskmanagement.service.NotificationService.notify*(..))"
+        + " || execution(public void com.taskmanagement.service.NotificationService.createBulk*(..))")
+    public Object countRecipients(ProceedingJoinPoint joinPoint) throws Throwable {
+        int[] outer = fanOutRecipients.get();
+        int[] recipients = new int[1];
+        fanOutRecipients.set(recipients);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DistributionSummary.builder("app.notifications.fanout.recipients")
+                .tag("method", joinPoint.getSignature().getName())
+                .register(meterRegistry)
+                .record(recipients[0]);
+            if (outer != null) {
+                outer[0] += recipients[0];
+                fanOutRecipients.set(outer);
+            } else {
+                fanOutRecipients.remove();
+            }
+        }
+    }
+
+    @AfterReturning("execution(* com.taskmanagement.repository.NotificationRepository.save(..))")
+    public void countRecipient() {
+        int[] recipients = fanOutRecipients.get();
+        if (recipients != null) {
+            recipients[0]++;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.taskmanagement.config;
+
+import com.taskmanagement.util.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Opt-in, experimental virtual-thread mode (app.threads.virtual=true,
+ * Java 21+; not yet load tested on a Java 21 runtime). Tomcat
+ * handles each request on its own virtual thread, and the application task
+ * executor, used for @Async methods and async MVC responses such as the
+ * streamed export, starts a virtual thread per task. Notification fan-out
+ * runs on whichever thread triggers it, so request-driven fan-out moves
+ * along with the request. Job workers switch over in JobService.
+ *
+ * Blocking inside a synchronized block pins the carrier thread; run with
+ * the java21 Maven profile to get -Djdk.tracePinnedThreads and a JFR
+ * recording of jdk.VirtualThreadPinned events.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        if (!VirtualThreads.isSupported()) {
+            throw new IllegalStateException("app.threads.virtual=true requires Java 21 or newer (running "
+                + System.getProperty("java.version") + ")");
+        }
+        log.info("Virtual-thread mode enabled for request handling and async tasks");
+        return VirtualThreads.newThreadPerTaskExecutor("vt-");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+}
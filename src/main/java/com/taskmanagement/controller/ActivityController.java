@@ -1,21 +1,43 @@
 package com.taskmanagement.controller;
 
 import com.taskmanagement.dto.*;
+import com.taskmanagement.model.Job;
+import com.taskmanagement.service.ActivityExportJobHandler;
+import com.taskmanagement.service.ActivityExportService;
+import com.taskmanagement.service.ActivityImportJobHandler;
+import com.taskmanagement.service.ActivityImportService;
 import com.taskmanagement.service.ActivityService;
+import com.taskmanagement.service.AttachmentDownloadService;
+import com.taskmanagement.service.AttachmentStorageService;
+import com.taskmanagement.service.JobService;
+import com.taskmanagement.service.StorageBackend;
+import com.taskmanagement.service.ThumbnailService;
+import com.taskmanagement.util.JwtUtil;
+import com.taskmanagement.util.StreamingMultipartParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestMethod;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,20 +49,89 @@ import java.util.Map;
             methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.PATCH, RequestMethod.DELETE, RequestMethod.OPTIONS})
 public class ActivityController {
 
+    private static final Logger log = LoggerFactory.getLogger(ActivityController.class);
+
     @Autowired
     private ActivityService activityService;
 
+    @Autowired
+    private ActivityExportService activityExportService;
+
+    @Autowired
+    private ActivityImportService activityImportService;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private AttachmentStorageService attachmentStorageService;
+
+    @Autowired
+    private AttachmentDownloadService attachmentDownloadService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private StorageBackend storage;
+
+    @Value("${app.attachments.cache-max-age-seconds:31536000}")
+    private long cacheMaxAgeSeconds;
+
+    @Value("${spring.servlet.multipart.max-file-size:10MB}")
+    private DataSize maxFileSize;
+
+    @Value("${spring.servlet.multipart.max-request-size:50MB}")
+    private DataSize maxRequestSize;
+
+    @Value("${app.import.max-size-bytes:104857600}")
+    private long maxImportSize;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
     @GetMapping
     public ResponseEntity<List<ActivityDTO>> getAllActivities() {
         try {
             List<ActivityDTO> activities = activityService.getAllActivities();
             return ResponseEntity.ok(activities);
         } catch (Exception error) {
-            System.err.println("Get activities error: " + error.getMessage());
+            log.warn("Get activities error: {}", error.getMessage());
             return ResponseEntity.status(500).build();
         }
     }
 
+    // Activities assigned to the current user across all teams (keyset paged)
+    @GetMapping("/mine")
+    public ResponseEntity<Map<String, Object>> getMyActivities(
+            @RequestParam(value = "status", required = false) List<String> statuses,
+            @RequestParam(value = "before", required = false) Long beforeId,
+            @RequestParam(value = "limit", defaultValue = "50") int limit,
+            HttpServletRequest httpRequest) {
+        try {
+            String authHeader = httpRequest.getHeader("Authorization");
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("message", "Authentication required");
+                return ResponseEntity.status(401).body(errorResponse);
+            }
+
+            String token = authHeader.substring(7);
+            Map<String, Object> response = activityService.getActivitiesAssignedToUser(token, statuses, beforeId, limit);
+            return ResponseEntity.ok(response);
+
+        } catch (RuntimeException error) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            if (error.getMessage() != null && error.getMessage().contains("Invalid status")) {
+                errorResponse.put("message", error.getMessage());
+                return ResponseEntity.status(400).body(errorResponse);
+            }
+            log.warn("Get my activities error: {}", error.getMessage());
+            errorResponse.put("message", "Internal server error");
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
     @GetMapping("/{activityId}")
     public ResponseEntity<ActivityDTO> getActivityById(@PathVariable Long activityId) {
         try {
@@ -50,10 +141,10 @@ public class ActivityController {
             if (error.getMessage().contains("not found")) {
                 return ResponseEntity.status(404).build();
             }
-            System.err.println("Get activity by ID error: " + error.getMessage());
+            log.warn("Get activity by ID error: {}", error.getMessage());
             return ResponseEntity.status(500).build();
         } catch (Exception error) {
-            System.err.println("Get activity by ID error: " + error.getMessage());
+            log.warn("Get activity by ID error: {}", error.getMessage());
             return ResponseEntity.status(500).build();
         }
     }
@@ -64,11 +155,82 @@ public class ActivityController {
             List<ActivityDTO> activities = activityService.getActivitiesForTeam(teamId);
             return ResponseEntity.ok(activities);
         } catch (Exception error) {
-            System.err.println("Get activities for team error: " + error.getMessage());
+            log.warn("Get activities for team error: {}", error.getMessage());
             return ResponseEntity.status(500).build();
         }
     }
 
+    // Stream a team's activities as NDJSON (default) or CSV
+    @GetMapping("/team/{teamId}/export")
+    public ResponseEntity<StreamingResponseBody> exportActivitiesForTeam(
+            @PathVariable Long teamId,
+            @RequestParam(value = "format", required = false) String format) {
+        try {
+            ActivityExportService.Format exportFormat = ActivityExportService.parseFormat(format);
+            activityExportService.checkTeamExists(teamId);
+
+            boolean csv = exportFormat == ActivityExportService.Format.CSV;
+            String filename = "team-" + teamId + "-activities." + (csv ? "csv" : "ndjson");
+            StreamingResponseBody body = out -> activityExportService.exportTeamActivities(teamId, exportFormat, out);
+
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                    .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                                     : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8))
+                    .body(body);
+        } catch (RuntimeException error) {
+            if (error.getMessage() != null && error.getMessage().contains("not found")) {
+                return ResponseEntity.status(404).build();
+            } else if (error.getMessage() != null && error.getMessage().contains("Invalid export format")) {
+                return ResponseEntity.status(400).build();
+            }
+            log.warn("Export activities error: {}", error.getMessage());
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    // Export a team's activities to a file in a background job; download it from /api/jobs/{jobId}/download
+    @PostMapping("/team/{teamId}/export")
+    public ResponseEntity<Map<String, Object>> startActivityExport(
+            @PathVariable Long teamId,
+            @RequestParam(value = "format", required = false) String format,
+            HttpServletRequest httpRequest) {
+        try {
+            String authHeader = httpRequest.getHeader("Authorization");
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("message", "Authentication required");
+                return ResponseEntity.status(401).body(errorResponse);
+            }
+
+            ActivityExportService.Format exportFormat = ActivityExportService.parseFormat(format);
+            activityExportService.checkTeamExists(teamId);
+
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("teamId", teamId);
+            payload.put("format", exportFormat.name());
+            Job job = jobService.submit(ActivityExportJobHandler.TYPE, payload, jwtUtil.extractUserId(authHeader.substring(7)));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Export started");
+            response.put("jobId", job.getId());
+            response.put("job", job);
+            return ResponseEntity.status(202).body(response);
+
+        } catch (RuntimeException error) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", error.getMessage());
+            if (error.getMessage() != null && error.getMessage().contains("not found")) {
+                return ResponseEntity.status(404).body(errorResponse);
+            } else if (error.getMessage() != null && error.getMessage().contains("Invalid export format")) {
+                return ResponseEntity.status(400).body(errorResponse);
+            }
+            log.warn("Start activity export error: {}", error.getMessage());
+            errorResponse.put("message", "Internal server error");
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
     @PostMapping
     public ResponseEntity<Map<String, Object>> createActivity(
             @RequestBody CreateActivityRequest request,
@@ -91,24 +253,19 @@ public class ActivityController {
             return ResponseEntity.ok(response);
             
         } catch (Exception error) {
-            System.err.println("Create activity error: " + error.getMessage());
+            log.warn("Create activity error: {}", error.getMessage());
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("message", "Error creating activity: " + error.getMessage());
             return ResponseEntity.status(500).body(errorResponse);
         }
     }
 
-    @PostMapping(consumes = "multipart/form-data")
-    public ResponseEntity<Map<String, Object>> createActivityWithFiles(
-            @RequestParam("name") String name,
-            @RequestParam("description") String description,
-            @RequestParam("priority") String priority,
-            @RequestParam("team_id") Long teamId,
-            @RequestParam(value = "targetDate", required = false) String targetDate,
-            @RequestParam(value = "assignedUsers", required = false) String assignedUsersJson,
-            @RequestParam(value = "links", required = false) String linksJson,
-            @RequestParam(value = "attachments", required = false) MultipartFile[] attachments,
-            @RequestParam(value = "creatorSubscribed", required = false) Boolean creatorSubscribed,
+    // Bulk import activities from an NDJSON (default) or CSV request body. The body is
+    // spooled to disk and imported by a background job; poll /api/jobs/{jobId} for the result
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importActivities(
+            @RequestParam(value = "format", required = false) String format,
+            @RequestParam(value = "teamId", required = false) Long teamId,
             HttpServletRequest httpRequest) {
         try {
             String authHeader = httpRequest.getHeader("Authorization");
@@ -117,20 +274,83 @@ public class ActivityController {
                 errorResponse.put("message", "Authentication required");
                 return ResponseEntity.status(401).body(errorResponse);
             }
+
+            String token = authHeader.substring(7);
+            Long importerId = activityImportService.checkImportPermission(token);
+            boolean csv = ActivityImportService.isCsvFormat(format);
+
+            if (httpRequest.getContentLengthLong() > maxImportSize) {
+                throw new RuntimeException("Import too large: the limit is " + maxImportSize + " bytes");
+            }
+            Path upload = jobService.newUploadFile();
+            spoolImport(httpRequest.getInputStream(), upload);
+
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("file", upload.toString());
+            payload.put("format", csv ? "csv" : "ndjson");
+            payload.put("teamId", teamId);
+            Job job = jobService.submit(ActivityImportJobHandler.TYPE, payload, importerId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Import started");
+            response.put("jobId", job.getId());
+            response.put("job", job);
+
+            return ResponseEntity.status(202).body(response);
+
+        } catch (RuntimeException error) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            if (error.getMessage() != null && error.getMessage().contains("permission")) {
+                errorResponse.put("message", error.getMessage());
+                return ResponseEntity.status(403).body(errorResponse);
+            } else if (error.getMessage() != null && error.getMessage().contains("Invalid import format")) {
+                errorResponse.put("message", error.getMessage());
+                return ResponseEntity.status(400).body(errorResponse);
+            } else if (error.getMessage() != null && error.getMessage().startsWith("Import too large")) {
+                errorResponse.put("message", error.getMessage());
+                return ResponseEntity.status(413).body(errorResponse);
+            }
+            log.warn("Import activities error: {}", error.getMessage());
+            errorResponse.put("message", "Error importing activities: " + error.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        } catch (Exception error) {
+            log.warn("Import activities error: {}", error.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", "Error importing activities: " + error.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
+    // Multipart body is streamed part by part; attachments go straight to attachment storage
+    @PostMapping(consumes = "multipart/form-data")
+    public ResponseEntity<Map<String, Object>> createActivityWithFiles(HttpServletRequest httpRequest) {
+        List<AttachmentStorageService.StoredFile> attachments = new ArrayList<>();
+        try {
+            String authHeader = httpRequest.getHeader("Authorization");
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("message", "Authentication required");
+                return ResponseEntity.status(401).body(errorResponse);
+            }
             
             String token = authHeader.substring(7);
+            Map<String, String> fields = readMultipart(httpRequest, attachments);
             
             // Create request object
             CreateActivityWithFilesRequest request = new CreateActivityWithFilesRequest();
-            request.setName(name);
-            request.setDescription(description);
-            request.setPriority(priority);
-            request.setTeamId(teamId);
-            request.setTargetDate(targetDate);
-            request.setAssignedUsersJson(assignedUsersJson);
-            request.setLinksJson(linksJson);
+            request.setName(requiredField(fields, "name"));
+            request.setDescription(requiredField(fields, "description"));
+            request.setPriority(requiredField(fields, "priority"));
+            try {
+                request.setTeamId(Long.valueOf(requiredField(fields, "team_id")));
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid team_id: " + fields.get("team_id"));
+            }
+            request.setTargetDate(fields.get("targetDate"));
+            request.setAssignedUsersJson(fields.get("assignedUsers"));
+            request.setLinksJson(fields.get("links"));
             request.setAttachments(attachments);
-            request.setCreatorSubscribed(creatorSubscribed != null ? creatorSubscribed : false);
+            request.setCreatorSubscribed(Boolean.parseBoolean(fields.get("creatorSubscribed")));
             
             ActivityDTO activity = activityService.createActivityWithFiles(request, token);
             
@@ -141,11 +361,17 @@ public class ActivityController {
             return ResponseEntity.ok(response);
             
         } catch (Exception error) {
-            System.err.println("Create activity with files error: " + error.getMessage());
-            error.printStackTrace();
             Map<String, Object> errorResponse = new HashMap<>();
+            if (error.getMessage() != null && error.getMessage().startsWith("Invalid")) {
+                errorResponse.put("message", error.getMessage());
+                return ResponseEntity.status(400).body(errorResponse);
+            }
+            log.error("Create activity with files error", error);
             errorResponse.put("message", "Error creating activity with files: " + error.getMessage());
             return ResponseEntity.status(500).body(errorResponse);
+        } finally {
+            // Drop uploads that were not registered (validation or transaction failure)
+            attachmentStorageService.discard(attachments);
         }
     }
 
@@ -188,13 +414,54 @@ public class ActivityController {
                 return ResponseEntity.status(500).body(errorResponse);
             }
         } catch (Exception error) {
-            System.err.println("Update activity status error: " + error.getMessage());
+            log.warn("Update activity status error: {}", error.getMessage());
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("message", "Internal server error");
             return ResponseEntity.status(500).body(errorResponse);
         }
     }
 
+    // Update the status of many activities at once
+    @PatchMapping("/status")
+    public ResponseEntity<Map<String, Object>> updateActivityStatuses(
+            @RequestBody BatchStatusUpdateRequest request,
+            HttpServletRequest httpRequest) {
+        try {
+            String authHeader = httpRequest.getHeader("Authorization");
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("message", "Authentication required");
+                return ResponseEntity.status(401).body(errorResponse);
+            }
+            
+            String token = authHeader.substring(7);
+            List<ActivitySummaryDTO> activities = activityService.updateActivityStatuses(request, token);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Activity statuses updated successfully");
+            response.put("activities", activities);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (RuntimeException error) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            if (error.getMessage() != null && error.getMessage().contains("not found")) {
+                errorResponse.put("message", error.getMessage());
+                return ResponseEntity.status(404).body(errorResponse);
+            } else if (error.getMessage() != null && error.getMessage().contains("permission")) {
+                errorResponse.put("message", error.getMessage());
+                return ResponseEntity.status(403).body(errorResponse);
+            } else if (error.getMessage() != null && error.getMessage().startsWith("Invalid")) {
+                errorResponse.put("message", error.getMessage());
+                return ResponseEntity.status(400).body(errorResponse);
+            } else {
+                log.warn("Batch status update error: {}", error.getMessage());
+                errorResponse.put("message", "Internal server error");
+                return ResponseEntity.status(500).body(errorResponse);
+            }
+        }
+    }
+
     // Add remark to activity
     @PostMapping("/{activityId}/remarks")
     public ResponseEntity<Map<String, Object>> addRemarkToActivity(
@@ -231,7 +498,7 @@ public class ActivityController {
                 return ResponseEntity.status(500).body(errorResponse);
             }
         } catch (Exception error) {
-            System.err.println("Add remark error: " + error.getMessage());
+            log.warn("Add remark error: {}", error.getMessage());
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("message", "Internal server error");
             return ResponseEntity.status(500).body(errorResponse);
@@ -248,10 +515,10 @@ public class ActivityController {
             if (error.getMessage().contains("not found")) {
                 return ResponseEntity.status(404).build();
             }
-            System.err.println("Get remarks error: " + error.getMessage());
+            log.warn("Get remarks error: {}", error.getMessage());
             return ResponseEntity.status(500).build();
         } catch (Exception error) {
-            System.err.println("Get remarks error: " + error.getMessage());
+            log.warn("Get remarks error: {}", error.getMessage());
             return ResponseEntity.status(500).build();
         }
     }
@@ -292,7 +559,7 @@ public class ActivityController {
                 return ResponseEntity.status(400).body(errorResponse);
             }
         } catch (Exception error) {
-            System.err.println("Update remark error: " + error.getMessage());
+            log.warn("Update remark error: {}", error.getMessage());
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("message", "Internal server error");
             return ResponseEntity.status(500).body(errorResponse);
@@ -333,7 +600,7 @@ public class ActivityController {
                 return ResponseEntity.status(400).body(errorResponse);
             }
         } catch (Exception error) {
-            System.err.println("Delete remark error: " + error.getMessage());
+            log.warn("Delete remark error: {}", error.getMessage());
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("message", "Internal server error");
             return ResponseEntity.status(500).body(errorResponse);
@@ -386,18 +653,9 @@ public class ActivityController {
     @PutMapping(value = "/{activityId}", consumes = "multipart/form-data")
     public ResponseEntity<Map<String, Object>> updateActivityWithFiles(
             @PathVariable Long activityId,
-            @RequestParam("name") String name,
-            @RequestParam("description") String description,
-            @RequestParam("priority") String priority,
-            @RequestParam(value = "targetDate", required = false) String targetDate,
-            @RequestParam(value = "assignedUsers", required = false) String assignedUsersJson,
-            @RequestParam(value = "creatorSubscribed", required = false) String creatorSubscribed,
-            @RequestParam(value = "newLinks", required = false) String newLinksJson,
-            @RequestParam(value = "attachments", required = false) MultipartFile[] attachments,
-            @RequestParam(value = "attachmentsToDelete", required = false) String attachmentsToDeleteJson,
-            @RequestParam(value = "linksToDelete", required = false) String linksToDeleteJson,
             HttpServletRequest httpRequest) {
         
+        List<AttachmentStorageService.StoredFile> attachments = new ArrayList<>();
         try {
             String authHeader = httpRequest.getHeader("Authorization");
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -407,13 +665,23 @@ public class ActivityController {
             }
             
             String token = authHeader.substring(7);
+            Map<String, String> fields = readMultipart(httpRequest, attachments);
+            String name = requiredField(fields, "name");
+            String description = requiredField(fields, "description");
+            String priority = requiredField(fields, "priority");
+            String targetDate = fields.get("targetDate");
+            String assignedUsersJson = fields.get("assignedUsers");
+            String creatorSubscribed = fields.get("creatorSubscribed");
+            String newLinksJson = fields.get("newLinks");
+            String attachmentsToDeleteJson = fields.get("attachmentsToDelete");
+            String linksToDeleteJson = fields.get("linksToDelete");
             
             // Debug logging
-            System.out.println("=== UPDATE ACTIVITY WITH FILES DEBUG ===");
-            System.out.println("attachmentsToDeleteJson received: " + attachmentsToDeleteJson);
-            System.out.println("linksToDeleteJson received: " + linksToDeleteJson);
-            System.out.println("creatorSubscribed received: " + creatorSubscribed);
-            System.out.println("========================================");
+            log.debug("=== UPDATE ACTIVITY WITH FILES DEBUG ===");
+            log.debug("attachmentsToDeleteJson received: {}", attachmentsToDeleteJson);
+            log.debug("linksToDeleteJson received: {}", linksToDeleteJson);
+            log.debug("creatorSubscribed received: {}", creatorSubscribed);
+            log.debug("========================================");
             
             // Create request object
             UpdateActivityWithFilesRequest request = new UpdateActivityWithFilesRequest();
@@ -444,36 +712,66 @@ public class ActivityController {
             } else if (error.getMessage().contains("permission") || error.getMessage().contains("not authorized")) {
                 errorResponse.put("message", error.getMessage());
                 return ResponseEntity.status(403).body(errorResponse);
+            } else if (error.getMessage().startsWith("Invalid")) {
+                errorResponse.put("message", error.getMessage());
+                return ResponseEntity.status(400).body(errorResponse);
             } else {
-                System.err.println("Update activity with files error: " + error.getMessage());
-                error.printStackTrace();
+                log.error("Update activity with files error", error);
                 errorResponse.put("message", "Error updating activity: " + error.getMessage());
                 return ResponseEntity.status(500).body(errorResponse);
             }
         } catch (Exception error) {
-            System.err.println("Update activity with files error: " + error.getMessage());
-            error.printStackTrace();
+            log.error("Update activity with files error", error);
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("message", "Error updating activity: " + error.getMessage());
             return ResponseEntity.status(500).body(errorResponse);
         } finally {
-            // Force cleanup of any remaining multipart file references
-            if (attachments != null) {
-                for (MultipartFile file : attachments) {
-                    if (file != null && !file.isEmpty()) {
-                        try {
-                            // This helps with cleanup on Windows
-                            file.getInputStream().close();
-                        } catch (Exception e) {
-                            // Ignore cleanup errors
-                        }
-                    }
+            // Drop uploads that were not registered (validation or transaction failure)
+            attachmentStorageService.discard(attachments);
+        }
+    }
+
+    // Copy an import body to the jobs directory, giving up once it passes app.import.max-size-bytes
+    // (chunked requests carry no Content-Length to check up front)
+    private void spoolImport(InputStream body, Path upload) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(upload)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+                if (total > maxImportSize) {
+                    throw new RuntimeException("Import too large: the limit is " + maxImportSize + " bytes");
                 }
+                out.write(buffer, 0, read);
             }
-            System.gc(); // Suggest garbage collection to help with cleanup
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(upload);
+            throw e;
         }
     }
 
+    // Stream the multipart body: files named "attachments" are written to attachment
+    // storage as they arrive, everything else is returned as form fields
+    private Map<String, String> readMultipart(HttpServletRequest httpRequest,
+                                              List<AttachmentStorageService.StoredFile> attachments) throws IOException {
+        StreamingMultipartParser parser = new StreamingMultipartParser(maxFileSize.toBytes(), maxRequestSize.toBytes());
+        Map<String, String> fields = parser.parse(httpRequest, (fieldName, filename, contentType, content) -> {
+            if ("attachments".equals(fieldName)) {
+                attachments.add(attachmentStorageService.write(content, filename, contentType));
+            }
+        });
+        return fields;
+    }
+
+    private String requiredField(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null) {
+            throw new RuntimeException("Invalid request: missing field " + name);
+        }
+        return value;
+    }
+
     // Delete activity
     @DeleteMapping("/{activityId}")
     public ResponseEntity<Map<String, Object>> deleteActivity(
@@ -511,8 +809,7 @@ public class ActivityController {
                 return ResponseEntity.status(400).body(errorResponse);
             }
         } catch (Exception error) {
-            System.err.println("Delete activity error: " + error.getMessage());
-            error.printStackTrace();
+            log.error("Delete activity error", error);
             Map<String, Object> errorResponse = new HashMap<>();
             
             // Check if it's a constraint violation exception
@@ -528,26 +825,51 @@ public class ActivityController {
         }
     }
 
-    @Value("${app.upload.dir:uploads}")
-    private String uploadDir;
-
+    // Serves stored attachments with Range, ETag and Cache-Control support
     @GetMapping("/files/{filename}")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String filename) {
+    public void downloadFile(@PathVariable String filename, HttpServletRequest request, HttpServletResponse response) {
         try {
-            Path filePath = Paths.get(uploadDir).resolve(filename).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (resource.exists()) {
-                return ResponseEntity.ok()
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                        .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
+            attachmentDownloadService.serve(filename, request, response);
+        } catch (Exception e) {
+            // Usually the client aborting a download it already has in part
+            log.warn("Error downloading file: {}", e.getMessage());
+            if (!response.isCommitted()) {
+                response.setStatus(500);
+            }
+        }
+    }
+
+    // Thumbnails are generated in the background on upload; a missing one is rendered now
+    @GetMapping("/files/{filename}/thumb")
+    public void downloadThumbnail(@PathVariable String filename,
+                                  @RequestParam(required = false) Integer size,
+                                  HttpServletRequest request, HttpServletResponse response) {
+        try {
+            int resolvedSize = thumbnailService.resolveSize(size);
+            String etag = "\"" + filename + "-" + resolvedSize + "\"";
+            if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+                return;
+            }
+
+            String key = attachmentStorageService.storageKey(filename);
+            String thumb = key != null ? thumbnailService.getOrCreate(key, resolvedSize) : null;
+            if (thumb == null) {
+                response.sendError(404, "No thumbnail available for this file");
+                return;
+            }
+
+            response.setContentType(MediaType.IMAGE_PNG_VALUE);
+            response.setContentLengthLong(storage.size(thumb));
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + cacheMaxAgeSeconds + ", immutable");
+            try (InputStream content = Channels.newInputStream(storage.open(thumb))) {
+                StreamUtils.copy(content, response.getOutputStream());
             }
         } catch (Exception e) {
-            System.err.println("Error downloading file: " + e.getMessage());
-            return ResponseEntity.status(500).build();
+            log.warn("Error serving thumbnail: {}", e.getMessage());
+            if (!response.isCommitted()) {
+                String message = e.getMessage() != null ? e.getMessage() : "";
+                response.setStatus(message.contains("not found") ? 404 : message.startsWith("Invalid") ? 400 : 500);
+            }
         }
     }
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package com.taskmanagement.controller;
 
 import com.taskmanagement.model.Domain;
 import com.taskmanagement.service.DomainService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -13,12 +15,14 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:4200", allowCredentials = "true")
 public class DomainController {
 
+    private static final Logger log = LoggerFactory.getLogger(DomainController.class);
+
     @Autowired
     private DomainService domainService;
 
     @GetMapping
     public ResponseEntity<List<Domain>> getAllDomains() {
-    	System.out.println("Domain route hit!");
+    	log.debug("Domain route hit!");
         List<Domain> domains = domainService.getAllDomains();
         return ResponseEntity.ok(domains);
     }
@@ -0,0 +1,166 @@
+package com.taskmanagement.controller;
+
+import com.taskmanagement.model.Job;
+import com.taskmanagement.model.User;
+import com.taskmanagement.repository.UserRepository;
+import com.taskmanagement.service.JobService;
+import com.taskmanagement.service.StorageMigrationJobHandler;
+import com.taskmanagement.util.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "http://localhost:4200", allowCredentials = "true")
+public class JobController {
+
+    private static final Logger log = LoggerFactory.getLogger(JobController.class);
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    // Poll the state of a background job
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable Long jobId, HttpServletRequest request) {
+        Long currentUserId = getCurrentUserId(request);
+        if (currentUserId == null) {
+            return unauthorized();
+        }
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("job", jobService.getJob(jobId, currentUserId));
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException error) {
+            return errorResponse(error, "Get job error: ");
+        }
+    }
+
+    // Request cancellation of a queued or running job
+    @PostMapping("/{jobId}/cancel")
+    public ResponseEntity<Map<String, Object>> cancelJob(@PathVariable Long jobId, HttpServletRequest request) {
+        Long currentUserId = getCurrentUserId(request);
+        if (currentUserId == null) {
+            return unauthorized();
+        }
+        try {
+            Job job = jobService.cancel(jobId, currentUserId);
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", job.getStatus() == Job.JobStatus.CANCELLED ? "Job cancelled" : "Cancellation requested");
+            response.put("job", job);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException error) {
+            return errorResponse(error, "Cancel job error: ");
+        }
+    }
+
+    // Download the output file of a finished export job
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<?> downloadJobResult(@PathVariable Long jobId, HttpServletRequest request) {
+        Long currentUserId = getCurrentUserId(request);
+        if (currentUserId == null) {
+            return unauthorized();
+        }
+        try {
+            Path file = jobService.getResultFile(jobId, currentUserId);
+            String fileName = file.getFileName().toString();
+            // Strip the internal job-<id>- prefix
+            String downloadName = fileName.substring(fileName.indexOf('-', 4) + 1);
+            MediaType contentType = downloadName.endsWith(".csv")
+                    ? MediaType.parseMediaType("text/csv")
+                    : MediaType.parseMediaType("application/x-ndjson");
+
+            Resource resource = new FileSystemResource(file);
+            return ResponseEntity.ok()
+                    .contentType(contentType)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + downloadName + "\"")
+                    .body(resource);
+        } catch (RuntimeException error) {
+            return errorResponse(error, "Download job result error: ");
+        }
+    }
+
+    // Admin only: move attachment files from the flat upload directory into shards
+    @PostMapping("/storage-migration")
+    public ResponseEntity<Map<String, Object>> migrateStorage(HttpServletRequest request) {
+        Long currentUserId = getCurrentUserId(request);
+        if (currentUserId == null) {
+            return unauthorized();
+        }
+        try {
+            User user = userRepository.findById(currentUserId).orElse(null);
+            if (user == null || !"admin".equalsIgnoreCase(user.getRole())) {
+                throw new RuntimeException("You do not have permission to migrate storage");
+            }
+            Job job = jobService.submit(StorageMigrationJobHandler.TYPE, new HashMap<>(), currentUserId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Storage migration started");
+            response.put("jobId", job.getId());
+            response.put("job", job);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (RuntimeException error) {
+            return errorResponse(error, "Storage migration error: ");
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(RuntimeException error, String logPrefix) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        String message = error.getMessage();
+        if (message != null && message.contains("not found")) {
+            errorResponse.put("message", message);
+            return ResponseEntity.status(404).body(errorResponse);
+        } else if (message != null && message.contains("permission")) {
+            errorResponse.put("message", message);
+            return ResponseEntity.status(403).body(errorResponse);
+        } else if (message != null && message.startsWith("Invalid")) {
+            errorResponse.put("message", message);
+            return ResponseEntity.status(400).body(errorResponse);
+        }
+        log.error("{}{}", logPrefix, message, error);
+        errorResponse.put("message", "Internal server error");
+        return ResponseEntity.status(500).body(errorResponse);
+    }
+
+    private ResponseEntity<Map<String, Object>> unauthorized() {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("message", "Authentication required");
+        return ResponseEntity.status(401).body(errorResponse);
+    }
+
+    /**
+     * Helper method to extract current user ID from JWT token
+     */
+    private Long getCurrentUserId(HttpServletRequest request) {
+        try {
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                String token = authHeader.substring(7);
+                if (jwtUtil.validateToken(token)) {
+                    return jwtUtil.extractUserId(token);
+                }
+            }
+            return null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
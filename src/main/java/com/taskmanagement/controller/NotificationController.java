@@ -1,16 +1,24 @@
 package com.taskmanagement.controller;
 
 import com.taskmanagement.dto.CreateNotificationRequest;
+import com.taskmanagement.model.Job;
 import com.taskmanagement.model.Notification;
 import com.taskmanagement.model.User;
+import com.taskmanagement.service.JobService;
+import com.taskmanagement.service.NotificationCleanupJobHandler;
 import com.taskmanagement.service.NotificationService;
+import com.taskmanagement.service.NotificationStreamService;
 import com.taskmanagement.service.AuthService;
 import com.taskmanagement.util.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.HashMap;
@@ -22,12 +30,20 @@ import java.util.Map;
 @CrossOrigin(origins = "http://localhost:4200", allowCredentials = "true")
 public class NotificationController {
 
+    private static final Logger log = LoggerFactory.getLogger(NotificationController.class);
+
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private JobService jobService;
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -46,7 +62,7 @@ public class NotificationController {
             return ResponseEntity.ok(notifications);
             
         } catch (Exception error) {
-            System.err.println("Get notifications error: " + error.getMessage());
+            log.warn("Get notifications error: {}", error.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -66,7 +82,7 @@ public class NotificationController {
             return ResponseEntity.ok(notifications);
             
         } catch (Exception error) {
-            System.err.println("Get unread notifications error: " + error.getMessage());
+            log.warn("Get unread notifications error: {}", error.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -89,7 +105,50 @@ public class NotificationController {
             return ResponseEntity.ok(counts);
             
         } catch (Exception error) {
-            System.err.println("Get notification counts error: " + error.getMessage());
+            log.warn("Get notification counts error: {}", error.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Live notification stream (Server-Sent Events) for clients that cannot
+     * keep a WebSocket open. EventSource cannot set headers, so the token may
+     * also be passed as ?token=; on reconnect the browser sends
+     * Last-Event-ID and missed notifications are replayed.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamNotifications(
+            @RequestParam(value = "token", required = false) String token,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            HttpServletRequest request) {
+        Long userId = getCurrentUserId(request);
+        if (userId == null && token != null && jwtUtil.validateToken(token)) {
+            userId = jwtUtil.extractUserId(token);
+        }
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Long resumeFrom = null;
+        if (lastEventId != null && !lastEventId.isEmpty()) {
+            try {
+                resumeFrom = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+        }
+
+        try {
+            SseEmitter emitter = notificationStreamService.connect(userId, resumeFrom);
+            return ResponseEntity.ok()
+                .header("Cache-Control", "no-cache")
+                .header("X-Accel-Buffering", "no") // Stop nginx-style proxies from buffering the stream
+                .body(emitter);
+        } catch (RuntimeException error) {
+            log.warn("Open notification stream error: {}", error.getMessage());
+            if (error.getMessage() != null && error.getMessage().contains("Too many open notification streams")) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+            }
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -149,7 +208,7 @@ public class NotificationController {
             return ResponseEntity.ok(response);
             
         } catch (Exception error) {
-            System.err.println("Mark all as read error: " + error.getMessage());
+            log.warn("Mark all as read error: {}", error.getMessage());
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("message", "Internal server error");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
@@ -209,7 +268,7 @@ public class NotificationController {
             return ResponseEntity.ok(notifications);
             
         } catch (Exception error) {
-            System.err.println("Get notifications by type error: " + error.getMessage());
+            log.warn("Get notifications by type error: {}", error.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -231,7 +290,7 @@ public class NotificationController {
             return ResponseEntity.ok(notifications);
             
         } catch (Exception error) {
-            System.err.println("Get team notifications error: " + error.getMessage());
+            log.warn("Get team notifications error: {}", error.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -253,7 +312,7 @@ public class NotificationController {
             return ResponseEntity.ok(notifications);
             
         } catch (Exception error) {
-            System.err.println("Get activity notifications error: " + error.getMessage());
+            log.warn("Get activity notifications error: {}", error.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -281,7 +340,7 @@ public class NotificationController {
             return ResponseEntity.ok(response);
             
         } catch (Exception error) {
-            System.err.println("Create notification error: " + error.getMessage());
+            log.warn("Create notification error: {}", error.getMessage());
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("message", "Internal server error");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
@@ -289,22 +348,25 @@ public class NotificationController {
     }
 
     /**
-     * Admin endpoint: Clean up old notifications
+     * Admin endpoint: Clean up old notifications in a background job
      */
     @DeleteMapping("/admin/cleanup/{daysOld}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Map<String, Object>> cleanupOldNotifications(@PathVariable int daysOld) {
+    public ResponseEntity<Map<String, Object>> cleanupOldNotifications(@PathVariable int daysOld, HttpServletRequest request) {
         try {
-            int deletedCount = notificationService.deleteOldNotifications(daysOld);
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("daysOld", daysOld);
+            Job job = jobService.submit(NotificationCleanupJobHandler.TYPE, payload, getCurrentUserId(request));
             
             Map<String, Object> response = new HashMap<>();
-            response.put("message", "Cleanup completed");
-            response.put("deletedCount", deletedCount);
+            response.put("message", "Cleanup started");
+            response.put("jobId", job.getId());
+            response.put("job", job);
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
             
         } catch (Exception error) {
-            System.err.println("Cleanup notifications error: " + error.getMessage());
+            log.warn("Cleanup notifications error: {}", error.getMessage());
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("message", "Internal server error");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
@@ -357,7 +419,7 @@ public class NotificationController {
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
-            System.err.println("Create test notification error: " + e.getMessage());
+            log.warn("Create test notification error: {}", e.getMessage());
             Map<String, Object> error = new HashMap<>();
             error.put("error", "Failed to create test notification");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
@@ -1,11 +1,18 @@
 package com.taskmanagement.controller;
 
+import com.taskmanagement.dto.ActivityStatsDTO;
 import com.taskmanagement.dto.AddMembersRequest;
 import com.taskmanagement.dto.CreateTeamRequest;
+import com.taskmanagement.model.Job;
 import com.taskmanagement.model.Team;
+import com.taskmanagement.service.ActivityStatsService;
+import com.taskmanagement.service.JobService;
 import com.taskmanagement.service.NotificationService;
+import com.taskmanagement.service.TeamDeleteJobHandler;
 import com.taskmanagement.service.TeamService;
 import com.taskmanagement.util.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -22,12 +29,20 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:4200", allowCredentials = "true")
 public class TeamController {
 
+    private static final Logger log = LoggerFactory.getLogger(TeamController.class);
+
     @Autowired
     private TeamService teamService;
     
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private ActivityStatsService activityStatsService;
+    
+    @Autowired
+    private JobService jobService;
+    
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -71,6 +86,31 @@ public class TeamController {
         }
     }
 
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<Map<String, Object>> getTeamStats(@PathVariable Long id, HttpServletRequest request) {
+        Long currentUserId = getCurrentUserId(request);
+        if (currentUserId == null) {
+            return ResponseEntity.status(401).build();
+        }
+        
+        if (teamService.findById(id) == null) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", "Team not found");
+            return ResponseEntity.status(404).body(errorResponse);
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("team", activityStatsService.getTeamStats(id));
+        
+        // Admins also get the rollup across all teams
+        if (isUserAdmin(request)) {
+            ActivityStatsDTO allTeams = activityStatsService.getAllTeamsStats();
+            response.put("allTeams", allTeams);
+        }
+        
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping
     public ResponseEntity<Team> createTeam(@RequestBody CreateTeamRequest request, HttpServletRequest httpRequest) {
         // Get current user ID from JWT token
@@ -132,7 +172,7 @@ public class TeamController {
             return ResponseEntity.ok(response);
             
         } catch (Exception error) {
-            System.err.println("Add team member error: " + error.getMessage());
+            log.warn("Add team member error: {}", error.getMessage());
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("message", "Internal server error");
             return ResponseEntity.status(500).body(errorResponse);
@@ -193,7 +233,7 @@ public class TeamController {
             return ResponseEntity.ok(response);
             
         } catch (Exception error) {
-            System.err.println("Remove team member error: " + error.getMessage());
+            log.warn("Remove team member error: {}", error.getMessage());
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("message", "Internal server error");
             return ResponseEntity.status(500).body(errorResponse);
@@ -206,14 +246,22 @@ public class TeamController {
         return ResponseEntity.ok(updatedTeam);
     }
 
+    // Team deletion runs as a background job; poll /api/jobs/{jobId} for completion
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> deleteTeam(@PathVariable Long id) {
+    public ResponseEntity<Map<String, Object>> deleteTeam(@PathVariable Long id, HttpServletRequest request) {
         try {
-            teamService.deleteTeam(id);
+            if (teamService.findById(id) == null) {
+                throw new RuntimeException("Team not found");
+            }
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("teamId", id);
+            Job job = jobService.submit(TeamDeleteJobHandler.TYPE, payload, getCurrentUserId(request));
             
             Map<String, Object> response = new HashMap<>();
-            response.put("message", "Team deleted successfully");
-            return ResponseEntity.ok(response);
+            response.put("message", "Team deletion started");
+            response.put("jobId", job.getId());
+            response.put("job", job);
+            return ResponseEntity.status(202).body(response);
             
         } catch (RuntimeException error) {
             Map<String, Object> errorResponse = new HashMap<>();
@@ -228,7 +276,7 @@ public class TeamController {
                 return ResponseEntity.status(400).body(errorResponse);
             }
         } catch (Exception error) {
-            System.err.println("Delete team error: " + error.getMessage());
+            log.warn("Delete team error: {}", error.getMessage());
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("message", "Internal server error");
             return ResponseEntity.status(500).body(errorResponse);
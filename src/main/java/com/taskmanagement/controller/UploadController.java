@@ -0,0 +1,164 @@
+package com.taskmanagement.controller;
+
+import com.taskmanagement.dto.ActivityDTO;
+import com.taskmanagement.dto.CompleteUploadRequest;
+import com.taskmanagement.dto.CreateUploadRequest;
+import com.taskmanagement.service.UploadSessionService;
+import com.taskmanagement.util.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resumable uploads for large attachments:
+ * POST /api/uploads creates a session, PUT /api/uploads/{id}?offset=N sends one
+ * chunk (any order, in parallel if desired), GET /api/uploads/{id} reports the
+ * resume offset and missing chunks, POST /api/uploads/{id}/complete verifies the
+ * checksum and attaches the file to an activity, DELETE aborts.
+ */
+@RestController
+@RequestMapping("/api/uploads")
+@CrossOrigin(origins = "http://localhost:4200", allowCredentials = "true")
+public class UploadController {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadController.class);
+
+    @Autowired
+    private UploadSessionService uploadSessionService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createUpload(@RequestBody CreateUploadRequest request,
+                                                            HttpServletRequest httpRequest) {
+        Long currentUserId = getCurrentUserId(httpRequest);
+        if (currentUserId == null) {
+            return unauthorized();
+        }
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("upload", uploadSessionService.createSession(request, currentUserId));
+            return ResponseEntity.status(201).body(response);
+        } catch (Exception error) {
+            return errorResponse(error, "Create upload error: ");
+        }
+    }
+
+    @PutMapping("/{uploadId}")
+    public ResponseEntity<Map<String, Object>> uploadChunk(@PathVariable String uploadId,
+                                                           @RequestParam("offset") long offset,
+                                                           HttpServletRequest httpRequest) {
+        Long currentUserId = getCurrentUserId(httpRequest);
+        if (currentUserId == null) {
+            return unauthorized();
+        }
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("upload", uploadSessionService.writeChunk(uploadId, currentUserId, offset, httpRequest.getInputStream()));
+            return ResponseEntity.ok(response);
+        } catch (Exception error) {
+            return errorResponse(error, "Upload chunk error: ");
+        }
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<Map<String, Object>> getUpload(@PathVariable String uploadId, HttpServletRequest httpRequest) {
+        Long currentUserId = getCurrentUserId(httpRequest);
+        if (currentUserId == null) {
+            return unauthorized();
+        }
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("upload", uploadSessionService.getStatus(uploadId, currentUserId));
+            return ResponseEntity.ok(response);
+        } catch (Exception error) {
+            return errorResponse(error, "Get upload error: ");
+        }
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<Map<String, Object>> completeUpload(@PathVariable String uploadId,
+                                                              @RequestBody CompleteUploadRequest request,
+                                                              HttpServletRequest httpRequest) {
+        Long currentUserId = getCurrentUserId(httpRequest);
+        if (currentUserId == null) {
+            return unauthorized();
+        }
+        try {
+            String token = httpRequest.getHeader("Authorization").substring(7);
+            ActivityDTO activity = uploadSessionService.complete(uploadId, currentUserId, request, token);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Upload attached successfully");
+            response.put("activity", activity);
+            return ResponseEntity.ok(response);
+        } catch (Exception error) {
+            return errorResponse(error, "Complete upload error: ");
+        }
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Map<String, Object>> abortUpload(@PathVariable String uploadId, HttpServletRequest httpRequest) {
+        Long currentUserId = getCurrentUserId(httpRequest);
+        if (currentUserId == null) {
+            return unauthorized();
+        }
+        try {
+            uploadSessionService.abort(uploadId, currentUserId);
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Upload aborted");
+            return ResponseEntity.ok(response);
+        } catch (Exception error) {
+            return errorResponse(error, "Abort upload error: ");
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(Exception error, String logPrefix) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        String message = error.getMessage();
+        if (message != null && message.contains("not found")) {
+            errorResponse.put("message", message);
+            return ResponseEntity.status(404).body(errorResponse);
+        } else if (message != null && (message.contains("permission") || message.contains("not authorized"))) {
+            errorResponse.put("message", message);
+            return ResponseEntity.status(403).body(errorResponse);
+        } else if (message != null && message.startsWith("Invalid")) {
+            errorResponse.put("message", message);
+            return ResponseEntity.status(400).body(errorResponse);
+        }
+        log.error("{}{}", logPrefix, message, error);
+        errorResponse.put("message", "Internal server error");
+        return ResponseEntity.status(500).body(errorResponse);
+    }
+
+    private ResponseEntity<Map<String, Object>> unauthorized() {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("message", "Authentication required");
+        return ResponseEntity.status(401).body(errorResponse);
+    }
+
+    /**
+     * Helper method to extract current user ID from JWT token
+     */
+    private Long getCurrentUserId(HttpServletRequest request) {
+        try {
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                String token = authHeader.substring(7);
+                if (jwtUtil.validateToken(token)) {
+                    return jwtUtil.extractUserId(token);
+                }
+            }
+            return null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.taskmanagement.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ActivityImportResult {
+    private int imported;
+    private int failed;
+    private long durationMs;
+    private List<String> errors = new ArrayList<>();
+
+    // Constructors
+    public ActivityImportResult() {}
+
+    // Getters and Setters
+    public int getImported() { return imported; }
+    public void setImported(int imported) { this.imported = imported; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public List<String> getErrors() { return errors; }
+    public void setErrors(List<String> errors) { this.errors = errors; }
+}
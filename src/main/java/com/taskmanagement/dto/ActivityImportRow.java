@@ -0,0 +1,53 @@
+package com.taskmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * One activity in a bulk import file. Unknown fields are ignored so files
+ * produced by the team export can be imported again.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ActivityImportRow {
+    private Long teamId;
+    private String name;
+    private String description;
+    private String priority;
+    private String status;
+    private String targetDate;
+    private List<Long> assignedUserIds;
+    private List<String> assignedEmpIds;
+    private List<String> links;
+
+    // Constructors
+    public ActivityImportRow() {}
+
+    // Getters and Setters
+    public Long getTeamId() { return teamId; }
+    public void setTeamId(Long teamId) { this.teamId = teamId; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getPriority() { return priority; }
+    public void setPriority(String priority) { this.priority = priority; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getTargetDate() { return targetDate; }
+    public void setTargetDate(String targetDate) { this.targetDate = targetDate; }
+
+    public List<Long> getAssignedUserIds() { return assignedUserIds; }
+    public void setAssignedUserIds(List<Long> assignedUserIds) { this.assignedUserIds = assignedUserIds; }
+
+    public List<String> getAssignedEmpIds() { return assignedEmpIds; }
+    public void setAssignedEmpIds(List<String> assignedEmpIds) { this.assignedEmpIds = assignedEmpIds; }
+
+    public List<String> getLinks() { return links; }
+    public void setLinks(List<String> links) { this.links = links; }
+}
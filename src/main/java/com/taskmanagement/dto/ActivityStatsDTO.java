@@ -0,0 +1,45 @@
+package com.taskmanagement.dto;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Activity counts by status, priority and overdue flag for one team,
+ * or for all teams when teamId is null.
+ */
+public class ActivityStatsDTO {
+    private Long teamId;
+    private long total;
+    private long overdue;
+    private Map<String, Long> byStatus = new LinkedHashMap<>();
+    private Map<String, Long> byPriority = new LinkedHashMap<>();
+    private LocalDateTime generatedAt;
+
+    // Constructors
+    public ActivityStatsDTO() {}
+
+    public ActivityStatsDTO(Long teamId) {
+        this.teamId = teamId;
+        this.generatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getTeamId() { return teamId; }
+    public void setTeamId(Long teamId) { this.teamId = teamId; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public long getOverdue() { return overdue; }
+    public void setOverdue(long overdue) { this.overdue = overdue; }
+
+    public Map<String, Long> getByStatus() { return byStatus; }
+    public void setByStatus(Map<String, Long> byStatus) { this.byStatus = byStatus; }
+
+    public Map<String, Long> getByPriority() { return byPriority; }
+    public void setByPriority(Map<String, Long> byPriority) { this.byPriority = byPriority; }
+
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(LocalDateTime generatedAt) { this.generatedAt = generatedAt; }
+}
@@ -0,0 +1,69 @@
+package com.taskmanagement.dto;
+
+import com.taskmanagement.model.Activity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight activity projection used by list endpoints that do not need
+ * remarks, attachments, links or assigned members.
+ */
+public class ActivitySummaryDTO {
+    private Long id;
+    private String name;
+    private String priority;
+    private String status;
+    private LocalDateTime targetDate;
+    private Long createdBy;
+    private LocalDateTime updatedAt;
+
+    // Team info
+    private Long teamId;
+    private String teamName;
+
+    // Constructors
+    public ActivitySummaryDTO() {}
+
+    // Used by JPQL constructor expressions
+    public ActivitySummaryDTO(Long id, String name, String priority, Activity.ActivityStatus status,
+                              LocalDateTime targetDate, Long createdBy, LocalDateTime updatedAt,
+                              Long teamId, String teamName) {
+        this.id = id;
+        this.name = name;
+        this.priority = priority;
+        this.status = status != null ? status.getValue() : "pending";
+        this.targetDate = targetDate;
+        this.createdBy = createdBy;
+        this.updatedAt = updatedAt;
+        this.teamId = teamId;
+        this.teamName = teamName;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getPriority() { return priority; }
+    public void setPriority(String priority) { this.priority = priority; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getTargetDate() { return targetDate; }
+    public void setTargetDate(LocalDateTime targetDate) { this.targetDate = targetDate; }
+
+    public Long getCreatedBy() { return createdBy; }
+    public void setCreatedBy(Long createdBy) { this.createdBy = createdBy; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public Long getTeamId() { return teamId; }
+    public void setTeamId(Long teamId) { this.teamId = teamId; }
+
+    public String getTeamName() { return teamName; }
+    public void setTeamName(String teamName) { this.teamName = teamName; }
+}
@@ -0,0 +1,37 @@
+package com.taskmanagement.dto;
+
+import java.util.List;
+
+public class BatchStatusUpdateRequest {
+    private List<Long> activityIds;
+    private String status;
+    private String remarks;
+
+    // Constructors
+    public BatchStatusUpdateRequest() {}
+
+    // Getters and Setters
+    public List<Long> getActivityIds() {
+        return activityIds;
+    }
+
+    public void setActivityIds(List<Long> activityIds) {
+        this.activityIds = activityIds;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getRemarks() {
+        return remarks;
+    }
+
+    public void setRemarks(String remarks) {
+        this.remarks = remarks;
+    }
+}
@@ -0,0 +1,15 @@
+package com.taskmanagement.dto;
+
+public class CompleteUploadRequest {
+    private Long activityId;
+    private String sha256;
+
+    public CompleteUploadRequest() {}
+
+    // Getters and Setters
+    public Long getActivityId() { return activityId; }
+    public void setActivityId(Long activityId) { this.activityId = activityId; }
+
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+}
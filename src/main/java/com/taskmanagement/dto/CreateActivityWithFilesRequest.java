@@ -1,6 +1,8 @@
 package com.taskmanagement.dto;
 
-import org.springframework.web.multipart.MultipartFile;
+import com.taskmanagement.service.AttachmentStorageService;
+
+import java.util.List;
 
 public class CreateActivityWithFilesRequest {
     private String name;
@@ -10,7 +12,7 @@ public class CreateActivityWithFilesRequest {
     private String targetDate;
     private String assignedUsersJson;
     private String linksJson;
-    private MultipartFile[] attachments;
+    private List<AttachmentStorageService.StoredFile> attachments;
     private Boolean creatorSubscribed;
 
     // Constructors
@@ -18,7 +20,7 @@ public class CreateActivityWithFilesRequest {
 
     public CreateActivityWithFilesRequest(String name, String description, String priority, 
                                         Long teamId, String targetDate, String assignedUsersJson, 
-                                        String linksJson, MultipartFile[] attachments, Boolean creatorSubscribed) {
+                                        String linksJson, List<AttachmentStorageService.StoredFile> attachments, Boolean creatorSubscribed) {
         this.name = name;
         this.description = description;
         this.priority = priority;
@@ -87,11 +89,11 @@ public class CreateActivityWithFilesRequest {
         this.linksJson = linksJson;
     }
 
-    public MultipartFile[] getAttachments() {
+    public List<AttachmentStorageService.StoredFile> getAttachments() {
         return attachments;
     }
 
-    public void setAttachments(MultipartFile[] attachments) {
+    public void setAttachments(List<AttachmentStorageService.StoredFile> attachments) {
         this.attachments = attachments;
     }
 
@@ -0,0 +1,27 @@
+package com.taskmanagement.dto;
+
+public class CreateUploadRequest {
+    private String fileName;
+    private String contentType;
+    private Long size;
+    private Integer chunkSize;
+    private String sha256;
+
+    public CreateUploadRequest() {}
+
+    // Getters and Setters
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public Long getSize() { return size; }
+    public void setSize(Long size) { this.size = size; }
+
+    public Integer getChunkSize() { return chunkSize; }
+    public void setChunkSize(Integer chunkSize) { this.chunkSize = chunkSize; }
+
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+}
@@ -1,6 +1,8 @@
 package com.taskmanagement.dto;
 
-import org.springframework.web.multipart.MultipartFile;
+import com.taskmanagement.service.AttachmentStorageService;
+
+import java.util.List;
 
 public class UpdateActivityWithFilesRequest {
     private String name;
@@ -12,7 +14,7 @@ public class UpdateActivityWithFilesRequest {
     private String newLinksJson;
     private String attachmentsToDeleteJson;
     private String linksToDeleteJson;
-    private MultipartFile[] attachments;
+    private List<AttachmentStorageService.StoredFile> attachments;
 
     // Constructors
     public UpdateActivityWithFilesRequest() {}
@@ -90,11 +92,11 @@ public class UpdateActivityWithFilesRequest {
         this.linksToDeleteJson = linksToDeleteJson;
     }
 
-    public MultipartFile[] getAttachments() {
+    public List<AttachmentStorageService.StoredFile> getAttachments() {
         return attachments;
     }
 
-    public void setAttachments(MultipartFile[] attachments) {
+    public void setAttachments(List<AttachmentStorageService.StoredFile> attachments) {
         this.attachments = attachments;
     }
 }
@@ -4,6 +4,7 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import javax.persistence.*;
@@ -12,7 +13,9 @@ import java.util.Set;
 import java.util.HashSet;
 
 @Entity
-@Table(name = "activities")
+@Table(name = "activities", indexes = {
+    @Index(name = "idx_activities_target_date", columnList = "target_date")
+})
 @EntityListeners(AuditingEntityListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Activity {
@@ -51,6 +54,16 @@ public class Activity {
     @Column(name = "creator_subscribed")
     private Boolean creatorSubscribed = true; // Default to true for backwards compatibility
 
+    // Target date the due-soon / overdue reminder was last sent for. Only written
+    // by DeadlineReminderService's conditional claim, never by entity saves.
+    @JsonIgnore
+    @Column(name = "due_soon_sent_for", insertable = false, updatable = false)
+    private LocalDateTime dueSoonSentFor;
+
+    @JsonIgnore
+    @Column(name = "overdue_sent_for", insertable = false, updatable = false)
+    private LocalDateTime overdueSentFor;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id", nullable = false)
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "members", "activities"})
@@ -65,7 +78,8 @@ public class Activity {
     @JoinTable(
         name = "activity_assigned_users",
         joinColumns = @JoinColumn(name = "activity_id"),
-        inverseJoinColumns = @JoinColumn(name = "user_id")
+        inverseJoinColumns = @JoinColumn(name = "user_id"),
+        indexes = @Index(name = "idx_activity_assigned_users_user", columnList = "user_id, activity_id")
     )
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "password"})
     private Set<User> assignedMembers = new HashSet<>();
@@ -276,4 +290,12 @@ public class Activity {
     public void setCreatorSubscribed(Boolean creatorSubscribed) {
         this.creatorSubscribed = creatorSubscribed;
     }
+
+    public LocalDateTime getDueSoonSentFor() {
+        return dueSoonSentFor;
+    }
+
+    public LocalDateTime getOverdueSentFor() {
+        return overdueSentFor;
+    }
 }
\ No newline at end of file
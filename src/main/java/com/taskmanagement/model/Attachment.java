@@ -6,7 +6,9 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "attachments")
+@Table(name = "attachments", indexes = {
+    @Index(name = "idx_attachments_content_hash", columnList = "content_hash")
+})
 public class Attachment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,6 +20,7 @@ public class Attachment {
     @Column(name = "original_name", nullable = false)
     private String originalName;
 
+    // Storage key of the file (see AttachmentStorageService.storageKey); not a filesystem path
     @Column(name = "file_path", nullable = false)
     private String filePath;
 
@@ -27,6 +30,10 @@ public class Attachment {
     @Column(name = "content_type")
     private String contentType;
 
+    // SHA-256 of the stored blob; attachments with the same hash share one file
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "activity_id", nullable = false)
     @JsonBackReference
@@ -100,6 +107,14 @@ public class Attachment {
         this.contentType = contentType;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     public Activity getActivity() {
         return activity;
     }
@@ -0,0 +1,45 @@
+package com.taskmanagement.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A content-addressed file under the upload directory, named by its SHA-256.
+ * Its reference count is the number of Attachment rows with the same
+ * content_hash; AttachmentStorageService removes it once that reaches zero.
+ */
+@Entity
+@Table(name = "attachment_blobs")
+public class AttachmentBlob {
+
+    @Id
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_used_at", nullable = false)
+    private LocalDateTime lastUsedAt;
+
+    public AttachmentBlob() {
+        this.createdAt = LocalDateTime.now();
+        this.lastUsedAt = this.createdAt;
+    }
+
+    // Getters and Setters
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+
+    public Long getFileSize() { return fileSize; }
+    public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getLastUsedAt() { return lastUsedAt; }
+    public void setLastUsedAt(LocalDateTime lastUsedAt) { this.lastUsedAt = lastUsedAt; }
+}
@@ -0,0 +1,147 @@
+package com.taskmanagement.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A long-running operation executed in the background by JobService.
+ * Rows are claimed by worker nodes with SELECT ... FOR UPDATE SKIP LOCKED,
+ * so the table doubles as the queue.
+ */
+@Entity
+@Table(name = "jobs", indexes = {
+    @Index(name = "idx_jobs_status", columnList = "status, id")
+})
+public class Job {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobStatus status = JobStatus.QUEUED;
+
+    // Handler input as JSON
+    @JsonIgnore
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    // Handler output as JSON
+    @JsonRawValue
+    @Column(columnDefinition = "TEXT")
+    private String result;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @Column(nullable = false)
+    private Integer progress = 0;
+
+    @Column(name = "progress_message")
+    private String progressMessage;
+
+    @Column(name = "cancel_requested", nullable = false)
+    private Boolean cancelRequested = false;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "created_by")
+    private Long createdBy;
+
+    @JsonIgnore
+    @Column(name = "node_id", length = 100)
+    private String nodeId;
+
+    @Column(name = "created_at", nullable = false)
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime startedAt;
+
+    @JsonIgnore
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "finished_at")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime finishedAt;
+
+    public enum JobStatus {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    public Job() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Job(String type, String payload, Long createdBy) {
+        this();
+        this.type = type;
+        this.payload = payload;
+        this.createdBy = createdBy;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public JobStatus getStatus() { return status; }
+    public void setStatus(JobStatus status) { this.status = status; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public String getResult() { return result; }
+    public void setResult(String result) { this.result = result; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public Integer getProgress() { return progress; }
+    public void setProgress(Integer progress) { this.progress = progress; }
+
+    public String getProgressMessage() { return progressMessage; }
+    public void setProgressMessage(String progressMessage) { this.progressMessage = progressMessage; }
+
+    public Boolean getCancelRequested() { return cancelRequested; }
+    public void setCancelRequested(Boolean cancelRequested) { this.cancelRequested = cancelRequested; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public Long getCreatedBy() { return createdBy; }
+    public void setCreatedBy(Long createdBy) { this.createdBy = createdBy; }
+
+    public String getNodeId() { return nodeId; }
+    public void setNodeId(String nodeId) { this.nodeId = nodeId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getHeartbeatAt() { return heartbeatAt; }
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) { this.heartbeatAt = heartbeatAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
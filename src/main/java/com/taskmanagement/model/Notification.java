@@ -12,6 +12,13 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "notifications")
 @EntityListeners(AuditingEntityListener.class)
+@NamedEntityGraph(name = "Notification.related",
+    attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("relatedTeam"),
+        @NamedAttributeNode(value = "relatedActivity", subgraph = "relatedActivity")
+    },
+    subgraphs = @NamedSubgraph(name = "relatedActivity", attributeNodes = @NamedAttributeNode("creator")))
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Notification {
     
@@ -15,6 +15,7 @@ import java.util.HashSet;
 @Entity
 @Table(name = "teams")
 @EntityListeners(AuditingEntityListener.class)
+@NamedEntityGraph(name = "Team.members", attributeNodes = @NamedAttributeNode("members"))
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Team {
     @Id
@@ -0,0 +1,106 @@
+package com.taskmanagement.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A resumable upload. The file is preallocated under the upload directory and
+ * filled by fixed-size chunks that may arrive in any order; each received
+ * chunk index is recorded so the client can ask where to resume.
+ */
+@Entity
+@Table(name = "upload_sessions")
+public class UploadSession {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "total_size", nullable = false)
+    private Long totalSize;
+
+    @Column(name = "chunk_size", nullable = false)
+    private Integer chunkSize;
+
+    // SHA-256 announced by the client up front; otherwise required on completion
+    @Column(name = "expected_sha256", length = 64)
+    private String expectedSha256;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private UploadStatus status = UploadStatus.OPEN;
+
+    @JsonIgnore
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "upload_session_chunks", joinColumns = @JoinColumn(name = "session_id"))
+    @Column(name = "chunk_index")
+    private Set<Integer> receivedChunks = new HashSet<>();
+
+    @Column(name = "created_at", nullable = false)
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime expiresAt;
+
+    public enum UploadStatus {
+        OPEN, COMPLETED, ABORTED
+    }
+
+    public UploadSession() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public int getTotalChunks() {
+        return (int) ((totalSize + chunkSize - 1) / chunkSize);
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public Long getTotalSize() { return totalSize; }
+    public void setTotalSize(Long totalSize) { this.totalSize = totalSize; }
+
+    public Integer getChunkSize() { return chunkSize; }
+    public void setChunkSize(Integer chunkSize) { this.chunkSize = chunkSize; }
+
+    public String getExpectedSha256() { return expectedSha256; }
+    public void setExpectedSha256(String expectedSha256) { this.expectedSha256 = expectedSha256; }
+
+    public UploadStatus getStatus() { return status; }
+    public void setStatus(UploadStatus status) { this.status = status; }
+
+    public Set<Integer> getReceivedChunks() { return receivedChunks; }
+    public void setReceivedChunks(Set<Integer> receivedChunks) { this.receivedChunks = receivedChunks; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -1,16 +1,22 @@
 package com.taskmanagement.repository;
 
+import com.taskmanagement.dto.ActivitySummaryDTO;
 import com.taskmanagement.model.Activity;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
 import javax.transaction.Transactional;
 
 @Repository
@@ -54,6 +60,82 @@ public interface ActivityRepository extends JpaRepository<Activity, Long> {
     @Query("SELECT a FROM Activity a WHERE a.team.id = :teamId ORDER BY a.createdAt DESC")
     List<Activity> findByTeamIdSimple(@Param("teamId") Long teamId);
     
+    /**
+     * Summaries of activities assigned to a user across all teams, newest first.
+     * Keyset paged on id (pass Long.MAX_VALUE for the first page) and driven by
+     * the (user_id, activity_id) index on activity_assigned_users.
+     */
+    @Query("SELECT new com.taskmanagement.dto.ActivitySummaryDTO(a.id, a.name, a.priority, a.status, " +
+           "a.targetDate, a.createdBy, a.updatedAt, t.id, t.name) " +
+           "FROM Activity a JOIN a.assignedMembers m JOIN a.team t " +
+           "WHERE m.id = :userId AND a.status IN :statuses AND a.id < :beforeId " +
+           "ORDER BY a.id DESC")
+    List<ActivitySummaryDTO> findAssignedSummaries(@Param("userId") Long userId,
+                                                   @Param("statuses") List<Activity.ActivityStatus> statuses,
+                                                   @Param("beforeId") Long beforeId,
+                                                   Pageable pageable);
+    
+    /**
+     * Activity counts for a team grouped by status and priority. Each row is
+     * [status, priority, count, overdueCount] where overdue means a target date
+     * before :now on an activity that is not completed.
+     */
+    @Query("SELECT a.status, a.priority, COUNT(a), " +
+           "SUM(CASE WHEN a.targetDate < :now AND a.status <> :completed THEN 1 ELSE 0 END) " +
+           "FROM Activity a WHERE a.team.id = :teamId GROUP BY a.status, a.priority")
+    List<Object[]> aggregateByTeam(@Param("teamId") Long teamId,
+                                   @Param("now") LocalDateTime now,
+                                   @Param("completed") Activity.ActivityStatus completed);
+    
+    /**
+     * Same aggregate as {@link #aggregateByTeam} across all teams
+     */
+    @Query("SELECT a.status, a.priority, COUNT(a), " +
+           "SUM(CASE WHEN a.targetDate < :now AND a.status <> :completed THEN 1 ELSE 0 END) " +
+           "FROM Activity a GROUP BY a.status, a.priority")
+    List<Object[]> aggregateAll(@Param("now") LocalDateTime now,
+                                @Param("completed") Activity.ActivityStatus completed);
+    
+    /**
+     * Open deadlines in [from, to) whose overdue reminder has not been sent
+     * for their current target date, as [id, targetDate, dueSoonSentFor]
+     * rows, served by the target_date index
+     */
+    @Query("SELECT a.id, a.targetDate, a.dueSoonSentFor FROM Activity a " +
+           "WHERE a.targetDate >= :from AND a.targetDate < :to AND a.status <> :completed " +
+           "AND (a.overdueSentFor IS NULL OR a.overdueSentFor <> a.targetDate)")
+    List<Object[]> findDeadlinesBetween(@Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to,
+                                        @Param("completed") Activity.ActivityStatus completed);
+    
+    /**
+     * Find activities by ID with assigned members and team eagerly loaded
+     */
+    @Query("SELECT DISTINCT a FROM Activity a LEFT JOIN FETCH a.assignedMembers LEFT JOIN FETCH a.team WHERE a.id IN :ids")
+    List<Activity> findAllWithAssigneesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Initialise the attachments, links and remarks (with their authors) of
+     * already loaded activities, one collection per query so the joins don't
+     * multiply each other's rows
+     */
+    @Query("SELECT DISTINCT a FROM Activity a LEFT JOIN FETCH a.attachments WHERE a.id IN :ids")
+    List<Activity> findWithAttachmentsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT DISTINCT a FROM Activity a LEFT JOIN FETCH a.links WHERE a.id IN :ids")
+    List<Activity> findWithLinksByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT DISTINCT a FROM Activity a LEFT JOIN FETCH a.remarks r LEFT JOIN FETCH r.user WHERE a.id IN :ids")
+    List<Activity> findWithRemarksByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Lock activities for update in ascending id order, so concurrent batch
+     * updates over overlapping sets cannot deadlock
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Activity a WHERE a.id IN :ids ORDER BY a.id")
+    List<Activity> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+    
     /**
      * Delete all activities for a specific team
      * Note: This will cascade to delete related remarks, attachments, etc. due to JPA cascade settings
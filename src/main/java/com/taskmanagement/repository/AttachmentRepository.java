@@ -7,11 +7,17 @@ import org.springframework.stereotype.Repository;
 
 import javax.transaction.Transactional;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
     List<Attachment> findByActivityId(Long activityId);
     
+    long countByContentHash(String contentHash);
+    
+    // Stored filenames are unique per attachment, even when blobs are shared
+    Optional<Attachment> findByFilename(String filename);
+    
     @Modifying
     @Transactional
     void deleteByActivityId(Long activityId);
@@ -0,0 +1,15 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.model.Job;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface JobRepository extends JpaRepository<Job, Long> {
+
+    List<Job> findByStatusInAndFinishedAtBefore(Collection<Job.JobStatus> statuses, LocalDateTime cutoff);
+}
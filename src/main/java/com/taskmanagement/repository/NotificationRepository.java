@@ -1,6 +1,7 @@
 package com.taskmanagement.repository;
 
 import com.taskmanagement.model.Notification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -10,20 +11,34 @@ import org.springframework.stereotype.Repository;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     
+    // Notifications are serialized with their user, team and activity, so the reads behind
+    // /api/notifications load those up front
+    @EntityGraph("Notification.related")
     List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
     
+    @EntityGraph("Notification.related")
     List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(Long userId);
     
+    @EntityGraph("Notification.related")
     List<Notification> findByUserIdAndTypeOrderByCreatedAtDesc(Long userId, String type);
     
+    @EntityGraph("Notification.related")
     List<Notification> findByUserIdAndRelatedTeamIdOrderByCreatedAtDesc(Long userId, Long teamId);
     
+    @EntityGraph("Notification.related")
     List<Notification> findByUserIdAndRelatedActivityIdOrderByCreatedAtDesc(Long userId, Long activityId);
     
+    @EntityGraph("Notification.related")
+    Optional<Notification> findWithRelatedById(Long id);
+    
+    // Replay for a reconnecting event stream, oldest first
+    List<Notification> findTop100ByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long id);
+    
     long countByUserId(Long userId);
     
     long countByUserIdAndIsReadFalse(Long userId);
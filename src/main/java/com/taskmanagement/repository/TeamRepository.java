@@ -1,18 +1,28 @@
 package com.taskmanagement.repository;
 
 import com.taskmanagement.model.Team;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TeamRepository extends JpaRepository<Team, Long> {
-    // Find teams where the user is a member
-    @Query("SELECT DISTINCT t FROM Team t JOIN t.members m WHERE m.id = :userId")
+    // Find teams where the user is a member, with all of their members loaded
+    @EntityGraph("Team.members")
+    @Query("SELECT DISTINCT t FROM Team t WHERE t.id IN " +
+           "(SELECT mt.id FROM Team mt JOIN mt.members m WHERE m.id = :userId) ORDER BY t.id")
     List<Team> findTeamsByUserId(@Param("userId") Long userId);
-    
-    // Additional query methods can be defined here if needed
-}
\ No newline at end of file
+
+    // Teams are serialized with their members, so every team read used by a controller loads them up front
+    @EntityGraph("Team.members")
+    @Query("SELECT DISTINCT t FROM Team t ORDER BY t.id")
+    List<Team> findAllWithMembers();
+
+    @EntityGraph("Team.members")
+    Optional<Team> findWithMembersById(Long id);
+}
@@ -0,0 +1,14 @@
+package com.taskmanagement.repository;
+
+import com.taskmanagement.model.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    List<UploadSession> findByExpiresAtBefore(LocalDateTime cutoff);
+}
@@ -2,6 +2,8 @@ package com.taskmanagement.repository;
 
 import com.taskmanagement.model.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,4 +14,6 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByName(String name);
 
 	Optional<User> findByEmpId(String id);
+
+	List<User> findByEmpIdIn(Collection<String> empIds);
 }
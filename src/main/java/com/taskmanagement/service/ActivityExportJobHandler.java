@@ -0,0 +1,44 @@
+package com.taskmanagement.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes a team export to a job file that is downloaded via /api/jobs/{id}/download.
+ */
+@Component
+public class ActivityExportJobHandler implements JobHandler {
+
+    public static final String TYPE = "ACTIVITY_EXPORT";
+
+    @Autowired
+    private ActivityExportService activityExportService;
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Object run(JobContext context) throws Exception {
+        Long teamId = context.getLong("teamId");
+        ActivityExportService.Format format = ActivityExportService.parseFormat(context.getString("format"));
+        String fileName = "team-" + teamId + "-activities." + (format == ActivityExportService.Format.CSV ? "csv" : "ndjson");
+        Path file = context.file(fileName);
+
+        try (OutputStream out = Files.newOutputStream(file)) {
+            activityExportService.exportTeamActivities(teamId, format, out);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("fileName", fileName);
+        result.put("size", Files.size(file));
+        return result;
+    }
+}
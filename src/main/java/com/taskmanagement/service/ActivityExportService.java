@@ -0,0 +1,198 @@
+package com.taskmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanagement.model.Activity;
+import com.taskmanagement.repository.TeamRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams a team's activities as NDJSON or CSV straight from a forward-only
+ * JDBC cursor, so memory use does not grow with the size of the team.
+ */
+@Service
+public class ActivityExportService {
+
+    // One row per (activity, assignee); ordered by activity so assignees can be
+    // folded into the current row without buffering more than one activity
+    private static final String EXPORT_SQL =
+        "SELECT a.id, a.name, a.description, a.priority, a.status, a.target_date, a.created_by, " +
+        "       u.name AS creator_name, a.created_at, a.updated_at, aau.user_id AS assignee_id " +
+        "FROM activities a " +
+        "LEFT JOIN users u ON u.id = a.created_by " +
+        "LEFT JOIN activity_assigned_users aau ON aau.activity_id = a.id " +
+        "WHERE a.team_id = ? " +
+        "ORDER BY a.id, aau.user_id";
+
+    private static final String[] CSV_COLUMNS = {
+        "id", "name", "description", "priority", "status", "targetDate",
+        "createdBy", "creatorName", "createdAt", "updatedAt", "assignedUserIds"
+    };
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Value("${app.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${app.export.flush-rows:500}")
+    private int flushRows;
+
+    public enum Format { NDJSON, CSV }
+
+    public static Format parseFormat(String format) {
+        if (format == null || format.isEmpty() || "ndjson".equalsIgnoreCase(format)) {
+            return Format.NDJSON;
+        }
+        if ("csv".equalsIgnoreCase(format)) {
+            return Format.CSV;
+        }
+        throw new RuntimeException("Invalid export format: " + format);
+    }
+
+    public void checkTeamExists(Long teamId) {
+        if (!teamRepository.existsById(teamId)) {
+            throw new RuntimeException("Team not found with ID: " + teamId);
+        }
+    }
+
+    public void exportTeamActivities(Long teamId, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writeCsvRow(writer, CSV_COLUMNS);
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            // PostgreSQL only uses a server-side cursor when autocommit is off
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, teamId);
+
+                try (ResultSet rs = statement.executeQuery()) {
+                    Map<String, Object> current = null;
+                    List<Long> assignees = new ArrayList<>();
+                    int written = 0;
+
+                    while (rs.next()) {
+                        long id = rs.getLong("id");
+                        if (current == null || !current.get("id").equals(id)) {
+                            if (current != null) {
+                                writeActivity(writer, format, current, assignees);
+                                if (++written % flushRows == 0) {
+                                    writer.flush();
+                                }
+                            }
+                            current = readActivity(rs);
+                            assignees = new ArrayList<>();
+                        }
+                        long assigneeId = rs.getLong("assignee_id");
+                        if (!rs.wasNull()) {
+                            assignees.add(assigneeId);
+                        }
+                    }
+                    if (current != null) {
+                        writeActivity(writer, format, current, assignees);
+                    }
+                }
+            } finally {
+                connection.commit();
+                connection.setReadOnly(false);
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Export query failed: " + e.getMessage(), e);
+        }
+
+        writer.flush();
+    }
+
+    private Map<String, Object> readActivity(ResultSet rs) throws SQLException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", rs.getLong("id"));
+        row.put("name", rs.getString("name"));
+        row.put("description", rs.getString("description"));
+        row.put("priority", rs.getString("priority"));
+        String status = rs.getString("status");
+        row.put("status", status != null ? Activity.ActivityStatus.valueOf(status).getValue() : null);
+        row.put("targetDate", toIso(rs.getTimestamp("target_date")));
+        row.put("createdBy", rs.getLong("created_by"));
+        row.put("creatorName", rs.getString("creator_name"));
+        row.put("createdAt", toIso(rs.getTimestamp("created_at")));
+        row.put("updatedAt", toIso(rs.getTimestamp("updated_at")));
+        return row;
+    }
+
+    private void writeActivity(Writer writer, Format format, Map<String, Object> row, List<Long> assignees) throws IOException {
+        if (format == Format.NDJSON) {
+            row.put("assignedUserIds", assignees);
+            writer.write(objectMapper.writeValueAsString(row));
+            writer.write('\n');
+            return;
+        }
+
+        StringBuilder ids = new StringBuilder();
+        for (Long assignee : assignees) {
+            if (ids.length() > 0) {
+                ids.append(';');
+            }
+            ids.append(assignee);
+        }
+        String[] values = new String[CSV_COLUMNS.length];
+        int i = 0;
+        for (Object value : row.values()) {
+            values[i++] = value != null ? value.toString() : "";
+        }
+        values[i] = ids.toString();
+        writeCsvRow(writer, values);
+    }
+
+    private void writeCsvRow(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values[i];
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private String toIso(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime().toString() : null;
+    }
+}
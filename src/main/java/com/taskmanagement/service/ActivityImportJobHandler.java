@@ -0,0 +1,43 @@
+package com.taskmanagement.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Imports an upload that the controller spooled to disk before queueing the job.
+ */
+@Component
+public class ActivityImportJobHandler implements JobHandler {
+
+    public static final String TYPE = "ACTIVITY_IMPORT";
+
+    @Autowired
+    private ActivityImportService activityImportService;
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Object run(JobContext context) throws Exception {
+        Path file = Paths.get(context.getString("file"));
+        try (InputStream in = Files.newInputStream(file)) {
+            return activityImportService.importActivities(in, context.getString("format"),
+                    context.getLong("teamId"), context.getCreatedBy(), context);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Committed chunks would be imported twice
+    @Override
+    public boolean isRetryable() {
+        return false;
+    }
+}
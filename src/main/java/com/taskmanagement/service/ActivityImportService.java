@@ -0,0 +1,519 @@
+package com.taskmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanagement.dto.ActivityImportResult;
+import com.taskmanagement.dto.ActivityImportRow;
+import com.taskmanagement.model.Activity;
+import com.taskmanagement.model.Team;
+import com.taskmanagement.model.User;
+import com.taskmanagement.repository.TeamRepository;
+import com.taskmanagement.repository.UserRepository;
+import com.taskmanagement.util.CsvReader;
+import com.taskmanagement.util.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk import of activities from NDJSON or CSV.
+ *
+ * Rows are read as a stream and processed in chunks: teams and users for a
+ * whole chunk are resolved with one set-based lookup each, and activities,
+ * assignments and links are written with JDBC batches in one transaction
+ * per chunk. Instead of the per-activity notifications sent by
+ * createActivity, each affected user gets one summary notification at the end.
+ */
+@Service
+public class ActivityImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityImportService.class);
+
+    private static final String INSERT_ACTIVITY_SQL =
+        "INSERT INTO activities (name, description, priority, status, target_date, created_by, team_id, " +
+        "creator_subscribed, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ASSIGNEE_SQL =
+        "INSERT INTO activity_assigned_users (activity_id, user_id) VALUES (?, ?)";
+
+    private static final String INSERT_LINK_SQL =
+        "INSERT INTO activity_links (url, activity_id, created_at) VALUES (?, ?, ?)";
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private ActivityStatsService activityStatsService;
+
+    @Autowired
+    private DeadlineReminderService deadlineReminderService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.import.chunk-size:1000}")
+    private int chunkSize;
+
+    // A parsed row together with its line number for error reporting
+    private static class ParsedRow {
+        final long line;
+        final ActivityImportRow row;
+
+        ParsedRow(long line, ActivityImportRow row) {
+            this.line = line;
+            this.row = row;
+        }
+    }
+
+    // A validated row ready to be inserted
+    private static class PreparedActivity {
+        long line;
+        ActivityImportRow row;
+        Long teamId;
+        Activity.ActivityStatus status;
+        LocalDateTime targetDate;
+        Set<Long> assignees = new LinkedHashSet<>();
+        List<String> links = new ArrayList<>();
+    }
+
+    // Running totals across chunks
+    private static class ImportState {
+        final Long importerId;
+        final JobContext context;
+        final ActivityImportResult result = new ActivityImportResult();
+        final Map<Long, Integer> assignedCounts = new HashMap<>();
+        final Set<Long> teamIds = new HashSet<>();
+
+        ImportState(Long importerId, JobContext context) {
+            this.importerId = importerId;
+            this.context = context;
+        }
+
+        void fail(long line, String message) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                result.getErrors().add("Line " + line + ": " + message);
+            }
+        }
+    }
+
+    public ActivityImportResult importActivities(InputStream in, String format, Long defaultTeamId, String token) throws IOException {
+        Long importerId = checkImportPermission(token);
+        return importActivities(in, format, defaultTeamId, importerId, null);
+    }
+
+    /**
+     * Check that the token belongs to an admin and return their user ID.
+     */
+    public Long checkImportPermission(String token) {
+        Long currentUserId = jwtUtil.extractUserId(token);
+        if (currentUserId == null) {
+            throw new RuntimeException("Invalid authentication token");
+        }
+        User importer = userRepository.findById(currentUserId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!"admin".equalsIgnoreCase(importer.getRole())) {
+            throw new RuntimeException("You do not have permission to import activities");
+        }
+        return currentUserId;
+    }
+
+    public static boolean isCsvFormat(String format) {
+        if (format == null || format.isEmpty() || "ndjson".equalsIgnoreCase(format)) {
+            return false;
+        } else if ("csv".equalsIgnoreCase(format)) {
+            return true;
+        }
+        throw new RuntimeException("Invalid import format: " + format);
+    }
+
+    /**
+     * Import on behalf of an already authorised admin. When run as a job,
+     * progress is reported per chunk and a cancellation stops before the next
+     * chunk; chunks already committed stay imported.
+     */
+    public ActivityImportResult importActivities(InputStream in, String format, Long defaultTeamId,
+                                                 Long importerId, JobContext context) throws IOException {
+        boolean csv = isCsvFormat(format);
+
+        long started = System.currentTimeMillis();
+        ImportState state = new ImportState(importerId, context);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        try {
+            if (csv) {
+                readCsv(reader, defaultTeamId, state);
+            } else {
+                readNdjson(reader, defaultTeamId, state);
+            }
+        } finally {
+            sendSummaryNotifications(state);
+            for (Long teamId : state.teamIds) {
+                activityStatsService.evictTeam(teamId);
+            }
+            if (state.result.getImported() > 0) {
+                deadlineReminderService.loadHorizon();
+            }
+        }
+
+        state.result.setDurationMs(System.currentTimeMillis() - started);
+        log.info("Imported {} activities ({} failed) in {} ms", state.result.getImported(), state.result.getFailed(), state.result.getDurationMs());
+        return state.result;
+    }
+
+    private void readNdjson(BufferedReader reader, Long defaultTeamId, ImportState state) throws IOException {
+        List<ParsedRow> chunk = new ArrayList<>();
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                ActivityImportRow row = objectMapper.readValue(line, ActivityImportRow.class);
+                if (row.getTeamId() == null) {
+                    row.setTeamId(defaultTeamId);
+                }
+                chunk.add(new ParsedRow(lineNumber, row));
+            } catch (JsonProcessingException e) {
+                state.fail(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+            }
+            if (chunk.size() >= chunkSize) {
+                importChunk(chunk, state);
+                chunk = new ArrayList<>();
+            }
+        }
+        importChunk(chunk, state);
+    }
+
+    private void readCsv(BufferedReader reader, Long defaultTeamId, ImportState state) throws IOException {
+        CsvReader csvReader = new CsvReader(reader);
+        List<String> header = csvReader.readRecord();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+
+        List<ParsedRow> chunk = new ArrayList<>();
+        List<String> record;
+        long recordNumber = 1;
+        while ((record = csvReader.readRecord()) != null) {
+            recordNumber++;
+            if (record.size() == 1 && record.get(0).trim().isEmpty()) {
+                continue;
+            }
+            try {
+                ActivityImportRow row = new ActivityImportRow();
+                String teamId = column(record, columns, "teamId");
+                row.setTeamId(teamId != null ? Long.valueOf(teamId) : defaultTeamId);
+                row.setName(column(record, columns, "name"));
+                row.setDescription(column(record, columns, "description"));
+                row.setPriority(column(record, columns, "priority"));
+                row.setStatus(column(record, columns, "status"));
+                row.setTargetDate(column(record, columns, "targetDate"));
+                row.setAssignedEmpIds(splitList(column(record, columns, "assignedEmpIds")));
+                row.setLinks(splitList(column(record, columns, "links")));
+
+                List<String> userIds = splitList(column(record, columns, "assignedUserIds"));
+                if (userIds != null) {
+                    List<Long> ids = new ArrayList<>();
+                    for (String id : userIds) {
+                        ids.add(Long.valueOf(id));
+                    }
+                    row.setAssignedUserIds(ids);
+                }
+                chunk.add(new ParsedRow(recordNumber, row));
+            } catch (NumberFormatException e) {
+                state.fail(recordNumber, "Invalid number: " + e.getMessage());
+            }
+            if (chunk.size() >= chunkSize) {
+                importChunk(chunk, state);
+                chunk = new ArrayList<>();
+            }
+        }
+        importChunk(chunk, state);
+    }
+
+    private void importChunk(List<ParsedRow> chunk, ImportState state) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        if (state.context != null) {
+            state.context.checkCancelled();
+        }
+
+        // Resolve every team and user referenced by the chunk in one query each
+        Set<Long> teamIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        Set<String> empIds = new HashSet<>();
+        for (ParsedRow parsed : chunk) {
+            if (parsed.row.getTeamId() != null) {
+                teamIds.add(parsed.row.getTeamId());
+            }
+            if (parsed.row.getAssignedUserIds() != null) {
+                userIds.addAll(parsed.row.getAssignedUserIds());
+            }
+            if (parsed.row.getAssignedEmpIds() != null) {
+                empIds.addAll(parsed.row.getAssignedEmpIds());
+            }
+        }
+
+        Set<Long> knownTeams = new HashSet<>();
+        for (Team team : teamRepository.findAllById(teamIds)) {
+            knownTeams.add(team.getId());
+        }
+        Set<Long> knownUsers = new HashSet<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            knownUsers.add(user.getId());
+        }
+        Map<String, Long> usersByEmpId = new HashMap<>();
+        if (!empIds.isEmpty()) {
+            for (User user : userRepository.findByEmpIdIn(empIds)) {
+                usersByEmpId.put(user.getEmpId(), user.getId());
+            }
+        }
+
+        List<PreparedActivity> prepared = new ArrayList<>();
+        for (ParsedRow parsed : chunk) {
+            try {
+                PreparedActivity activity = prepare(parsed.row, knownTeams, knownUsers, usersByEmpId);
+                activity.line = parsed.line;
+                prepared.add(activity);
+            } catch (RuntimeException e) {
+                state.fail(parsed.line, e.getMessage());
+            }
+        }
+        if (prepared.isEmpty()) {
+            return;
+        }
+
+        try {
+            new TransactionTemplate(transactionManager).execute(status ->
+                jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                    insertBatch(connection, prepared, state.importerId);
+                    return null;
+                }));
+        } catch (RuntimeException e) {
+            log.warn("Import chunk failed: {}", e.getMessage());
+            for (PreparedActivity activity : prepared) {
+                state.fail(activity.line, "Chunk rolled back: " + e.getMessage());
+            }
+            return;
+        }
+
+        state.result.setImported(state.result.getImported() + prepared.size());
+        for (PreparedActivity activity : prepared) {
+            state.teamIds.add(activity.teamId);
+            for (Long assignee : activity.assignees) {
+                if (!assignee.equals(state.importerId)) {
+                    state.assignedCounts.merge(assignee, 1, Integer::sum);
+                }
+            }
+        }
+        if (state.context != null) {
+            state.context.progress(null, state.result.getImported() + " imported, " + state.result.getFailed() + " failed");
+        }
+    }
+
+    private PreparedActivity prepare(ActivityImportRow row, Set<Long> knownTeams, Set<Long> knownUsers,
+                                     Map<String, Long> usersByEmpId) {
+        if (row.getName() == null || row.getName().trim().isEmpty()) {
+            throw new RuntimeException("Name is required");
+        }
+        if (row.getTeamId() == null || !knownTeams.contains(row.getTeamId())) {
+            throw new RuntimeException("Team not found with ID: " + row.getTeamId());
+        }
+
+        PreparedActivity activity = new PreparedActivity();
+        activity.row = row;
+        activity.teamId = row.getTeamId();
+
+        try {
+            activity.status = row.getStatus() == null || row.getStatus().isEmpty()
+                    ? Activity.ActivityStatus.PENDING
+                    : Activity.ActivityStatus.fromValue(row.getStatus());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid status value: " + row.getStatus());
+        }
+
+        if (row.getTargetDate() != null && !row.getTargetDate().isEmpty()) {
+            try {
+                activity.targetDate = LocalDateTime.parse(row.getTargetDate(), DateTimeFormatter.ISO_DATE_TIME);
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid target date: " + row.getTargetDate());
+            }
+        }
+
+        if (row.getAssignedUserIds() != null) {
+            for (Long userId : row.getAssignedUserIds()) {
+                if (!knownUsers.contains(userId)) {
+                    throw new RuntimeException("User not found with ID: " + userId);
+                }
+                activity.assignees.add(userId);
+            }
+        }
+        if (row.getAssignedEmpIds() != null) {
+            for (String empId : row.getAssignedEmpIds()) {
+                Long userId = usersByEmpId.get(empId);
+                if (userId == null) {
+                    throw new RuntimeException("User not found with employee ID: " + empId);
+                }
+                activity.assignees.add(userId);
+            }
+        }
+
+        if (row.getLinks() != null) {
+            for (String url : row.getLinks()) {
+                if (url != null && !url.trim().isEmpty()) {
+                    activity.links.add(url.trim());
+                }
+            }
+        }
+        return activity;
+    }
+
+    private void insertBatch(Connection connection, List<PreparedActivity> activities, Long importerId) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long[] ids = new long[activities.size()];
+
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_ACTIVITY_SQL, new String[] {"id"})) {
+            for (PreparedActivity activity : activities) {
+                ActivityImportRow row = activity.row;
+                statement.setString(1, row.getName().trim());
+                statement.setString(2, row.getDescription() != null ? row.getDescription() : "");
+                statement.setString(3, row.getPriority());
+                statement.setString(4, activity.status.name());
+                if (activity.targetDate != null) {
+                    statement.setTimestamp(5, Timestamp.valueOf(activity.targetDate));
+                } else {
+                    statement.setNull(5, Types.TIMESTAMP);
+                }
+                statement.setLong(6, importerId);
+                statement.setLong(7, activity.teamId);
+                statement.setBoolean(8, true);
+                statement.setTimestamp(9, now);
+                statement.setTimestamp(10, now);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+
+            int i = 0;
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                while (keys.next() && i < ids.length) {
+                    ids[i++] = keys.getLong(1);
+                }
+            }
+            if (i != ids.length) {
+                throw new SQLException("Expected " + ids.length + " generated keys but got " + i);
+            }
+        }
+
+        try (PreparedStatement assignees = connection.prepareStatement(INSERT_ASSIGNEE_SQL);
+             PreparedStatement links = connection.prepareStatement(INSERT_LINK_SQL)) {
+            for (int i = 0; i < activities.size(); i++) {
+                for (Long userId : activities.get(i).assignees) {
+                    assignees.setLong(1, ids[i]);
+                    assignees.setLong(2, userId);
+                    assignees.addBatch();
+                }
+                for (String url : activities.get(i).links) {
+                    links.setString(1, url);
+                    links.setLong(2, ids[i]);
+                    links.setTimestamp(3, now);
+                    links.addBatch();
+                }
+            }
+            assignees.executeBatch();
+            links.executeBatch();
+        }
+    }
+
+    private void sendSummaryNotifications(ImportState state) {
+        Long relatedTeamId = state.teamIds.size() == 1 ? state.teamIds.iterator().next() : null;
+        for (Map.Entry<Long, Integer> entry : state.assignedCounts.entrySet()) {
+            int count = entry.getValue();
+            try {
+                notificationService.createNotification(
+                    entry.getKey(),
+                    "Activities Imported",
+                    "You have been assigned to " + count + " imported " + (count == 1 ? "activity" : "activities"),
+                    "ACTIVITY_ASSIGNED",
+                    relatedTeamId,
+                    null
+                );
+            } catch (Exception e) {
+                log.warn("Failed to send import notification to user {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private List<String> splitList(String value) {
+        if (value == null) {
+            return null;
+        }
+        List<String> items = new ArrayList<>();
+        for (String item : Arrays.asList(value.split(";"))) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+}
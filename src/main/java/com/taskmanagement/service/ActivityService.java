@@ -1,6 +1,9 @@
 package com.taskmanagement.service;
 
+import com.taskmanagement.config.ReplicaRead;
 import com.taskmanagement.dto.ActivityDTO;
+import com.taskmanagement.dto.ActivitySummaryDTO;
+import com.taskmanagement.dto.BatchStatusUpdateRequest;
 import com.taskmanagement.dto.CreateActivityRequest;
 import com.taskmanagement.dto.CreateActivityWithFilesRequest;
 import com.taskmanagement.dto.UpdateActivityWithFilesRequest;
@@ -21,33 +24,49 @@ import com.taskmanagement.repository.AttachmentRepository;
 import com.taskmanagement.repository.ActivityLinkRepository;
 import com.taskmanagement.repository.NotificationRepository;
 import com.taskmanagement.util.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.annotation.Transactional;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
 
-import javax.transaction.Transactional;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.UUID;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
 public class ActivityService {
 
+    private static final Logger log = LoggerFactory.getLogger(ActivityService.class);
+
+    private static final int MAX_BATCH_STATUS_UPDATE = 500;
+
+    private static final String INSERT_REMARK_SQL =
+        "INSERT INTO remarks (text, user_id, activity_id, type, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ATTACHMENT_SQL =
+        "INSERT INTO attachments (filename, original_name, file_path, file_size, content_type, content_hash, " +
+        "activity_id, uploaded_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
     @Autowired
     private ActivityRepository activityRepository;
 
@@ -72,9 +91,24 @@ public class ActivityService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private ActivityStatsService activityStatsService;
+
+    @Autowired
+    private DeadlineReminderService deadlineReminderService;
+
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AttachmentStorageService attachmentStorageService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -98,14 +132,14 @@ public class ActivityService {
                 dto.setUserEmpId(remark.getUser().getEmpId());
             }
         } catch (Exception e) {
-            System.err.println("Could not load user info for remark: " + e.getMessage());
+            log.warn("Could not load user info for remark: {}", e.getMessage());
         }
         
         return dto;
     }
 
-    // Convert Activity entity to DTO
-    private ActivityDTO convertToDTO(Activity activity) {
+    // Convert Activity entity to DTO (package-private for the DTO benchmark)
+    ActivityDTO convertToDTO(Activity activity) {
         ActivityDTO dto = new ActivityDTO();
         dto.setId(activity.getId());
         dto.setName(activity.getName());
@@ -131,7 +165,7 @@ public class ActivityService {
                 dto.setCreatorEmpId(activity.getCreator().getEmpId());
             }
         } catch (Exception e) {
-            System.err.println("Could not load creator info: " + e.getMessage());
+            log.warn("Could not load creator info: {}", e.getMessage());
         }
         
         // Convert assigned members
@@ -148,7 +182,7 @@ public class ActivityService {
                 dto.setAssignedMembers(members);
             }
         } catch (Exception e) {
-            System.err.println("Could not load assigned members: " + e.getMessage());
+            log.warn("Could not load assigned members: {}", e.getMessage());
         }
         
         // Convert remarks
@@ -161,7 +195,7 @@ public class ActivityService {
                 dto.setRemarks(remarkDTOs);
             }
         } catch (Exception e) {
-            System.err.println("Could not load remarks: " + e.getMessage());
+            log.warn("Could not load remarks: {}", e.getMessage());
         }
         
         // Convert attachments
@@ -173,7 +207,8 @@ public class ActivityService {
                         attachment.getId(),
                         attachment.getFilename(),
                         attachment.getOriginalName(),
-                        attachment.getFilePath(),
+                        // The column holds the storage key; clients keep the path they always got
+                        uploadDir + "/" + attachment.getFilename(),
                         attachment.getFileSize(),
                         attachment.getContentType(),
                         attachment.getUploadedAt()
@@ -182,7 +217,7 @@ public class ActivityService {
                 dto.setAttachments(attachmentDTOs);
             }
         } catch (Exception e) {
-            System.err.println("Could not load attachments: " + e.getMessage());
+            log.warn("Could not load attachments: {}", e.getMessage());
         }
         
         // Convert links
@@ -200,12 +235,14 @@ public class ActivityService {
                 dto.setLinks(linkDTOs);
             }
         } catch (Exception e) {
-            System.err.println("Could not load links: " + e.getMessage());
+            log.warn("Could not load links: {}", e.getMessage());
         }
         
         return dto;
     }
 
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public List<ActivityDTO> getAllActivities() {
         return activityRepository.findAllWithCreator()
                 .stream()
@@ -213,12 +250,15 @@ public class ActivityService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public ActivityDTO getActivityById(Long id) {
         Activity activity = activityRepository.findByIdWithCreator(id)
                 .orElseThrow(() -> new RuntimeException("Activity not found with ID: " + id));
         return convertToDTO(activity);
     }
 
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public List<ActivityDTO> getActivitiesForTeam(Long teamId) {
         teamRepository.findById(teamId)
                 .orElseThrow(() -> new RuntimeException("Team not found with ID: " + teamId));
@@ -232,6 +272,50 @@ public class ActivityService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * One page of the user's assigned activities, newest first, with the
+     * cursor for the next page (null on the last page).
+     */
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public Map<String, Object> getActivitiesAssignedToUser(String token, List<String> statuses,
+                                                           Long beforeId, int limit) {
+        Long currentUserId = jwtUtil.extractUserId(token);
+        if (currentUserId == null) {
+            throw new RuntimeException("Invalid authentication token");
+        }
+
+        List<Activity.ActivityStatus> statusFilter = new ArrayList<>();
+        if (statuses == null || statuses.isEmpty()) {
+            statusFilter.addAll(Arrays.asList(Activity.ActivityStatus.values()));
+        } else {
+            for (String status : statuses) {
+                try {
+                    statusFilter.add(Activity.ActivityStatus.fromValue(status.trim()));
+                } catch (IllegalArgumentException e) {
+                    throw new RuntimeException("Invalid status value: " + status);
+                }
+            }
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, 200));
+        // One extra row tells whether another page follows
+        List<ActivitySummaryDTO> activities = activityRepository.findAssignedSummaries(
+                currentUserId,
+                statusFilter,
+                beforeId != null ? beforeId : Long.MAX_VALUE,
+                PageRequest.of(0, pageSize + 1));
+        boolean hasMore = activities.size() > pageSize;
+        if (hasMore) {
+            activities = activities.subList(0, pageSize);
+        }
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("activities", activities);
+        page.put("nextCursor", hasMore ? activities.get(pageSize - 1).getId() : null);
+        return page;
+    }
+
     @Transactional
     public ActivityDTO createActivity(CreateActivityRequest request, String token) {
         Long currentUserId = jwtUtil.extractUserId(token);
@@ -260,7 +344,7 @@ public class ActivityService {
                     DateTimeFormatter.ISO_DATE_TIME);
                 activity.setTargetDate(targetDate);
             } catch (Exception e) {
-                System.err.println("Error parsing target date: " + e.getMessage());
+                log.warn("Error parsing target date: {}", e.getMessage());
             }
         }
 
@@ -287,14 +371,15 @@ public class ActivityService {
         activity.setAssignedMembers(assignedMembers);
 
         Activity savedActivity = activityRepository.save(activity);
+        activityStatsService.evictTeam(team.getId());
+        deadlineReminderService.reschedule(savedActivity);
         
         // Send notifications to assigned members
-        System.out.println("Activity created, calling notifyActivityCreated for: " + savedActivity.getName());
+        log.debug("Activity created, calling notifyActivityCreated for: {}", savedActivity.getName());
         try {
             notificationService.notifyActivityCreated(savedActivity, creator);
         } catch (Exception e) {
-            System.err.println("Failed to send activity creation notifications: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to send activity creation notifications", e);
         }
         
         return convertToDTO(savedActivity);
@@ -331,7 +416,7 @@ public class ActivityService {
                     DateTimeFormatter.ISO_DATE_TIME);
                 activity.setTargetDate(targetDate);
             } catch (Exception e) {
-                System.err.println("Error parsing target date: " + e.getMessage());
+                log.warn("Error parsing target date: {}", e.getMessage());
             }
         }
 
@@ -353,35 +438,21 @@ public class ActivityService {
                 }
                 activity.setAssignedMembers(assignedUsers);
             } catch (Exception e) {
-                System.err.println("Error parsing assigned users: " + e.getMessage());
+                log.warn("Error parsing assigned users: {}", e.getMessage());
             }
         }
 
         // Save the activity first to get its ID
         Activity savedActivity = activityRepository.save(activity);
+        activityStatsService.evictTeam(team.getId());
+        deadlineReminderService.reschedule(savedActivity);
 
         // Handle file uploads
-        if (request.getAttachments() != null && request.getAttachments().length > 0) {
-            for (MultipartFile file : request.getAttachments()) {
-                if (!file.isEmpty()) {
-                    try {
-                        String savedFile = saveFile(file);
-                        if (savedFile != null) {
-                            Attachment attachment = new Attachment();
-                            attachment.setFilename(savedFile);
-                            attachment.setOriginalName(file.getOriginalFilename());
-                            attachment.setFilePath(uploadDir + "/" + savedFile);
-                            attachment.setFileSize(file.getSize());
-                            attachment.setContentType(file.getContentType());
-                            attachment.setActivity(savedActivity);
-                            
-                            attachmentRepository.save(attachment);
-                        }
-                    } catch (IOException e) {
-                        System.err.println("Error saving file " + file.getOriginalFilename() + ": " + e.getMessage());
-                    }
-                }
-            }
+        // Files were already streamed to storage by the controller; only register them here
+        boolean attachmentsAdded = false;
+        if (request.getAttachments() != null && !request.getAttachments().isEmpty()) {
+            insertAttachments(savedActivity, request.getAttachments());
+            attachmentsAdded = true;
         }
 
         // Handle links
@@ -403,53 +474,28 @@ public class ActivityService {
                     }
                 }
             } catch (Exception e) {
-                System.err.println("Error parsing links: " + e.getMessage());
+                log.warn("Error parsing links: {}", e.getMessage());
             }
         }
 
         // Send notifications to assigned members
-        System.out.println("Activity with files created, calling notifyActivityCreated for: " + savedActivity.getName());
+        log.debug("Activity with files created, calling notifyActivityCreated for: {}", savedActivity.getName());
         try {
             User creator = userRepository.findById(currentUserId)
                     .orElseThrow(() -> new RuntimeException("Creator user not found"));
             notificationService.notifyActivityCreated(savedActivity, creator);
         } catch (Exception e) {
-            System.err.println("Failed to send activity creation notifications: " + e.getMessage());
-            e.printStackTrace();
-        }
-
-        // Return the activity with all its relationships loaded
-        return convertToDTO(activityRepository.findById(savedActivity.getId()).orElse(savedActivity));
-    }
-
-    private String saveFile(MultipartFile file) throws IOException {
-        // Create upload directory if it doesn't exist
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
+            log.error("Failed to send activity creation notifications", e);
         }
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
 
-        // Save file with proper resource management
-        Path filePath = uploadPath.resolve(uniqueFilename);
-        
-        // Use try-with-resources to ensure the input stream is properly closed
-        try (java.io.InputStream inputStream = file.getInputStream()) {
-            Files.copy(inputStream, filePath, StandardCopyOption.REPLACE_EXISTING);
+        // Attachment rows were inserted directly, so reload them into the entity
+        if (attachmentsAdded) {
+            entityManager.flush();
+            entityManager.refresh(savedActivity);
         }
-        
-        // Force file system sync
-        filePath.toFile().setReadable(true);
-        filePath.toFile().setWritable(true);
 
-        return uniqueFilename;
+        // Return the activity with all its relationships loaded
+        return convertToDTO(activityRepository.findById(savedActivity.getId()).orElse(savedActivity));
     }
 
     @Transactional
@@ -514,6 +560,8 @@ public class ActivityService {
         }
 
         Activity savedActivity = activityRepository.save(activity);
+        activityStatsService.evictTeam(activity.getTeam().getId());
+        deadlineReminderService.reschedule(savedActivity);
         
         // Send notifications to assigned members about status change
         try {
@@ -521,12 +569,186 @@ public class ActivityService {
                     .orElseThrow(() -> new RuntimeException("Updater user not found"));
             notificationService.notifyActivityStatusChanged(savedActivity, updater);
         } catch (Exception e) {
-            System.err.println("Failed to send activity status change notifications: " + e.getMessage());
+            log.warn("Failed to send activity status change notifications: {}", e.getMessage());
         }
         
         return convertToDTO(savedActivity);
     }
 
+    /**
+     * Move many activities to one status in a single transaction. Activities are
+     * locked in ascending id order, the status remarks are inserted as one JDBC
+     * batch and every recipient gets one notification covering all activities.
+     */
+    @Transactional
+    public List<ActivitySummaryDTO> updateActivityStatuses(BatchStatusUpdateRequest request, String token) {
+        Long currentUserId = jwtUtil.extractUserId(token);
+        if (currentUserId == null) {
+            throw new RuntimeException("Invalid authentication token");
+        }
+        if (request.getActivityIds() == null || request.getActivityIds().isEmpty()) {
+            throw new RuntimeException("Invalid request: no activity IDs provided");
+        }
+
+        Activity.ActivityStatus newStatus;
+        try {
+            newStatus = Activity.ActivityStatus.fromValue(request.getStatus());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid status value: " + request.getStatus());
+        }
+
+        TreeSet<Long> activityIds = new TreeSet<>(request.getActivityIds());
+        if (activityIds.size() > MAX_BATCH_STATUS_UPDATE) {
+            throw new RuntimeException("Invalid request: at most " + MAX_BATCH_STATUS_UPDATE + " activities per batch");
+        }
+
+        User currentUser = userRepository.findById(currentUserId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        boolean isAdmin = isUserAdmin(currentUserId);
+
+        List<Activity> activities = activityRepository.findAllByIdInForUpdate(activityIds);
+        if (activities.size() != activityIds.size()) {
+            for (Activity activity : activities) {
+                activityIds.remove(activity.getId());
+            }
+            throw new RuntimeException("Activity not found with ID: " + activityIds.first());
+        }
+        // Initialise assigned members and teams of the locked activities in one query
+        activityRepository.findAllWithAssigneesByIdIn(activityIds);
+
+        // All or nothing: check every activity before changing any
+        for (Activity activity : activities) {
+            boolean canUpdate = isAdmin ||
+                               activity.getCreatedBy().equals(currentUserId) ||
+                               isUserAssignedToActivity(activity, currentUserId);
+            if (!canUpdate) {
+                throw new RuntimeException("You do not have permission to update activity " + activity.getId());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp createdAt = Timestamp.valueOf(now);
+        String userRemark = request.getRemarks() != null && !request.getRemarks().trim().isEmpty()
+                ? request.getRemarks().trim() : null;
+        List<Object[]> remarkRows = new ArrayList<>();
+        List<Activity> changed = new ArrayList<>();
+
+        for (Activity activity : activities) {
+            // Activities already in the target status get no remark and no notification
+            if (activity.getStatus() == newStatus) {
+                continue;
+            }
+            changed.add(activity);
+
+            String oldStatus = activity.getStatus().getValue();
+            activity.setStatus(newStatus);
+            activity.setUpdatedAt(now);
+
+            String statusChangeMessage = String.format("Status changed from '%s' to '%s' by %s (%s)",
+                getStatusDisplayName(oldStatus),
+                getStatusDisplayName(newStatus.getValue()),
+                currentUser.getName(),
+                currentUser.getEmpId());
+            remarkRows.add(new Object[] {
+                statusChangeMessage, currentUserId, activity.getId(), Remark.RemarkType.STATUS_UPDATE.name(), createdAt
+            });
+            if (userRemark != null) {
+                remarkRows.add(new Object[] {
+                    userRemark, currentUserId, activity.getId(), Remark.RemarkType.GENERAL.name(), createdAt
+                });
+            }
+        }
+        if (changed.isEmpty()) {
+            return toSummaries(activities);
+        }
+        jdbcTemplate.batchUpdate(INSERT_REMARK_SQL, remarkRows);
+
+        for (Activity activity : changed) {
+            activityStatsService.evictTeam(activity.getTeam().getId());
+            deadlineReminderService.reschedule(activity);
+        }
+
+        try {
+            notificationService.notifyActivityStatusesChanged(changed, currentUser);
+        } catch (Exception e) {
+            log.warn("Failed to send batch status change notifications: {}", e.getMessage());
+        }
+
+        return toSummaries(activities);
+    }
+
+    private List<ActivitySummaryDTO> toSummaries(List<Activity> activities) {
+        return activities.stream()
+                .map(activity -> new ActivitySummaryDTO(
+                    activity.getId(),
+                    activity.getName(),
+                    activity.getPriority(),
+                    activity.getStatus(),
+                    activity.getTargetDate(),
+                    activity.getCreatedBy(),
+                    activity.getUpdatedAt(),
+                    activity.getTeam().getId(),
+                    activity.getTeam().getName()
+                ))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Attach files that are already in the upload directory (e.g. a completed
+     * resumable upload) to an activity. Same permission rules as editing.
+     */
+    @Transactional
+    public ActivityDTO addAttachments(Long activityId, List<AttachmentStorageService.StoredFile> files, String token) {
+        Long currentUserId = jwtUtil.extractUserId(token);
+        if (currentUserId == null) {
+            throw new RuntimeException("Invalid token");
+        }
+
+        Activity activity = activityRepository.findById(activityId)
+            .orElseThrow(() -> new RuntimeException("Activity not found"));
+        User currentUser = userRepository.findById(currentUserId)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+
+        if (!currentUser.getRole().equals("admin") && !activity.getCreatedBy().equals(currentUserId)) {
+            throw new RuntimeException("You are not authorized to edit this activity");
+        }
+
+        insertAttachments(activity, files);
+
+        activity.setUpdatedAt(LocalDateTime.now());
+        activityRepository.save(activity);
+        entityManager.flush();
+        entityManager.refresh(activity);
+        return convertToDTO(activity);
+    }
+
+    /**
+     * Register stored files as blobs and insert their Attachment rows in one
+     * batch. The files were written and flushed before the transaction, so
+     * only renames and the batched inserts happen while it is open.
+     */
+    private void insertAttachments(Activity activity, List<AttachmentStorageService.StoredFile> files) {
+        try {
+            attachmentStorageService.registerAll(files);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store attachments: " + e.getMessage(), e);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        for (AttachmentStorageService.StoredFile file : files) {
+            rows.add(new Object[]{
+                file.getFilename(), file.getOriginalName(), file.getSha256(),
+                file.getSize(), file.getContentType(), file.getSha256(), activity.getId(), now
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_ATTACHMENT_SQL, rows);
+
+        for (AttachmentStorageService.StoredFile file : files) {
+            thumbnailService.generateAsync(file.getSha256(), file.getContentType());
+        }
+    }
+
     @Transactional
     public ActivityDTO addRemarkToActivity(Long activityId, AddRemarkRequest request, String token) {
         Long currentUserId = jwtUtil.extractUserId(token);
@@ -562,20 +784,20 @@ public class ActivityService {
         Activity savedActivity = activityRepository.save(activity);
         
         // Trigger notifications for remark addition
-        System.out.println("Remark added, calling notifyRemarkAdded");
+        log.debug("Remark added, calling notifyRemarkAdded");
         try {
             User remarkAuthor = userRepository.findById(currentUserId)
                     .orElseThrow(() -> new RuntimeException("User not found with ID: " + currentUserId));
             notificationService.notifyRemarkAdded(savedActivity, remarkAuthor, request.getText().trim());
-            System.out.println("Remark notification triggered successfully");
+            log.debug("Remark notification triggered successfully");
         } catch (Exception e) {
-            System.err.println("Failed to send remark notification: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to send remark notification", e);
         }
         
         return convertToDTO(savedActivity);
     }
 
+    @Transactional(readOnly = true)
     public List<RemarkDTO> getRemarksForActivity(Long activityId) {
         // Verify activity exists
         activityRepository.findById(activityId)
@@ -616,15 +838,14 @@ public class ActivityService {
         Remark savedRemark = remarkRepository.save(remark);
         
         // Trigger notifications for remark update
-        System.out.println("Remark updated, calling notifyRemarkUpdated");
+        log.debug("Remark updated, calling notifyRemarkUpdated");
         try {
             Activity activity = activityRepository.findById(remark.getActivityId())
                     .orElseThrow(() -> new RuntimeException("Activity not found with ID: " + remark.getActivityId()));
             notificationService.notifyRemarkUpdated(activity, currentUser, request.getText().trim());
-            System.out.println("Remark update notification triggered successfully");
+            log.debug("Remark update notification triggered successfully");
         } catch (Exception e) {
-            System.err.println("Failed to send remark update notification: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to send remark update notification", e);
         }
         
         return convertRemarkToDTO(savedRemark);
@@ -677,6 +898,10 @@ public class ActivityService {
             throw new RuntimeException("You are not authorized to edit this activity");
         }
 
+        // Remember the fields the team stats depend on
+        LocalDateTime oldTargetDate = activity.getTargetDate();
+        String oldPriority = activity.getPriority();
+
         // Update basic fields
         activity.setName(request.getName());
         activity.setDescription(request.getDescription());
@@ -688,7 +913,7 @@ public class ActivityService {
                 LocalDateTime targetDate = LocalDateTime.parse(request.getTargetDate(), DateTimeFormatter.ISO_DATE_TIME);
                 activity.setTargetDate(targetDate);
             } catch (Exception e) {
-                System.err.println("Error parsing target date: " + e.getMessage());
+                log.warn("Error parsing target date: {}", e.getMessage());
             }
         }
 
@@ -701,26 +926,26 @@ public class ActivityService {
                     new TypeReference<List<Long>>(){}
                 );
                 
-                System.out.println("=== ASSIGNED USERS UPDATE DEBUG ===");
-                System.out.println("Current user (editor) ID: " + currentUserId);
-                System.out.println("Assigned user IDs from frontend: " + assignedUserIds);
-                System.out.println("Current user included in assignment: " + assignedUserIds.contains(currentUserId));
+                log.debug("=== ASSIGNED USERS UPDATE DEBUG ===");
+                log.debug("Current user (editor) ID: {}", currentUserId);
+                log.debug("Assigned user IDs from frontend: {}", assignedUserIds);
+                log.debug("Current user included in assignment: {}", assignedUserIds.contains(currentUserId));
                 
                 Set<User> assignedUsers = new HashSet<>();
                 for (Long userId : assignedUserIds) {
                     User user = userRepository.findById(userId).orElse(null);
                     if (user != null) {
                         assignedUsers.add(user);
-                        System.out.println("Added user to assignment: " + user.getName() + " (ID: " + user.getId() + ")");
+                        log.debug("Added user to assignment: {} (ID: {})", user.getName(), user.getId());
                     }
                 }
                 
                 // Set the assigned members as specified by the frontend
                 activity.setAssignedMembers(assignedUsers);
-                System.out.println("Final assigned members count: " + assignedUsers.size());
-                System.out.println("=== END ASSIGNED USERS UPDATE DEBUG ===");
+                log.debug("Final assigned members count: {}", assignedUsers.size());
+                log.debug("=== END ASSIGNED USERS UPDATE DEBUG ===");
             } catch (Exception e) {
-                System.err.println("Error parsing assigned users: " + e.getMessage());
+                log.warn("Error parsing assigned users: {}", e.getMessage());
             }
         }
 
@@ -729,16 +954,16 @@ public class ActivityService {
             try {
                 boolean isCreatorSubscribed = Boolean.parseBoolean(request.getCreatorSubscribed());
                 activity.setCreatorSubscribed(isCreatorSubscribed);
-                System.out.println("Updated creatorSubscribed to: " + isCreatorSubscribed);
+                log.debug("Updated creatorSubscribed to: {}", isCreatorSubscribed);
             } catch (Exception e) {
-                System.err.println("Error parsing creatorSubscribed: " + e.getMessage());
+                log.warn("Error parsing creatorSubscribed: {}", e.getMessage());
                 // Default to false if parsing fails
                 activity.setCreatorSubscribed(false);
             }
         } else {
             // If not provided, default to false (opt-out)
             activity.setCreatorSubscribed(false);
-            System.out.println("creatorSubscribed not provided, defaulting to false");
+            log.debug("creatorSubscribed not provided, defaulting to false");
         }
         
         if (request.getAttachmentsToDeleteJson() != null && !request.getAttachmentsToDeleteJson().isEmpty()) {
@@ -762,13 +987,14 @@ public class ActivityService {
                         // Try to find the attachment first to get more info
                         Attachment attachment = attachmentRepository.findById(attachmentId).orElse(null);
                         if (attachment != null) {
-                            System.out.println("Found attachment: " + attachment.getFilename() + " for activity: " + attachment.getActivity().getId());
+                            log.debug("Found attachment: {} for activity: {}", attachment.getFilename(), attachment.getActivity().getId());
+                            attachmentStorageService.release(attachment.getContentHash());
                             
                             // Remove the attachment from the activity's collection first
                             Activity attachmentActivity = attachment.getActivity();
                             if (attachmentActivity != null && attachmentActivity.getAttachments() != null) {
                                 attachmentActivity.getAttachments().remove(attachment);
-                                System.out.println("Removed attachment from activity's collection");
+                                log.debug("Removed attachment from activity's collection");
                             }
                         }
                         
@@ -777,17 +1003,16 @@ public class ActivityService {
                         
                         // Check if it was actually deleted
                         boolean existsAfter = attachmentRepository.existsById(attachmentId);
-                        System.out.println("Attachment exists after deletion: " + existsAfter);
+                        log.debug("Attachment exists after deletion: {}", existsAfter);
                     } else {
-                        System.out.println("Attachment with ID " + attachmentId + " does not exist");
+                        log.debug("Attachment with ID {} does not exist", attachmentId);
                     }
                 }
             } catch (Exception e) {
-                System.err.println("Error deleting attachments: " + e.getMessage());
-                e.printStackTrace();
+                log.error("Error deleting attachments", e);
             }
         } else {
-            System.out.println("No attachments to delete");
+            log.debug("No attachments to delete");
         }
         
         // Flush to ensure deletions are persisted
@@ -802,26 +1027,26 @@ public class ActivityService {
                     new TypeReference<List<Long>>(){}
                 );
                 
-                System.out.println("Parsed link IDs to delete: " + linkIds);
+                log.debug("Parsed link IDs to delete: {}", linkIds);
                 
                 for (Long linkId : linkIds) {
-                    System.out.println("Deleting link with ID: " + linkId);
+                    log.debug("Deleting link with ID: {}", linkId);
                     
                     // First check if the link exists
                     boolean exists = activityLinkRepository.existsById(linkId);
-                    System.out.println("Link exists before deletion: " + exists);
+                    log.debug("Link exists before deletion: {}", exists);
                     
                     if (exists) {
                         // Try to find the link first to get more info
                         ActivityLink link = activityLinkRepository.findById(linkId).orElse(null);
                         if (link != null) {
-                            System.out.println("Found link: " + link.getUrl() + " for activity: " + link.getActivity().getId());
+                            log.debug("Found link: {} for activity: {}", link.getUrl(), link.getActivity().getId());
                             
                             // Remove the link from the activity's collection first
                             Activity linkActivity = link.getActivity();
                             if (linkActivity != null && linkActivity.getLinks() != null) {
                                 linkActivity.getLinks().remove(link);
-                                System.out.println("Removed link from activity's collection");
+                                log.debug("Removed link from activity's collection");
                             }
                         }
                         
@@ -830,46 +1055,29 @@ public class ActivityService {
                         
                         // Check if it was actually deleted
                         boolean existsAfter = activityLinkRepository.existsById(linkId);
-                        System.out.println("Link exists after deletion: " + existsAfter);
+                        log.debug("Link exists after deletion: {}", existsAfter);
                     } else {
-                        System.out.println("Link with ID " + linkId + " does not exist");
+                        log.debug("Link with ID {} does not exist", linkId);
                     }
                 }
             } catch (Exception e) {
-                System.err.println("Error deleting links: " + e.getMessage());
-                e.printStackTrace();
+                log.error("Error deleting links", e);
             }
         } else {
-            System.out.println("No links to delete");
+            log.debug("No links to delete");
         }
         
         // Flush to ensure deletions are persisted
         entityManager.flush();
         
-        System.out.println("==================");
+        log.debug("==================");
 
         // Handle new file uploads
-        if (request.getAttachments() != null && request.getAttachments().length > 0) {
-            for (MultipartFile file : request.getAttachments()) {
-                if (!file.isEmpty()) {
-                    try {
-                        String savedFile = saveFile(file);
-                        if (savedFile != null) {
-                            Attachment attachment = new Attachment();
-                            attachment.setFilename(savedFile);
-                            attachment.setOriginalName(file.getOriginalFilename());
-                            attachment.setFilePath(uploadDir + "/" + savedFile);
-                            attachment.setFileSize(file.getSize());
-                            attachment.setContentType(file.getContentType());
-                            attachment.setActivity(activity);
-                            
-                            attachmentRepository.save(attachment);
-                        }
-                    } catch (IOException e) {
-                        System.err.println("Error saving file " + file.getOriginalFilename() + ": " + e.getMessage());
-                    }
-                }
-            }
+        // Files were already streamed to storage by the controller; only register them here
+        boolean attachmentsAdded = false;
+        if (request.getAttachments() != null && !request.getAttachments().isEmpty()) {
+            insertAttachments(activity, request.getAttachments());
+            attachmentsAdded = true;
         }
 
         // Handle new links
@@ -888,11 +1096,22 @@ public class ActivityService {
                     activityLinkRepository.save(link);
                 }
             } catch (Exception e) {
-                System.err.println("Error adding new links: " + e.getMessage());
+                log.warn("Error adding new links: {}", e.getMessage());
             }
         }
 
         Activity savedActivity = activityRepository.save(activity);
+        if (!Objects.equals(oldTargetDate, savedActivity.getTargetDate())
+                || !Objects.equals(oldPriority, savedActivity.getPriority())) {
+            activityStatsService.evictTeam(savedActivity.getTeam().getId());
+        }
+        if (!Objects.equals(oldTargetDate, savedActivity.getTargetDate())) {
+            deadlineReminderService.reschedule(savedActivity);
+        }
+        if (attachmentsAdded) {
+            entityManager.flush();
+            entityManager.refresh(savedActivity);
+        }
         return convertToDTO(savedActivity);
     }
 
@@ -922,7 +1141,10 @@ public class ActivityService {
             // Delete all related remarks
             remarkRepository.deleteByActivityId(activityId);
             
-            // Delete all attachments
+            // Delete all attachments, releasing their blobs after commit
+            for (Attachment attachment : attachmentRepository.findByActivityId(activityId)) {
+                attachmentStorageService.release(attachment.getContentHash());
+            }
             attachmentRepository.deleteByActivityId(activityId);
             
             // Delete all activity links
@@ -934,9 +1156,11 @@ public class ActivityService {
             
             // Finally delete the activity
             activityRepository.delete(activity);
+            activityStatsService.evictTeam(activity.getTeam().getId());
+            deadlineReminderService.cancel(activityId);
             
         } catch (Exception e) {
-            System.err.println("Error deleting activity: " + e.getMessage());
+            log.warn("Error deleting activity: {}", e.getMessage());
             throw new RuntimeException("Failed to delete activity due to constraint violations. Please ensure all related data is properly handled.");
         }
     }
@@ -0,0 +1,104 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.dto.ActivityStatsDTO;
+import com.taskmanagement.model.Activity;
+import com.taskmanagement.repository.ActivityRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-team activity aggregates backed by a single GROUP BY query and cached
+ * until ActivityService reports a change to one of the team's activities.
+ */
+@Service
+public class ActivityStatsService {
+
+    // Cache key for the all-teams rollup
+    private static final Long ALL_TEAMS = -1L;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    // Upper bound on staleness for changes that bypass ActivityService (bulk deletes)
+    // and for the overdue count, which moves with the clock
+    @Value("${app.stats.cache-ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    private final Map<Long, ActivityStatsDTO> cache = new ConcurrentHashMap<>();
+
+    public ActivityStatsDTO getTeamStats(Long teamId) {
+        return cached(teamId);
+    }
+
+    public ActivityStatsDTO getAllTeamsStats() {
+        return cached(ALL_TEAMS);
+    }
+
+    /**
+     * Drop cached stats for a team (and the rollup). When called inside a
+     * transaction the entry is dropped again after commit so a concurrent
+     * reader cannot re-cache pre-commit counts.
+     */
+    public void evictTeam(Long teamId) {
+        if (teamId == null) {
+            return;
+        }
+        cache.remove(teamId);
+        cache.remove(ALL_TEAMS);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.remove(teamId);
+                    cache.remove(ALL_TEAMS);
+                }
+            });
+        }
+    }
+
+    private ActivityStatsDTO cached(Long key) {
+        ActivityStatsDTO stats = cache.get(key);
+        if (stats != null && stats.getGeneratedAt().plusSeconds(cacheTtlSeconds).isAfter(LocalDateTime.now())) {
+            return stats;
+        }
+
+        stats = compute(key);
+        cache.put(key, stats);
+        return stats;
+    }
+
+    private ActivityStatsDTO compute(Long key) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = ALL_TEAMS.equals(key)
+                ? activityRepository.aggregateAll(now, Activity.ActivityStatus.COMPLETED)
+                : activityRepository.aggregateByTeam(key, now, Activity.ActivityStatus.COMPLETED);
+
+        ActivityStatsDTO stats = new ActivityStatsDTO(ALL_TEAMS.equals(key) ? null : key);
+        for (Activity.ActivityStatus status : Activity.ActivityStatus.values()) {
+            stats.getByStatus().put(status.getValue(), 0L);
+        }
+
+        for (Object[] row : rows) {
+            Activity.ActivityStatus status = (Activity.ActivityStatus) row[0];
+            String priority = row[1] != null ? (String) row[1] : "none";
+            long count = ((Number) row[2]).longValue();
+            long overdue = row[3] != null ? ((Number) row[3]).longValue() : 0L;
+
+            String statusKey = status != null ? status.getValue() : Activity.ActivityStatus.PENDING.getValue();
+            stats.getByStatus().merge(statusKey, count, Long::sum);
+            stats.getByPriority().merge(priority, count, Long::sum);
+            stats.setTotal(stats.getTotal() + count);
+            stats.setOverdue(stats.getOverdue() + overdue);
+        }
+        return stats;
+    }
+}
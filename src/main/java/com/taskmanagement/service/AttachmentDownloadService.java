@@ -0,0 +1,252 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.model.Attachment;
+import com.taskmanagement.repository.AttachmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Serves stored attachment files with HTTP caching and byte ranges.
+ *
+ * Bodies are sent with Tomcat's sendfile support when the connector offers it
+ * and otherwise copied with FileChannel.transferTo, so file contents never pass
+ * through a heap buffer of ours unless the storage backend is not file based.
+ * Content type, download name and ETag come from the Attachment record the
+ * name belongs to; blobs are content-addressed, so their ETag is the SHA-256
+ * and they can be cached as immutable.
+ */
+@Service
+public class AttachmentDownloadService {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final int MAX_RANGES = 20;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private StorageBackend storage;
+
+    @Value("${app.attachments.cache-max-age-seconds:31536000}")
+    private long cacheMaxAgeSeconds;
+
+    /**
+     * Serve the attachment stored under the given name. Names are per
+     * attachment, so type and download name are always the requesting
+     * attachment's own even when its blob is shared; storage keys are never
+     * accepted directly.
+     */
+    public void serve(String filename, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Attachment attachment = attachmentRepository.findByFilename(filename).orElse(null);
+        String key = attachment != null ? AttachmentStorageService.storageKey(attachment) : null;
+        if (key == null || !StorageBackend.isValidKey(key) || !storage.exists(key)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = storage.size(key);
+        long lastModified = storage.lastModified(key) / 1000 * 1000;
+        String etag = attachment.getContentHash() != null
+                ? "\"" + attachment.getContentHash() + "\""
+                : "W/\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+        String contentType = attachment.getContentType() != null
+                ? attachment.getContentType() : MimeTypeUtils.APPLICATION_OCTET_STREAM_VALUE;
+        String downloadName = attachment.getOriginalName() != null ? attachment.getOriginalName() : filename;
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Stored names never change content: each is bound to one attachment and its blob
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + cacheMaxAgeSeconds + ", immutable");
+
+        if (notModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + downloadName.replace("\"", "") + "\"; "
+                + "filename*=UTF-8''" + URLEncoder.encode(downloadName, StandardCharsets.UTF_8.name()).replace("+", "%20"));
+
+        List<HttpRange> ranges = requestedRanges(request, etag, lastModified);
+        if (ranges == null || ranges.isEmpty() || ranges.size() > MAX_RANGES) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            send(key, 0, length, request, response);
+            return;
+        }
+
+        long[][] bounds = new long[ranges.size()][];
+        for (int i = 0; i < ranges.size(); i++) {
+            HttpRange range = ranges.get(i);
+            try {
+                bounds[i] = new long[] { range.getRangeStart(length), range.getRangeEnd(length) };
+            } catch (IllegalArgumentException e) {
+                bounds[i] = null;
+            }
+            if (bounds[i] == null || bounds[i][0] >= length) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        if (bounds.length == 1) {
+            long start = bounds[0][0];
+            long end = bounds[0][1];
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            send(key, start, end - start + 1, request, response);
+            return;
+        }
+
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        OutputStream out = response.getOutputStream();
+        try (SeekableByteChannel channel = storage.open(key)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            for (long[] bound : bounds) {
+                out.write(("\r\n--" + boundary + "\r\n"
+                        + "Content-Type: " + contentType + "\r\n"
+                        + "Content-Range: bytes " + bound[0] + "-" + bound[1] + "/" + length + "\r\n\r\n")
+                        .getBytes(StandardCharsets.ISO_8859_1));
+                transfer(channel, bound[0], bound[1] - bound[0] + 1, target);
+            }
+            out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        }
+        out.flush();
+    }
+
+    private boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || stripWeak(tag).equals(stripWeak(etag))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+    }
+
+    // Null when the whole file should be sent
+    private List<HttpRange> requestedRanges(HttpServletRequest request, String etag, long lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+
+        // If-Range: only honour the range when the client's copy is still current
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                if (!ifRange.equals(etag) || etag.startsWith("W/")) {
+                    return null;
+                }
+            } else if (dateHeader(request, HttpHeaders.IF_RANGE) != lastModified) {
+                return null;
+            }
+        }
+
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void send(String key, long start, long count, HttpServletRequest request,
+                      HttpServletResponse response) throws IOException {
+        response.setContentLengthLong(count);
+
+        Path file = storage.localPath(key);
+        if (file != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the file with sendfile once the request completes
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+
+        try (SeekableByteChannel channel = storage.open(key)) {
+            OutputStream out = response.getOutputStream();
+            transfer(channel, start, count, Channels.newChannel(out));
+            out.flush();
+        }
+    }
+
+    private void transfer(SeekableByteChannel source, long position, long count, WritableByteChannel target) throws IOException {
+        if (!(source instanceof FileChannel)) {
+            copy(source, position, count, target);
+            return;
+        }
+        FileChannel channel = (FileChannel) source;
+        while (count > 0) {
+            long sent = channel.transferTo(position, count, target);
+            if (sent <= 0) {
+                throw new IOException("Unexpected end of file while sending attachment");
+            }
+            position += sent;
+            count -= sent;
+        }
+    }
+
+    // Backends that are not file based
+    private void copy(SeekableByteChannel source, long position, long count, WritableByteChannel target) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(count, COPY_BUFFER_SIZE));
+        source.position(position);
+        while (count > 0) {
+            buffer.clear();
+            if (buffer.remaining() > count) {
+                buffer.limit((int) count);
+            }
+            if (source.read(buffer) <= 0) {
+                throw new IOException("Unexpected end of file while sending attachment");
+            }
+            buffer.flip();
+            count -= buffer.remaining();
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+        }
+    }
+
+    private long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -0,0 +1,382 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.model.Attachment;
+import com.taskmanagement.repository.AttachmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Content-addressed attachment storage. Uploads are hashed while they are
+ * streamed into the upload directory and stored once per SHA-256 digest in
+ * the StorageBackend; a duplicate upload only adds an Attachment row pointing
+ * at the existing blob. Each Attachment row still has its own UUID filename,
+ * which is the name clients download it by; the digest is kept in
+ * content_hash only.
+ *
+ * Storing and collecting a blob both lock its attachment_blobs row, so a blob
+ * is never removed while an upload inside an open transaction is reusing it.
+ */
+@Service
+public class AttachmentStorageService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttachmentStorageService.class);
+
+    // Creates or touches the blob row; either way the row stays locked until commit
+    private static final String UPSERT_BLOB_SQL =
+        "INSERT INTO attachment_blobs (sha256, file_size, created_at, last_used_at) VALUES (?, ?, ?, ?) " +
+        "ON CONFLICT (sha256) DO UPDATE SET last_used_at = EXCLUDED.last_used_at";
+
+    private static final String INSERT_BLOB_SQL =
+        "INSERT INTO attachment_blobs (sha256, file_size, created_at, last_used_at) VALUES (?, ?, ?, ?) " +
+        "ON CONFLICT (sha256) DO NOTHING";
+
+    private static final String UNREFERENCED_BLOBS_SQL =
+        "SELECT b.sha256 FROM attachment_blobs b WHERE b.last_used_at < ? " +
+        "AND NOT EXISTS (SELECT 1 FROM attachments a WHERE a.content_hash = b.sha256) LIMIT ?";
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private StorageBackend storage;
+
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.attachments.gc-grace-minutes:60}")
+    private long gcGraceMinutes;
+
+    @Value("${app.attachments.gc-batch-size:500}")
+    private int gcBatchSize;
+
+    /**
+     * An upload written and hashed into the upload directory, waiting to be
+     * registered as a blob by the transaction that attaches it.
+     */
+    public static class StoredFile {
+        private final Path tempPath;
+        private final String filename;
+        private final String sha256;
+        private final long size;
+        private final String originalName;
+        private final String contentType;
+        private boolean deduplicated;
+        private boolean created;
+
+        StoredFile(Path tempPath, String sha256, long size, String originalName, String contentType) {
+            this.tempPath = tempPath;
+            this.filename = UUID.randomUUID().toString() + extension(originalName);
+            this.sha256 = sha256;
+            this.size = size;
+            this.originalName = originalName;
+            this.contentType = contentType;
+        }
+
+        // Name of this attachment; the blob it points at is stored under the digest
+        public String getFilename() { return filename; }
+        public String getSha256() { return sha256; }
+        public long getSize() { return size; }
+        public String getOriginalName() { return originalName; }
+        public String getContentType() { return contentType; }
+        public boolean isDeduplicated() { return deduplicated; }
+    }
+
+    /**
+     * Stream an upload into the upload directory in a single pass, computing
+     * its size and SHA-256 on the way. No database work happens here, so this
+     * runs before the transaction that creates the Attachment rows.
+     */
+    public StoredFile write(InputStream content, String originalName, String contentType) throws IOException {
+        Path uploadPath = Paths.get(uploadDir);
+        Files.createDirectories(uploadPath);
+
+        Path tempFile = Files.createTempFile(uploadPath, "upload-", ".tmp");
+        try {
+            MessageDigest digest = newDigest();
+            long size;
+            try (InputStream in = new DigestInputStream(content, digest)) {
+                size = Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new StoredFile(tempFile, toHex(digest.digest()), size, originalName, contentType);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Turn written uploads into blobs: an existing blob with the same digest
+     * is reused and the upload dropped, otherwise the upload is renamed into
+     * place. Must run in the transaction that inserts the Attachment rows so
+     * the blobs stay locked until those rows are visible.
+     *
+     * The blob rows are written in one batch, in digest order so concurrent
+     * multi-file uploads lock them in the same order. If the transaction rolls
+     * back, uploads renamed into place are moved back and dropped uploads are
+     * kept, leaving every file where the caller's cleanup expects it.
+     */
+    public void registerAll(List<StoredFile> files) throws IOException {
+        if (files == null || files.isEmpty()) {
+            return;
+        }
+        List<StoredFile> ordered = new ArrayList<>(files);
+        ordered.sort(Comparator.comparing(StoredFile::getSha256));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> rows = new ArrayList<>();
+        for (StoredFile file : ordered) {
+            rows.add(new Object[]{file.getSha256(), file.getSize(), now, now});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_BLOB_SQL, rows);
+
+        List<StoredFile> created = new ArrayList<>();
+        List<StoredFile> deduplicated = new ArrayList<>();
+        for (StoredFile file : ordered) {
+            if (storage.exists(file.getSha256())) {
+                file.deduplicated = true;
+                deduplicated.add(file);
+            } else {
+                storage.put(file.tempPath, file.getSha256());
+                file.created = true;
+                created.add(file);
+            }
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        discard(deduplicated);
+                    } else {
+                        for (StoredFile file : created) {
+                            unregister(file);
+                        }
+                    }
+                }
+            });
+        } else {
+            discard(deduplicated);
+        }
+    }
+
+    public void register(StoredFile file) throws IOException {
+        registerAll(Collections.singletonList(file));
+    }
+
+    // Compensation for a rolled back registration. Re-creating the blob row
+    // here waits for any other transaction that registered the same digest
+    // meanwhile; if one did, the file is theirs now and stays.
+    private void unregister(StoredFile file) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            template.execute(status -> {
+                if (jdbcTemplate.update(INSERT_BLOB_SQL, file.getSha256(), file.getSize(), now, now) == 0
+                        || referenceCount(file.getSha256()) > 0) {
+                    status.setRollbackOnly();
+                    return null;
+                }
+                try {
+                    storage.take(file.getSha256(), file.tempPath);
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to roll back blob " + file.getSha256() + ": " + e.getMessage(), e);
+                }
+                file.created = false;
+                jdbcTemplate.update("DELETE FROM attachment_blobs WHERE sha256 = ?", file.getSha256());
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // The blob row is gone with the rollback, so the file would otherwise never be collected
+            log.warn("Attachment rollback cleanup failed for {}: {}", file.getSha256(), e.getMessage());
+        }
+    }
+
+    /**
+     * Drop uploads that were written but never registered, e.g. because the
+     * request failed validation. Registered blobs are left to the collector.
+     */
+    public void discard(List<StoredFile> files) {
+        if (files == null) {
+            return;
+        }
+        for (StoredFile file : files) {
+            try {
+                Files.deleteIfExists(file.tempPath);
+            } catch (IOException e) {
+                log.warn("Failed to discard upload {}: {}", file.tempPath, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Key of an attachment's file in the StorageBackend: its blob digest, or
+     * its own name for files stored before content addressing.
+     */
+    public static String storageKey(Attachment attachment) {
+        return attachment.getContentHash() != null ? attachment.getContentHash() : attachment.getFilename();
+    }
+
+    /**
+     * Storage key of the attachment with the given name, or null when there
+     * is no such attachment.
+     */
+    public String storageKey(String filename) {
+        return attachmentRepository.findByFilename(filename)
+            .map(AttachmentStorageService::storageKey)
+            .orElse(null);
+    }
+
+    public long referenceCount(String sha256) {
+        return attachmentRepository.countByContentHash(sha256);
+    }
+
+    /**
+     * Called after an Attachment row was deleted; removes its blob once the
+     * deleting transaction commits if no other attachment references it.
+     */
+    public void release(String sha256) {
+        if (sha256 == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    collect(sha256, LocalDateTime.now());
+                }
+            });
+        } else {
+            collect(sha256, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Sweep blobs that lost their last reference through set-based deletes
+     * (team deletion) rather than through release().
+     */
+    @Scheduled(fixedDelayString = "${app.attachments.gc-ms:3600000}")
+    public void collectGarbage() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(gcGraceMinutes);
+        List<String> candidates = jdbcTemplate.queryForList(
+            UNREFERENCED_BLOBS_SQL, String.class, Timestamp.valueOf(cutoff), gcBatchSize);
+
+        int removed = 0;
+        for (String sha256 : candidates) {
+            if (collect(sha256, cutoff)) {
+                removed++;
+            }
+        }
+        removeAbandonedUploads(cutoff);
+        if (removed > 0) {
+            log.info("Attachment GC removed {} unreferenced blobs", removed);
+        }
+    }
+
+    private boolean collect(String sha256, LocalDateTime usedBefore) {
+        try {
+            // release() calls this from afterCommit, where the committed transaction's resources
+            // are still bound; joining it would run the lock and delete without a transaction
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            Boolean removed = template.execute(status -> {
+                // Wait for any upload holding the row, then re-count in a fresh statement
+                List<String> locked = jdbcTemplate.queryForList(
+                    "SELECT sha256 FROM attachment_blobs WHERE sha256 = ? AND last_used_at <= ? FOR UPDATE",
+                    String.class, sha256, Timestamp.valueOf(usedBefore));
+                if (locked.isEmpty() || referenceCount(sha256) > 0) {
+                    return false;
+                }
+                try {
+                    storage.delete(sha256);
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to delete blob " + sha256 + ": " + e.getMessage(), e);
+                }
+                jdbcTemplate.update("DELETE FROM attachment_blobs WHERE sha256 = ?", sha256);
+                thumbnailService.evict(sha256);
+                return true;
+            });
+            return Boolean.TRUE.equals(removed);
+        } catch (RuntimeException e) {
+            log.warn("Attachment GC failed for {}: {}", sha256, e.getMessage());
+            return false;
+        }
+    }
+
+    // Uploads left behind by a crash between write() and register()/discard()
+    private void removeAbandonedUploads(LocalDateTime cutoff) {
+        long cutoffMillis = Timestamp.valueOf(cutoff).getTime();
+        try (DirectoryStream<Path> uploads = Files.newDirectoryStream(Paths.get(uploadDir), "upload-*.tmp")) {
+            for (Path upload : uploads) {
+                if (Files.getLastModifiedTime(upload).toMillis() < cutoffMillis) {
+                    Files.deleteIfExists(upload);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to remove abandoned uploads: {}", e.getMessage());
+        }
+    }
+
+    private static String extension(String originalName) {
+        if (originalName == null || !originalName.contains(".")) {
+            return "";
+        }
+        String extension = originalName.substring(originalName.lastIndexOf('.'));
+        // Keep stored names valid storage keys
+        return StorageBackend.isValidKey(extension.substring(1)) ? extension : "";
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,307 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.model.Activity;
+import com.taskmanagement.repository.ActivityRepository;
+import com.taskmanagement.util.HashedTimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Sends "due soon" and "overdue" notifications for activity target dates.
+ *
+ * Upcoming deadlines are loaded periodically from a target_date range query
+ * (one horizon at a time, never the whole table) into a hashed timing wheel.
+ * ActivityService reschedules individual activities when their target date
+ * or status changes, and expired reminders are sent in batches.
+ *
+ * Which target date each reminder was sent for is stored on the activity
+ * (due_soon_sent_for, overdue_sent_for) and claimed with a conditional
+ * UPDATE in the same transaction that creates the notifications. A restart
+ * or a second node therefore cannot send a reminder twice, and deadlines
+ * that passed while the application was down are picked up from the
+ * look-back window.
+ */
+@Service
+public class DeadlineReminderService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadlineReminderService.class);
+
+    private static final String CLAIM_DUE_SOON_SQL =
+        "UPDATE activities SET due_soon_sent_for = target_date " +
+        "WHERE id = ? AND target_date = ? AND status <> ? " +
+        "AND (due_soon_sent_for IS NULL OR due_soon_sent_for <> target_date)";
+
+    private static final String CLAIM_OVERDUE_SQL =
+        "UPDATE activities SET overdue_sent_for = target_date " +
+        "WHERE id = ? AND target_date = ? AND status <> ? " +
+        "AND (overdue_sent_for IS NULL OR overdue_sent_for <> target_date)";
+
+    enum Kind { DUE_SOON, OVERDUE }
+
+    static final class Reminder {
+        final Long activityId;
+        final Kind kind;
+
+        Reminder(Long activityId, Kind kind) {
+            this.activityId = activityId;
+            this.kind = kind;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Reminder)) return false;
+            Reminder other = (Reminder) o;
+            return activityId.equals(other.activityId) && kind == other.kind;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(activityId, kind);
+        }
+    }
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.reminders.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.reminders.due-soon-hours:24}")
+    private long dueSoonHours;
+
+    @Value("${app.reminders.horizon-hours:2}")
+    private long horizonHours;
+
+    @Value("${app.reminders.overdue-lookback-hours:72}")
+    private long overdueLookbackHours;
+
+    @Value("${app.reminders.tick-ms:30000}")
+    private long tickMillis;
+
+    @Value("${app.reminders.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.reminders.retry-ms:60000}")
+    private long retryMillis;
+
+    private HashedTimingWheel<Reminder> wheel;
+
+    private volatile LocalDateTime loadedUntil;
+
+    @PostConstruct
+    public void init() {
+        wheel = new HashedTimingWheel<>(tickMillis, 512, System.currentTimeMillis());
+    }
+
+    /**
+     * Load the next horizon of deadlines. Runs well before the previous
+     * horizon runs out so there is always overlap. Deadlines up to
+     * app.reminders.overdue-lookback-hours in the past are included, so
+     * overdue reminders missed during downtime are still sent.
+     */
+    @Scheduled(fixedDelayString = "${app.reminders.reload-ms:3600000}")
+    public void loadHorizon() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plusHours(horizonHours);
+
+        // Due-soon timers inside the horizon belong to deadlines up to dueSoonHours later
+        List<Object[]> rows = activityRepository.findDeadlinesBetween(
+                now.minusHours(overdueLookbackHours), until.plusHours(dueSoonHours),
+                Activity.ActivityStatus.COMPLETED);
+        for (Object[] row : rows) {
+            // The query leaves out rows whose overdue reminder was already sent
+            scheduleReminders((Long) row[0], (LocalDateTime) row[1], (LocalDateTime) row[2], null, now, until);
+        }
+        loadedUntil = until;
+
+        log.info("Deadline reminders loaded: {} deadlines, {} timers pending", rows.size(), wheel.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.reminders.tick-ms:30000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+
+        List<Reminder> expired = wheel.advanceTo(System.currentTimeMillis());
+        for (int i = 0; i < expired.size(); i += batchSize) {
+            fire(expired.subList(i, Math.min(i + batchSize, expired.size())));
+        }
+    }
+
+    /**
+     * Re-plan the reminders of one activity after it was created or its
+     * target date or status changed. Reminders already sent for the current
+     * target date are not scheduled again.
+     */
+    public void reschedule(Activity activity) {
+        if (!enabled || activity == null || activity.getId() == null) {
+            return;
+        }
+        if (activity.getStatus() == Activity.ActivityStatus.COMPLETED) {
+            cancel(activity.getId());
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        scheduleReminders(activity.getId(), activity.getTargetDate(), activity.getDueSoonSentFor(),
+                activity.getOverdueSentFor(), now, horizonEnd(now));
+    }
+
+    public void cancel(Long activityId) {
+        wheel.cancel(new Reminder(activityId, Kind.DUE_SOON));
+        wheel.cancel(new Reminder(activityId, Kind.OVERDUE));
+    }
+
+    private void scheduleReminders(Long activityId, LocalDateTime targetDate, LocalDateTime dueSoonSentFor,
+                                   LocalDateTime overdueSentFor, LocalDateTime now, LocalDateTime horizonEnd) {
+        cancel(activityId);
+        if (targetDate == null) {
+            return;
+        }
+
+        // Anything past the horizon is picked up by a later loadHorizon
+        LocalDateTime dueSoonAt = targetDate.minusHours(dueSoonHours);
+        if (targetDate.isAfter(now) && dueSoonAt.isBefore(horizonEnd) && !targetDate.equals(dueSoonSentFor)) {
+            wheel.schedule(new Reminder(activityId, Kind.DUE_SOON), toMillis(dueSoonAt.isAfter(now) ? dueSoonAt : now));
+        }
+
+        if (targetDate.isBefore(horizonEnd) && !targetDate.equals(overdueSentFor)) {
+            wheel.schedule(new Reminder(activityId, Kind.OVERDUE), toMillis(targetDate.isAfter(now) ? targetDate : now));
+        }
+    }
+
+    private void fire(List<Reminder> batch) {
+        Set<Long> activityIds = new LinkedHashSet<>();
+        for (Reminder reminder : batch) {
+            activityIds.add(reminder.activityId);
+        }
+
+        Map<Long, Activity> activities = new HashMap<>();
+        for (Activity activity : activityRepository.findAllWithAssigneesByIdIn(activityIds)) {
+            activities.put(activity.getId(), activity);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime tolerance = now.plusNanos(tickMillis * 1_000_000L);
+        List<Activity> dueSoon = new ArrayList<>();
+        List<Activity> overdue = new ArrayList<>();
+
+        for (Reminder reminder : batch) {
+            // Re-check against the database; the wheel may be stale after bulk changes
+            Activity activity = activities.get(reminder.activityId);
+            if (activity == null || activity.getTargetDate() == null
+                    || activity.getStatus() == Activity.ActivityStatus.COMPLETED) {
+                continue;
+            }
+
+            LocalDateTime targetDate = activity.getTargetDate();
+            LocalDateTime fireAt = reminder.kind == Kind.OVERDUE ? targetDate : targetDate.minusHours(dueSoonHours);
+            if (fireAt.isAfter(tolerance)) {
+                scheduleReminders(activity.getId(), targetDate, activity.getDueSoonSentFor(),
+                        activity.getOverdueSentFor(), now, horizonEnd(now));
+                continue;
+            }
+            if (reminder.kind == Kind.DUE_SOON && !targetDate.isAfter(now)) {
+                continue;
+            }
+
+            if (reminder.kind == Kind.OVERDUE) {
+                overdue.add(activity);
+            } else {
+                dueSoon.add(activity);
+            }
+        }
+
+        // A failed batch rolls back its claims, is put back on the wheel and
+        // is retried after app.reminders.retry-ms
+        send(dueSoon, Kind.DUE_SOON);
+        send(overdue, Kind.OVERDUE);
+    }
+
+    private void send(List<Activity> activities, Kind kind) {
+        if (activities.isEmpty()) {
+            return;
+        }
+        try {
+            new TransactionTemplate(transactionManager).execute(status -> {
+                List<Activity> claimed = claim(activities, kind);
+                if (!claimed.isEmpty()) {
+                    notificationService.notifyActivityDeadlines(claimed, kind == Kind.OVERDUE);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Failed to send deadline reminders, retrying in {} ms: {}", retryMillis, e.getMessage());
+            long retryAt = System.currentTimeMillis() + retryMillis;
+            for (Activity activity : activities) {
+                wheel.schedule(new Reminder(activity.getId(), kind), retryAt);
+            }
+        }
+    }
+
+    /**
+     * Mark the reminder as sent for each activity's current target date.
+     * Returns the activities this call claimed; the rest were already sent
+     * (by an earlier run or another node) or changed in the meantime.
+     */
+    private List<Activity> claim(List<Activity> activities, Kind kind) {
+        List<Object[]> args = new ArrayList<>(activities.size());
+        for (Activity activity : activities) {
+            args.add(new Object[] {
+                activity.getId(), Timestamp.valueOf(activity.getTargetDate()), Activity.ActivityStatus.COMPLETED.name()
+            });
+        }
+        int[] updated = jdbcTemplate.batchUpdate(kind == Kind.OVERDUE ? CLAIM_OVERDUE_SQL : CLAIM_DUE_SOON_SQL, args);
+
+        List<Activity> claimed = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                claimed.add(activities.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    private LocalDateTime horizonEnd(LocalDateTime now) {
+        LocalDateTime until = loadedUntil;
+        return until != null && until.isAfter(now) ? until : now.plusHours(horizonHours);
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
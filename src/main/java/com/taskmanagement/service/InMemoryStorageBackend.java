@@ -0,0 +1,164 @@
+package com.taskmanagement.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps attachment files on the heap. Meant for tests and local runs without
+ * a writable upload directory; contents are lost on restart.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "memory")
+public class InMemoryStorageBackend implements StorageBackend {
+
+    private static class StoredObject {
+        final byte[] data;
+        final long lastModified;
+
+        StoredObject(byte[] data) {
+            this.data = data;
+            this.lastModified = System.currentTimeMillis();
+        }
+    }
+
+    private final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean exists(String key) {
+        return objects.containsKey(key);
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return get(key).data.length;
+    }
+
+    @Override
+    public long lastModified(String key) throws IOException {
+        return get(key).lastModified;
+    }
+
+    @Override
+    public SeekableByteChannel open(String key) throws IOException {
+        return new ByteArrayChannel(get(key).data);
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return null;
+    }
+
+    @Override
+    public void put(Path source, String key) throws IOException {
+        if (!StorageBackend.isValidKey(key)) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        objects.put(key, new StoredObject(Files.readAllBytes(source)));
+        Files.delete(source);
+    }
+
+    @Override
+    public void take(String key, Path target) throws IOException {
+        Files.write(target, get(key).data);
+        objects.remove(key);
+    }
+
+    @Override
+    public boolean delete(String key) {
+        return objects.remove(key) != null;
+    }
+
+    public void clear() {
+        objects.clear();
+    }
+
+    private StoredObject get(String key) throws IOException {
+        StoredObject object = objects.get(key);
+        if (object == null) {
+            throw new NoSuchFileException(key);
+        }
+        return object;
+    }
+
+    // Read-only channel over a byte array
+    private static class ByteArrayChannel implements SeekableByteChannel {
+        private final byte[] data;
+        private long position;
+        private boolean open = true;
+
+        ByteArrayChannel(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            ensureOpen();
+            if (position >= data.length) {
+                return -1;
+            }
+            int count = (int) Math.min(dst.remaining(), data.length - position);
+            dst.put(data, (int) position, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public long position() throws IOException {
+            ensureOpen();
+            return position;
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition) throws IOException {
+            ensureOpen();
+            if (newPosition < 0) {
+                throw new IllegalArgumentException("Negative position");
+            }
+            position = newPosition;
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            ensureOpen();
+            return data.length;
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size) {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+
+        private void ensureOpen() throws IOException {
+            if (!open) {
+                throw new ClosedChannelException();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.taskmanagement.service;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Handle passed to a running JobHandler: its input, progress reporting and
+ * cooperative cancellation. Progress writes are throttled so handlers can
+ * report from tight loops.
+ */
+public class JobContext {
+
+    private static final long PROGRESS_INTERVAL_MS = 1000;
+
+    private final Long jobId;
+    private final Long createdBy;
+    private final Map<String, Object> payload;
+    private final JobService jobService;
+
+    private long lastReportedAt;
+    private volatile boolean cancelled;
+
+    JobContext(Long jobId, Long createdBy, Map<String, Object> payload, JobService jobService) {
+        this.jobId = jobId;
+        this.createdBy = createdBy;
+        this.payload = payload;
+        this.jobService = jobService;
+    }
+
+    public Long getJobId() {
+        return jobId;
+    }
+
+    public Long getCreatedBy() {
+        return createdBy;
+    }
+
+    public Map<String, Object> getPayload() {
+        return payload;
+    }
+
+    public String getString(String key) {
+        Object value = payload.get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * File owned by this job, e.g. an export result.
+     */
+    public Path file(String name) {
+        return jobService.jobFile(jobId, name);
+    }
+
+    public Long getLong(String key) {
+        Object value = payload.get(key);
+        return value instanceof Number ? ((Number) value).longValue() : value != null ? Long.valueOf(value.toString()) : null;
+    }
+
+    /**
+     * Record progress. A null percent keeps the previous value. Also picks up
+     * a pending cancellation request.
+     */
+    public void progress(Integer percent, String message) {
+        long now = System.currentTimeMillis();
+        if (now - lastReportedAt < PROGRESS_INTERVAL_MS) {
+            return;
+        }
+        lastReportedAt = now;
+        if (jobService.updateProgress(jobId, percent, message)) {
+            cancelled = true;
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled || Thread.currentThread().isInterrupted();
+    }
+
+    public void checkCancelled() {
+        if (!cancelled && System.currentTimeMillis() - lastReportedAt >= PROGRESS_INTERVAL_MS) {
+            lastReportedAt = System.currentTimeMillis();
+            cancelled = jobService.isCancelRequested(jobId);
+        }
+        if (isCancelled()) {
+            throw new CancellationException("Job " + jobId + " was cancelled");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.taskmanagement.service;
+
+/**
+ * Executes one type of background job. Implementations are Spring beans and
+ * are picked up by JobService by their type name.
+ */
+public interface JobHandler {
+
+    String getType();
+
+    /**
+     * Run the job and return a result that is stored as JSON (or null).
+     * Long loops should call context.checkCancelled() and report progress.
+     */
+    Object run(JobContext context) throws Exception;
+
+    /**
+     * Whether a job abandoned by a dead worker may be run again from the start.
+     */
+    default boolean isRetryable() {
+        return true;
+    }
+}
@@ -0,0 +1,420 @@
+package com.taskmanagement.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanagement.model.Job;
+import com.taskmanagement.model.User;
+import com.taskmanagement.repository.JobRepository;
+import com.taskmanagement.repository.UserRepository;
+import com.taskmanagement.util.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Durable background jobs. Submitting a job only inserts a QUEUED row; every
+ * node polls the jobs table, claims as many rows as it has free workers with
+ * FOR UPDATE SKIP LOCKED and runs them on a bounded pool. Running jobs send a
+ * heartbeat, and jobs whose worker stopped responding are re-queued (or failed
+ * when their handler is not retryable).
+ *
+ * Job input and output files live under app.jobs.dir, which has to be shared
+ * storage when several nodes run workers.
+ */
+@Service
+public class JobService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobService.class);
+
+    private static final String CLAIM_SQL =
+        "SELECT id FROM jobs WHERE status = 'QUEUED' ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String MARK_RUNNING_SQL =
+        "UPDATE jobs SET status = 'RUNNING', node_id = ?, started_at = ?, heartbeat_at = ?, attempts = attempts + 1 WHERE id = ?";
+
+    private static final String FINISH_SQL =
+        "UPDATE jobs SET status = ?, progress = ?, result = ?, error = ?, finished_at = ? WHERE id = ? AND node_id = ?";
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private List<JobHandler> jobHandlers;
+
+    @Value("${app.jobs.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.jobs.workers:4}")
+    private int workers;
+
+    @Value("${app.jobs.stale-seconds:120}")
+    private long staleSeconds;
+
+    @Value("${app.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.jobs.retention-hours:72}")
+    private long retentionHours;
+
+    @Value("${app.jobs.dir:jobs}")
+    private String jobsDir;
+
+    @Value("${app.jobs.node-id:}")
+    private String nodeId;
+
+    @Value("${app.threads.virtual:false}")
+    private boolean virtualThreads;
+
+    private final Map<String, JobHandler> handlers = new HashMap<>();
+
+    // Jobs currently executing on this node
+    private final Map<Long, JobContext> running = new ConcurrentHashMap<>();
+
+    // Not a monitor: poll() runs JDBC on request threads, which must not pin a virtual thread's carrier
+    private final ReentrantLock pollLock = new ReentrantLock();
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() throws IOException {
+        for (JobHandler handler : jobHandlers) {
+            handlers.put(handler.getType(), handler);
+        }
+        if (nodeId == null || nodeId.isEmpty()) {
+            nodeId = InetAddress.getLocalHost().getHostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+        Files.createDirectories(Paths.get(jobsDir));
+
+        // Same concurrency limit either way; virtual threads just stop a blocked task holding an OS thread
+        ThreadFactory threadFactory;
+        if (virtualThreads) {
+            threadFactory = VirtualThreads.factory("job-worker-");
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "job-worker-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+        executor = Executors.newFixedThreadPool(workers, threadFactory);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Interrupted jobs stop heartbeating and are picked up again elsewhere
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queue a job and return it immediately.
+     */
+    public Job submit(String type, Map<String, Object> payload, Long createdBy) {
+        if (!handlers.containsKey(type)) {
+            throw new RuntimeException("Invalid job type: " + type);
+        }
+        String payloadJson;
+        try {
+            payloadJson = objectMapper.writeValueAsString(payload != null ? payload : Collections.emptyMap());
+        } catch (IOException e) {
+            throw new RuntimeException("Invalid job payload: " + e.getMessage());
+        }
+
+        Job job = jobRepository.save(new Job(type, payloadJson, createdBy));
+        log.info("Queued job {} ({})", job.getId(), type);
+        if (enabled) {
+            poll();
+        }
+        return job;
+    }
+
+    public Job getJob(Long jobId, Long userId) {
+        Job job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Job not found with ID: " + jobId));
+        checkAccess(job, userId);
+        return job;
+    }
+
+    /**
+     * Cancel a job. Queued jobs are cancelled right away; running jobs stop at
+     * their next cancellation check.
+     */
+    public Job cancel(Long jobId, Long userId) {
+        Job job = getJob(jobId, userId);
+        int cancelled = jdbcTemplate.update(
+            "UPDATE jobs SET status = 'CANCELLED', finished_at = ? WHERE id = ? AND status = 'QUEUED'",
+            Timestamp.valueOf(LocalDateTime.now()), jobId);
+        if (cancelled == 0) {
+            jdbcTemplate.update("UPDATE jobs SET cancel_requested = TRUE WHERE id = ? AND status = 'RUNNING'", jobId);
+        }
+        return jobRepository.findById(job.getId()).orElse(job);
+    }
+
+    /**
+     * File belonging to a job, e.g. a spooled upload or an export result.
+     */
+    public Path jobFile(Long jobId, String name) {
+        return Paths.get(jobsDir).resolve("job-" + jobId + "-" + name);
+    }
+
+    /**
+     * Output file of a finished job whose result names one (exports).
+     */
+    public Path getResultFile(Long jobId, Long userId) {
+        Job job = getJob(jobId, userId);
+        if (job.getStatus() != Job.JobStatus.SUCCEEDED) {
+            throw new RuntimeException("Invalid request: job " + jobId + " is " + job.getStatus().name().toLowerCase());
+        }
+        try {
+            Map<String, Object> result = job.getResult() != null
+                ? objectMapper.readValue(job.getResult(), new TypeReference<Map<String, Object>>() {})
+                : Collections.<String, Object>emptyMap();
+            Object fileName = result.get("fileName");
+            if (fileName == null) {
+                throw new RuntimeException("Invalid request: job " + jobId + " has no file to download");
+            }
+            Path file = jobFile(jobId, fileName.toString());
+            if (!Files.exists(file)) {
+                throw new RuntimeException("Result file not found for job " + jobId);
+            }
+            return file;
+        } catch (IOException e) {
+            throw new RuntimeException("Invalid job result for job " + jobId + ": " + e.getMessage());
+        }
+    }
+
+    public Path newUploadFile() throws IOException {
+        return Files.createTempFile(Paths.get(jobsDir), "upload-", ".tmp");
+    }
+
+    /**
+     * Claim queued jobs for this node's free workers. Skipped when another
+     * poll is already running; whatever it did not see is claimed by the
+     * next scheduled poll.
+     */
+    @Scheduled(fixedDelayString = "${app.jobs.poll-ms:2000}")
+    public void poll() {
+        if (!enabled || !pollLock.tryLock()) {
+            return;
+        }
+        try {
+            claimJobs();
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    private void claimJobs() {
+        int free = workers - running.size();
+        if (free <= 0) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> claimed = new TransactionTemplate(transactionManager).execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(CLAIM_SQL, Long.class, free);
+            for (Long id : ids) {
+                jdbcTemplate.update(MARK_RUNNING_SQL, nodeId, Timestamp.valueOf(now), Timestamp.valueOf(now), id);
+            }
+            return ids;
+        });
+
+        for (Long jobId : claimed) {
+            Job job = jobRepository.findById(jobId).orElse(null);
+            if (job == null) {
+                continue;
+            }
+            JobContext context = new JobContext(jobId, job.getCreatedBy(), readPayload(job), this);
+            running.put(jobId, context);
+            executor.execute(() -> execute(job, context));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.heartbeat-ms:30000}")
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!running.isEmpty()) {
+            List<Object[]> args = new ArrayList<>();
+            for (Long jobId : running.keySet()) {
+                args.add(new Object[] { Timestamp.valueOf(now), jobId, nodeId });
+            }
+            jdbcTemplate.batchUpdate("UPDATE jobs SET heartbeat_at = ? WHERE id = ? AND node_id = ?", args);
+        }
+
+        recoverStaleJobs(now.minusSeconds(staleSeconds));
+    }
+
+    /**
+     * Remove finished jobs and their files once they are past retention.
+     */
+    @Scheduled(fixedDelayString = "${app.jobs.purge-ms:3600000}")
+    public void purgeFinishedJobs() {
+        List<Job> expired = jobRepository.findByStatusInAndFinishedAtBefore(
+            Arrays.asList(Job.JobStatus.SUCCEEDED, Job.JobStatus.FAILED, Job.JobStatus.CANCELLED),
+            LocalDateTime.now().minusHours(retentionHours));
+        for (Job job : expired) {
+            deleteJobFiles(job);
+        }
+        jobRepository.deleteAll(expired);
+    }
+
+    boolean updateProgress(Long jobId, Integer percent, String message) {
+        jdbcTemplate.update(
+            "UPDATE jobs SET progress = COALESCE(?, progress), progress_message = ?, heartbeat_at = ? WHERE id = ?",
+            percent, message, Timestamp.valueOf(LocalDateTime.now()), jobId);
+        return isCancelRequested(jobId);
+    }
+
+    boolean isCancelRequested(Long jobId) {
+        Boolean requested = jdbcTemplate.queryForObject(
+            "SELECT cancel_requested FROM jobs WHERE id = ?", Boolean.class, jobId);
+        return Boolean.TRUE.equals(requested);
+    }
+
+    private void execute(Job job, JobContext context) {
+        long started = System.currentTimeMillis();
+        try {
+            JobHandler handler = handlers.get(job.getType());
+            if (handler == null) {
+                throw new IllegalStateException("No handler for job type " + job.getType());
+            }
+            Object result = handler.run(context);
+            finish(job.getId(), Job.JobStatus.SUCCEEDED, 100, objectMapper.writeValueAsString(result), null);
+        } catch (CancellationException e) {
+            finish(job.getId(), Job.JobStatus.CANCELLED, null, null, e.getMessage());
+        } catch (Exception e) {
+            log.warn("Job {} ({}) failed: {}", job.getId(), job.getType(), e.getMessage());
+            finish(job.getId(), Job.JobStatus.FAILED, null, null, e.getMessage() != null ? e.getMessage() : e.toString());
+        } finally {
+            running.remove(job.getId());
+            log.info("Job {} ({}) finished in {} ms", job.getId(), job.getType(), System.currentTimeMillis() - started);
+        }
+    }
+
+    private void finish(Long jobId, Job.JobStatus status, Integer progress, String result, String error) {
+        // Guarded by node_id so a job that was re-queued after a stall is not overwritten
+        Integer currentProgress = progress != null ? progress
+            : jdbcTemplate.queryForObject("SELECT progress FROM jobs WHERE id = ?", Integer.class, jobId);
+        jdbcTemplate.update(FINISH_SQL, status.name(), currentProgress, result, error,
+            Timestamp.valueOf(LocalDateTime.now()), jobId, nodeId);
+    }
+
+    private void recoverStaleJobs(LocalDateTime cutoff) {
+        List<Map<String, Object>> stale = jdbcTemplate.queryForList(
+            "SELECT id, type, attempts FROM jobs WHERE status = 'RUNNING' AND heartbeat_at < ?",
+            Timestamp.valueOf(cutoff));
+        for (Map<String, Object> row : stale) {
+            Long jobId = ((Number) row.get("id")).longValue();
+            if (running.containsKey(jobId)) {
+                continue;
+            }
+            JobHandler handler = handlers.get((String) row.get("type"));
+            int attempts = ((Number) row.get("attempts")).intValue();
+            if (handler != null && handler.isRetryable() && attempts < maxAttempts) {
+                jdbcTemplate.update(
+                    "UPDATE jobs SET status = 'QUEUED', node_id = NULL WHERE id = ? AND status = 'RUNNING' AND heartbeat_at < ?",
+                    jobId, Timestamp.valueOf(cutoff));
+                log.info("Re-queued stalled job {}", jobId);
+            } else {
+                jdbcTemplate.update(
+                    "UPDATE jobs SET status = 'FAILED', error = ?, finished_at = ? WHERE id = ? AND status = 'RUNNING' AND heartbeat_at < ?",
+                    "Worker stopped responding", Timestamp.valueOf(LocalDateTime.now()), jobId, Timestamp.valueOf(cutoff));
+                log.warn("Failed stalled job {}", jobId);
+            }
+        }
+    }
+
+    private Map<String, Object> readPayload(Job job) {
+        try {
+            if (job.getPayload() == null) {
+                return new HashMap<>();
+            }
+            return objectMapper.readValue(job.getPayload(), new TypeReference<Map<String, Object>>() {});
+        } catch (IOException e) {
+            throw new RuntimeException("Invalid job payload for job " + job.getId() + ": " + e.getMessage());
+        }
+    }
+
+    private void deleteJobFiles(Job job) {
+        // Spooled input named in the payload, e.g. an import upload
+        Object file = readPayload(job).get("file");
+        if (file != null) {
+            try {
+                Files.deleteIfExists(Paths.get(file.toString()));
+            } catch (IOException e) {
+                log.warn("Failed to delete job file {}: {}", file, e.getMessage());
+            }
+        }
+
+        String prefix = "job-" + job.getId() + "-";
+        try (java.util.stream.Stream<Path> files = Files.list(Paths.get(jobsDir))) {
+            files.filter(path -> path.getFileName().toString().startsWith(prefix)).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("Failed to delete job file {}: {}", path, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Failed to list job files: {}", e.getMessage());
+        }
+    }
+
+    private void checkAccess(Job job, Long userId) {
+        if (userId != null && userId.equals(job.getCreatedBy())) {
+            return;
+        }
+        User user = userId != null ? userRepository.findById(userId).orElse(null) : null;
+        if (user == null || !"admin".equalsIgnoreCase(user.getRole())) {
+            throw new RuntimeException("You do not have permission to view this job");
+        }
+    }
+}
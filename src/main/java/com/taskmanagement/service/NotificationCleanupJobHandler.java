@@ -0,0 +1,31 @@
+package com.taskmanagement.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class NotificationCleanupJobHandler implements JobHandler {
+
+    public static final String TYPE = "NOTIFICATION_CLEANUP";
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Object run(JobContext context) {
+        int daysOld = context.getLong("daysOld").intValue();
+        int deletedCount = notificationService.deleteOldNotifications(daysOld);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("deletedCount", deletedCount);
+        return result;
+    }
+}
@@ -1,32 +1,64 @@
 package com.taskmanagement.service;
 
+import com.taskmanagement.config.ReplicaRead;
 import com.taskmanagement.model.Notification;
 import com.taskmanagement.model.User;
 import com.taskmanagement.model.Activity;
 import com.taskmanagement.model.Team;
+import com.taskmanagement.repository.ActivityRepository;
 import com.taskmanagement.repository.NotificationRepository;
 import com.taskmanagement.repository.UserRepository;
+import com.taskmanagement.util.LogSampler;
 import com.taskmanagement.websocket.NotificationWebSocketHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
+import javax.annotation.PostConstruct;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class NotificationService {
 
+    private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
+
     @Autowired
     private NotificationRepository notificationRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ActivityRepository activityRepository;
+
     @Autowired
     private NotificationWebSocketHandler webSocketHandler;
 
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+
+    @Value("${app.logging.sample-rate:1000}")
+    private long logSampleRate;
+
+    private LogSampler createdSampler;
+
+    @PostConstruct
+    public void initLogSampler() {
+        createdSampler = new LogSampler(logSampleRate);
+    }
+
     /**
      * Create a new notification
      */
@@ -52,16 +84,24 @@ public class NotificationService {
         
         Notification savedNotification = notificationRepository.save(notification);
         
-        // Debug logging
-        System.out.println("Created notification: " + title + " for user: " + userId);
+        if (log.isDebugEnabled()) {
+            log.debug("Created notification: {} for user: {}", title, userId);
+        } else if (createdSampler.sample()) {
+            log.info("Created notification: {} for user: {} (1 in {} logged, {} so far)",
+                title, userId, createdSampler.getRate(), createdSampler.getEvents());
+        }
         
-        // Send real-time notification via WebSocket
+        // Send real-time notification via WebSocket and any open event streams
         try {
             webSocketHandler.sendNotificationToUser(userId, savedNotification);
-            System.out.println("WebSocket notification sent successfully to user: " + userId);
+            log.debug("WebSocket notification sent successfully to user: {}", userId);
         } catch (Exception e) {
-            System.err.println("Failed to send real-time notification to user " + userId + ": " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to send real-time notification to user {}", userId, e);
+        }
+        try {
+            notificationStreamService.sendNotificationToUser(userId, savedNotification);
+        } catch (Exception e) {
+            log.error("Failed to queue notification stream event for user {}", userId, e);
         }
         
         return savedNotification;
@@ -78,15 +118,18 @@ public class NotificationService {
     /**
      * Get all notifications for a user
      */
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public List<Notification> getNotificationsByUserId(Long userId) {
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
+        return withActivityDetails(notificationRepository.findByUserIdOrderByCreatedAtDesc(userId));
     }
 
     /**
      * Get unread notifications for a user
      */
+    @Transactional(readOnly = true)
     public List<Notification> getUnreadNotificationsByUserId(Long userId) {
-        return notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId);
+        return withActivityDetails(notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId));
     }
 
     /**
@@ -94,7 +137,7 @@ public class NotificationService {
      */
     @Transactional
     public Notification markAsRead(Long notificationId, Long userId) {
-        Optional<Notification> notificationOpt = notificationRepository.findById(notificationId);
+        Optional<Notification> notificationOpt = notificationRepository.findWithRelatedById(notificationId);
         
         if (!notificationOpt.isPresent()) {
             throw new RuntimeException("Notification not found with ID: " + notificationId);
@@ -110,7 +153,9 @@ public class NotificationService {
         notification.setIsRead(true);
         notification.setUpdatedAt(LocalDateTime.now());
         
-        return notificationRepository.save(notification);
+        Notification savedNotification = notificationRepository.save(notification);
+        withActivityDetails(Collections.singletonList(savedNotification));
+        return savedNotification;
     }
 
     /**
@@ -118,7 +163,7 @@ public class NotificationService {
      */
     @Transactional
     public void markAllAsReadForUser(Long userId) {
-        List<Notification> unreadNotifications = getUnreadNotificationsByUserId(userId);
+        List<Notification> unreadNotifications = notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId);
         
         for (Notification notification : unreadNotifications) {
             notification.setIsRead(true);
@@ -153,6 +198,8 @@ public class NotificationService {
     /**
      * Get notification count for a user
      */
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public long getNotificationCount(Long userId) {
         return notificationRepository.countByUserId(userId);
     }
@@ -160,6 +207,7 @@ public class NotificationService {
     /**
      * Get unread notification count for a user
      */
+    @Transactional(readOnly = true)
     public long getUnreadNotificationCount(Long userId) {
         return notificationRepository.countByUserIdAndIsReadFalse(userId);
     }
@@ -176,22 +224,28 @@ public class NotificationService {
     /**
      * Get notifications by type for a user
      */
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public List<Notification> getNotificationsByType(Long userId, String type) {
-        return notificationRepository.findByUserIdAndTypeOrderByCreatedAtDesc(userId, type);
+        return withActivityDetails(notificationRepository.findByUserIdAndTypeOrderByCreatedAtDesc(userId, type));
     }
 
     /**
      * Get notifications related to a specific team
      */
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public List<Notification> getNotificationsByTeam(Long userId, Long teamId) {
-        return notificationRepository.findByUserIdAndRelatedTeamIdOrderByCreatedAtDesc(userId, teamId);
+        return withActivityDetails(notificationRepository.findByUserIdAndRelatedTeamIdOrderByCreatedAtDesc(userId, teamId));
     }
 
     /**
      * Get notifications related to a specific activity
      */
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public List<Notification> getNotificationsByActivity(Long userId, Long activityId) {
-        return notificationRepository.findByUserIdAndRelatedActivityIdOrderByCreatedAtDesc(userId, activityId);
+        return withActivityDetails(notificationRepository.findByUserIdAndRelatedActivityIdOrderByCreatedAtDesc(userId, activityId));
     }
 
     /**
@@ -223,7 +277,7 @@ public class NotificationService {
                 createNotification(userId, title, message, type, relatedTeamId, relatedActivityId);
             } catch (Exception e) {
                 // Log error but continue with other users
-                System.err.println("Failed to create notification for user " + userId + ": " + e.getMessage());
+                log.warn("Failed to create notification for user {}: {}", userId, e.getMessage());
             }
         }
     }
@@ -231,11 +285,33 @@ public class NotificationService {
     /**
      * Get paginated notifications
      */
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public List<Notification> getNotificationsPaginated(Long userId, int page, int size) {
         // This would require implementing Pageable - for now returning all
         return getNotificationsByUserId(userId);
     }
 
+    /**
+     * The related activity is serialized with its attachments, links and
+     * remarks. Load those for every notification in one query per collection
+     * while the transaction is open, instead of once per activity.
+     */
+    private List<Notification> withActivityDetails(List<Notification> notifications) {
+        Set<Long> activityIds = new LinkedHashSet<>();
+        for (Notification notification : notifications) {
+            if (notification.getRelatedActivityId() != null) {
+                activityIds.add(notification.getRelatedActivityId());
+            }
+        }
+        if (!activityIds.isEmpty()) {
+            activityRepository.findWithAttachmentsByIdIn(activityIds);
+            activityRepository.findWithLinksByIdIn(activityIds);
+            activityRepository.findWithRemarksByIdIn(activityIds);
+        }
+        return notifications;
+    }
+
     // Activity-related notification helper methods
 
     /**
@@ -243,14 +319,14 @@ public class NotificationService {
      */
     @Transactional
     public void notifyActivityCreated(Activity activity, User creator) {
-        System.out.println("notifyActivityCreated called for activity: " + activity.getName() + " by creator: " + creator.getName());
-        
+        log.debug("notifyActivityCreated called for activity: {} by creator: {}", activity.getName(), creator.getName());
+    
         // Notify all assigned members (except creator)
         if (activity.getAssignedMembers() != null) {
-            System.out.println("Activity has " + activity.getAssignedMembers().size() + " assigned members");
+            log.debug("Activity has {} assigned members", activity.getAssignedMembers().size());
             for (User member : activity.getAssignedMembers()) {
                 if (!member.getId().equals(creator.getId())) { // Don't notify creator here
-                    System.out.println("Creating notification for assigned member: " + member.getName() + " (ID: " + member.getId() + ")");
+                    log.debug("Creating notification for assigned member: {} (ID: {})", member.getName(), member.getId());
                     createNotification(
                         member.getId(),
                         "New Activity Assigned",
@@ -260,17 +336,17 @@ public class NotificationService {
                         activity.getId()
                     );
                 } else {
-                    System.out.println("Skipping assigned member notification for creator: " + member.getName());
+                    log.debug("Skipping assigned member notification for creator: {}", member.getName());
                 }
             }
         } else {
-            System.out.println("Activity has no assigned members");
+            log.debug("Activity has no assigned members");
         }
-        
+    
         // Separately handle creator notifications based on creatorSubscribed flag
         Boolean creatorSubscribed = activity.getCreatorSubscribed();
         if (creatorSubscribed != null && creatorSubscribed) {
-            System.out.println("Creating notification for creator (subscribed): " + creator.getName() + " (ID: " + creator.getId() + ")");
+            log.debug("Creating notification for creator (subscribed): {} (ID: {})", creator.getName(), creator.getId());
             createNotification(
                 creator.getId(),
                 "Activity Created",
@@ -280,7 +356,7 @@ public class NotificationService {
                 activity.getId()
             );
         } else {
-            System.out.println("Skipping notification for creator (not subscribed): " + creator.getName());
+            log.debug("Skipping notification for creator (not subscribed): {}", creator.getName());
         }
     }
 
@@ -329,13 +405,13 @@ public class NotificationService {
         // Notify creator if they subscribed to notifications and are not the updater and not already assigned
         if (activity.getCreatorSubscribed() != null && activity.getCreatorSubscribed() 
             && !activity.getCreatedBy().equals(updater.getId())) {
-            
+        
             boolean creatorAlreadyNotified = false;
             if (activity.getAssignedMembers() != null) {
                 creatorAlreadyNotified = activity.getAssignedMembers().stream()
                     .anyMatch(member -> member.getId().equals(activity.getCreatedBy()));
             }
-            
+        
             if (!creatorAlreadyNotified) {
                 createNotification(
                     activity.getCreatedBy(),
@@ -349,6 +425,100 @@ public class NotificationService {
         }
     }
 
+    /**
+     * Notify about a batch status change, sending each recipient a single
+     * notification that covers all of their activities. Recipients follow the
+     * same rules as notifyActivityStatusChanged.
+     */
+    @Transactional
+    public void notifyActivityStatusesChanged(List<Activity> activities, User updater) {
+        Map<Long, List<Activity>> byRecipient = new LinkedHashMap<>();
+    
+        for (Activity activity : activities) {
+            Set<Long> recipients = new LinkedHashSet<>();
+            if (activity.getAssignedMembers() != null) {
+                for (User member : activity.getAssignedMembers()) {
+                    recipients.add(member.getId());
+                }
+            }
+            if (activity.getCreatorSubscribed() != null && activity.getCreatorSubscribed()) {
+                recipients.add(activity.getCreatedBy());
+            }
+            recipients.remove(updater.getId());
+        
+            for (Long userId : recipients) {
+                byRecipient.computeIfAbsent(userId, id -> new ArrayList<>()).add(activity);
+            }
+        }
+    
+        for (Map.Entry<Long, List<Activity>> entry : byRecipient.entrySet()) {
+            List<Activity> changed = entry.getValue();
+            String message;
+            if (changed.size() == 1) {
+                Activity activity = changed.get(0);
+                message = "Activity '" + activity.getName() + "' status changed to: " + activity.getStatus();
+            } else {
+                StringBuilder names = new StringBuilder();
+                for (int i = 0; i < changed.size() && i < 5; i++) {
+                    names.append(i > 0 ? ", " : "").append("'").append(changed.get(i).getName()).append("'");
+                }
+                if (changed.size() > 5) {
+                    names.append(" and ").append(changed.size() - 5).append(" more");
+                }
+                message = updater.getName() + " changed the status of " + changed.size() + " activities to "
+                        + changed.get(0).getStatus() + ": " + names;
+            }
+        
+            try {
+                createNotification(
+                    entry.getKey(),
+                    "Activity Status Changed",
+                    message,
+                    "ACTIVITY_STATUS_CHANGED",
+                    null,
+                    changed.size() == 1 ? changed.get(0).getId() : null
+                );
+            } catch (Exception e) {
+                log.warn("Failed to create status change notification for user {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Notify assigned members and the subscribed creator that a batch of
+     * activities is due soon or overdue (sent by DeadlineReminderService)
+     */
+    @Transactional
+    public void notifyActivityDeadlines(List<Activity> activities, boolean overdue) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    
+        for (Activity activity : activities) {
+            Set<Long> recipients = new LinkedHashSet<>();
+            if (activity.getAssignedMembers() != null) {
+                for (User member : activity.getAssignedMembers()) {
+                    recipients.add(member.getId());
+                }
+            }
+            if (activity.getCreatorSubscribed() != null && activity.getCreatorSubscribed()) {
+                recipients.add(activity.getCreatedBy());
+            }
+        
+            String title = overdue ? "Activity Overdue" : "Activity Due Soon";
+            String message = overdue
+                ? "Activity '" + activity.getName() + "' is past its target date (" + activity.getTargetDate().format(formatter) + ")"
+                : "Activity '" + activity.getName() + "' is due on " + activity.getTargetDate().format(formatter);
+            String type = overdue ? "ACTIVITY_OVERDUE" : "ACTIVITY_DUE_SOON";
+        
+            for (Long userId : recipients) {
+                try {
+                    createNotification(userId, title, message, type, null, activity.getId());
+                } catch (Exception e) {
+                    log.warn("Failed to create deadline notification for user {}: {}", userId, e.getMessage());
+                }
+            }
+        }
+    }
+
     /**
      * Notify when user is added to team
      */
@@ -384,13 +554,13 @@ public class NotificationService {
      */
     @Transactional
     public void notifyRemarkAdded(Activity activity, User remarkAuthor, String remarkText) {
-        System.out.println("notifyRemarkAdded called for activity: " + activity.getName() + " by user: " + remarkAuthor.getName());
-        
+        log.debug("notifyRemarkAdded called for activity: {} by user: {}", activity.getName(), remarkAuthor.getName());
+    
         if (activity.getAssignedMembers() != null) {
-            System.out.println("Activity has " + activity.getAssignedMembers().size() + " assigned members");
+            log.debug("Activity has {} assigned members", activity.getAssignedMembers().size());
             for (User member : activity.getAssignedMembers()) {
                 if (!member.getId().equals(remarkAuthor.getId())) { // Don't notify remark author
-                    System.out.println("Creating remark notification for member: " + member.getName() + " (ID: " + member.getId() + ")");
+                    log.debug("Creating remark notification for member: {} (ID: {})", member.getName(), member.getId());
                     createNotification(
                         member.getId(),
                         "New Remark Added",
@@ -401,25 +571,25 @@ public class NotificationService {
                         activity.getId()
                     );
                 } else {
-                    System.out.println("Skipping remark notification for author: " + member.getName());
+                    log.debug("Skipping remark notification for author: {}", member.getName());
                 }
             }
         } else {
-            System.out.println("Activity has no assigned members for remark notification");
+            log.debug("Activity has no assigned members for remark notification");
         }
 
         // Notify creator if they subscribed to notifications and are not the remark author and not already assigned
         if (activity.getCreatorSubscribed() != null && activity.getCreatorSubscribed() 
             && !activity.getCreatedBy().equals(remarkAuthor.getId())) {
-            
+        
             boolean creatorAlreadyNotified = false;
             if (activity.getAssignedMembers() != null) {
                 creatorAlreadyNotified = activity.getAssignedMembers().stream()
                     .anyMatch(member -> member.getId().equals(activity.getCreatedBy()));
             }
-            
+        
             if (!creatorAlreadyNotified) {
-                System.out.println("Creating remark notification for activity creator (ID: " + activity.getCreatedBy() + ") - creator subscribed");
+                log.debug("Creating remark notification for activity creator (ID: {}) - creator subscribed", activity.getCreatedBy());
                 createNotification(
                     activity.getCreatedBy(),
                     "New Remark Added",
@@ -438,13 +608,13 @@ public class NotificationService {
      */
     @Transactional
     public void notifyRemarkUpdated(Activity activity, User remarkAuthor, String remarkText) {
-        System.out.println("notifyRemarkUpdated called for activity: " + activity.getName() + " by user: " + remarkAuthor.getName());
-        
+        log.debug("notifyRemarkUpdated called for activity: {} by user: {}", activity.getName(), remarkAuthor.getName());
+    
         if (activity.getAssignedMembers() != null) {
-            System.out.println("Activity has " + activity.getAssignedMembers().size() + " assigned members");
+            log.debug("Activity has {} assigned members", activity.getAssignedMembers().size());
             for (User member : activity.getAssignedMembers()) {
                 if (!member.getId().equals(remarkAuthor.getId())) { // Don't notify remark author
-                    System.out.println("Creating remark update notification for member: " + member.getName() + " (ID: " + member.getId() + ")");
+                    log.debug("Creating remark update notification for member: {} (ID: {})", member.getName(), member.getId());
                     createNotification(
                         member.getId(),
                         "Remark Updated",
@@ -455,25 +625,25 @@ public class NotificationService {
                         activity.getId()
                     );
                 } else {
-                    System.out.println("Skipping remark update notification for author: " + member.getName());
+                    log.debug("Skipping remark update notification for author: {}", member.getName());
                 }
             }
         } else {
-            System.out.println("Activity has no assigned members for remark update notification");
+            log.debug("Activity has no assigned members for remark update notification");
         }
 
         // Notify creator if they subscribed to notifications and are not the remark author and not already assigned
         if (activity.getCreatorSubscribed() != null && activity.getCreatorSubscribed() 
             && !activity.getCreatedBy().equals(remarkAuthor.getId())) {
-            
+        
             boolean creatorAlreadyNotified = false;
             if (activity.getAssignedMembers() != null) {
                 creatorAlreadyNotified = activity.getAssignedMembers().stream()
                     .anyMatch(member -> member.getId().equals(activity.getCreatedBy()));
             }
-            
+        
             if (!creatorAlreadyNotified) {
-                System.out.println("Creating remark update notification for activity creator (ID: " + activity.getCreatedBy() + ") - creator subscribed");
+                log.debug("Creating remark update notification for activity creator (ID: {}) - creator subscribed", activity.getCreatedBy());
                 createNotification(
                     activity.getCreatedBy(),
                     "Remark Updated",
@@ -0,0 +1,298 @@
+package com.taskmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanagement.model.Notification;
+import com.taskmanagement.repository.NotificationRepository;
+import com.taskmanagement.util.VirtualThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events delivery of notifications, for clients whose proxies
+ * break WebSocket upgrades. Fed from the same place as the WebSocket
+ * handler (NotificationService.createNotification), with the notification
+ * ID as the event ID so a reconnecting EventSource resumes from its
+ * Last-Event-ID.
+ *
+ * The notifying thread only appends to the connection's bounded buffer. Each
+ * buffer is drained by at most one writer thread at a time, so events are
+ * never written to one response concurrently. Writer threads come from a
+ * cached pool (one virtual thread per drain in virtual-thread mode), so a
+ * client stalled in a blocking send only ties up its own writer, never a
+ * request thread or another connection's delivery. When a buffer is full
+ * the oldest event is dropped; the client can pick it up from
+ * GET /api/notifications.
+ */
+@Service
+public class NotificationStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationStreamService.class);
+
+    // Most notifications replayed to a reconnecting client
+    private static final int MAX_REPLAY = 100;
+
+    // As Notification's @JsonFormat, so both transports send the same strings
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.sse.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${app.sse.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${app.threads.virtual:false}")
+    private boolean virtualThreads;
+
+    private final Map<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private ExecutorService writer;
+    private Counter eventsSent;
+    private Counter eventsDropped;
+
+    private class Connection {
+        final Long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<SseEmitter.SseEventBuilder> buffer = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+
+        Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            while (!buffer.offer(event)) {
+                if (buffer.poll() != null) {
+                    eventsDropped.increment();
+                }
+            }
+            if (draining.compareAndSet(false, true)) {
+                writer.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = buffer.poll()) != null) {
+                    emitter.send(event);
+                    eventsSent.increment();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the emitter callbacks remove the connection
+                log.debug("SSE send to user {} failed: {}", userId, e.getMessage());
+                close();
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+            }
+            // Pick up events enqueued after the last poll but before the flag was cleared
+            if (!closed && !buffer.isEmpty() && draining.compareAndSet(false, true)) {
+                writer.execute(this::drain);
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.clear();
+            connections.computeIfPresent(userId, (id, userConnections) -> {
+                if (userConnections.remove(this)) {
+                    connectionCount.decrementAndGet();
+                }
+                return userConnections.isEmpty() ? null : userConnections;
+            });
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        // Sized by the number of connections with pending events, not fixed:
+        // a blocked send must not queue other connections behind it
+        if (virtualThreads) {
+            writer = VirtualThreads.newThreadPerTaskExecutor("sse-writer-");
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "sse-writer-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            writer = Executors.newCachedThreadPool(threadFactory);
+        }
+
+        Gauge.builder("app.sse.connections", connectionCount, AtomicInteger::get)
+            .description("Open notification event streams")
+            .register(meterRegistry);
+        eventsSent = meterRegistry.counter("app.sse.events.sent");
+        eventsDropped = meterRegistry.counter("app.sse.events.dropped");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Set<Connection> userConnections : connections.values()) {
+            for (Connection connection : userConnections) {
+                connection.closed = true;
+                try {
+                    connection.emitter.complete();
+                } catch (RuntimeException e) {
+                    // Connector already stopped; the client reconnects to another instance
+                }
+            }
+        }
+        writer.shutdownNow();
+    }
+
+    /**
+     * Opens a stream for the user. Notifications newer than lastEventId are
+     * replayed first, oldest first.
+     */
+    public SseEmitter connect(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(userId, emitter);
+        connections.compute(userId, (id, userConnections) -> {
+            if (userConnections == null) {
+                userConnections = ConcurrentHashMap.newKeySet();
+            } else if (userConnections.size() >= maxConnectionsPerUser) {
+                throw new RuntimeException("Too many open notification streams");
+            }
+            userConnections.add(connection);
+            return userConnections;
+        });
+        connectionCount.incrementAndGet();
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(connection::close);
+        emitter.onError(e -> connection.close());
+
+        // Reconnect hint for EventSource, sent before anything else
+        connection.enqueue(SseEmitter.event().reconnectTime(3000).comment("connected"));
+        if (lastEventId != null) {
+            // Registered first so nothing created during the replay query is lost;
+            // a failed replay must not leave the connection counted
+            try {
+                List<Notification> missed = notificationRepository
+                    .findTop100ByUserIdAndIdGreaterThanOrderByIdAsc(userId, lastEventId);
+                for (Notification notification : missed) {
+                    connection.enqueue(event(notification));
+                }
+                if (missed.size() == MAX_REPLAY) {
+                    // More were missed than we replay; tell the client to reload its list
+                    connection.enqueue(SseEmitter.event().name("resync").data("{}"));
+                }
+            } catch (RuntimeException e) {
+                connection.close();
+                throw e;
+            }
+        }
+        return emitter;
+    }
+
+    /**
+     * Queues a notification for every open stream of the user. Never blocks
+     * on the client.
+     */
+    public void sendNotificationToUser(Long userId, Notification notification) {
+        Set<Connection> userConnections = connections.get(userId);
+        if (userConnections == null || userConnections.isEmpty()) {
+            return;
+        }
+        for (Connection connection : userConnections) {
+            // Builders are consumed on send, so each connection gets its own
+            connection.enqueue(event(notification));
+        }
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * Comment line on every stream so proxies don't close idle connections
+     * and dead clients are noticed.
+     */
+    @Scheduled(fixedDelayString = "${app.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Set<Connection> userConnections : connections.values()) {
+            for (Connection connection : userConnections) {
+                connection.enqueue(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    /**
+     * Same fields the WebSocket message carries, serialized here on the
+     * calling thread: the writer threads have no persistence context, so
+     * the entity's lazy associations must not be touched there.
+     */
+    private SseEmitter.SseEventBuilder event(Notification notification) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", notification.getId());
+        data.put("userId", notification.getUserId());
+        data.put("title", notification.getTitle());
+        data.put("message", notification.getMessage());
+        data.put("type", notification.getType());
+        data.put("isRead", notification.getIsRead());
+        data.put("relatedTeamId", notification.getRelatedTeamId());
+        data.put("relatedActivityId", notification.getRelatedActivityId());
+        data.put("createdAt", format(notification.getCreatedAt()));
+        data.put("updatedAt", format(notification.getUpdatedAt()));
+        try {
+            return SseEmitter.event()
+                .id(String.valueOf(notification.getId()))
+                .name("notification")
+                .data(objectMapper.writeValueAsString(data));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize notification " + notification.getId(), e);
+        }
+    }
+
+    private static String format(LocalDateTime time) {
+        return time != null ? time.format(TIMESTAMP_FORMAT) : null;
+    }
+}
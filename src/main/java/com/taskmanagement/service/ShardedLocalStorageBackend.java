@@ -0,0 +1,162 @@
+package com.taskmanagement.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps attachment files under the upload directory in two levels of
+ * prefix directories, e.g. uploads/3f/a2/3fa2...; digest and UUID names are
+ * already uniformly distributed, so their first four characters are used
+ * directly. This keeps every directory small enough for fast lookups and
+ * incremental backups.
+ *
+ * Files from the old flat layout are still found until the migration job has
+ * moved them into their shard.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "local", matchIfMissing = true)
+public class ShardedLocalStorageBackend implements StorageBackend {
+
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(resolve(key));
+    }
+
+    @Override
+    public long lastModified(String key) throws IOException {
+        return Files.getLastModifiedTime(resolve(key)).toMillis();
+    }
+
+    @Override
+    public SeekableByteChannel open(String key) throws IOException {
+        return FileChannel.open(resolve(key), StandardOpenOption.READ);
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return resolve(key);
+    }
+
+    @Override
+    public void put(Path source, String key) throws IOException {
+        Path target = shardPath(key);
+        Files.createDirectories(target.getParent());
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void take(String key, Path target) throws IOException {
+        Files.move(resolve(key), target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        // Flat path first: a concurrent migration only ever moves flat -> shard
+        boolean deleted = Files.deleteIfExists(legacyPath(key));
+        return Files.deleteIfExists(shardPath(key)) || deleted;
+    }
+
+    /**
+     * Names of files still in the flat layout, skipping staged uploads and
+     * resumable upload parts that live in the same directory.
+     */
+    public List<String> legacyKeys() throws IOException {
+        List<String> keys = new ArrayList<>();
+        Path root = Paths.get(uploadDir);
+        if (!Files.isDirectory(root)) {
+            return keys;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root, Files::isRegularFile)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (StorageBackend.isValidKey(name) && !name.endsWith(".tmp") && !name.endsWith(".part")) {
+                    keys.add(name);
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Move one flat-layout file into its shard. Returns false when there was
+     * nothing left to move.
+     */
+    public boolean rehome(String key) throws IOException {
+        Path legacy = legacyPath(key);
+        Path target = shardPath(key);
+        Files.createDirectories(target.getParent());
+        try {
+            if (Files.exists(target)) {
+                // Same content was stored again after sharding; names are content or UUID based
+                return Files.deleteIfExists(legacy);
+            }
+            Files.move(legacy, target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private Path resolve(String key) {
+        Path sharded = shardPath(key);
+        if (Files.exists(sharded)) {
+            return sharded;
+        }
+        Path legacy = legacyPath(key);
+        return Files.exists(legacy) ? legacy : sharded;
+    }
+
+    private Path shardPath(String key) {
+        String prefix = shardPrefix(checkKey(key));
+        return Paths.get(uploadDir).resolve(prefix.substring(0, 2)).resolve(prefix.substring(2, 4)).resolve(key);
+    }
+
+    private Path legacyPath(String key) {
+        return Paths.get(uploadDir).resolve(checkKey(key));
+    }
+
+    static String shardPrefix(String key) {
+        String prefix = key.length() >= 4 ? key.substring(0, 4).toLowerCase() : "";
+        if (prefix.matches("[0-9a-f]{4}")) {
+            return prefix;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return String.format("%02x%02x", digest[0] & 0xFF, digest[1] & 0xFF);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String checkKey(String key) {
+        if (!StorageBackend.isValidKey(key)) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,49 @@
+package com.taskmanagement.service;
+
+import java.io.IOException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * Where attachment files are kept. Keys are stored filenames: SHA-256
+ * digests for content-addressed blobs, UUID-based names for files uploaded
+ * before that, and thumbnail names derived from either. Uploads are staged as local files in the upload directory and
+ * handed over with put() once they are complete.
+ *
+ * The backend is chosen with app.storage.backend ("local" or "memory").
+ */
+public interface StorageBackend {
+
+    boolean exists(String key);
+
+    long size(String key) throws IOException;
+
+    long lastModified(String key) throws IOException;
+
+    SeekableByteChannel open(String key) throws IOException;
+
+    /**
+     * The local file holding the object, so it can be sent with sendfile or
+     * transferTo. Null when the backend does not keep objects on local disk.
+     */
+    Path localPath(String key);
+
+    /**
+     * Move a staged local file into storage under the given key, replacing
+     * nothing: callers hold the blob row lock and have checked exists().
+     */
+    void put(Path source, String key) throws IOException;
+
+    /**
+     * Move an object back out into a local file. Used to undo a put() whose
+     * transaction rolled back.
+     */
+    void take(String key, Path target) throws IOException;
+
+    boolean delete(String key) throws IOException;
+
+    // Stored names never contain path separators
+    static boolean isValidKey(String key) {
+        return key != null && !key.isEmpty() && !key.startsWith(".") && key.matches("[A-Za-z0-9._-]+");
+    }
+}
@@ -0,0 +1,112 @@
+package com.taskmanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Moves files from the old flat upload directory into the sharded layout.
+ * Files are rehomed by a pool of threads; progress and cancellation are
+ * handled on the job thread. Safe to run while the application serves
+ * traffic and to run again after an interruption.
+ *
+ * Also rewrites attachments.file_path from the old upload-directory path to
+ * the storage key, which is what new rows store.
+ */
+@Component
+public class StorageMigrationJobHandler implements JobHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageMigrationJobHandler.class);
+
+    public static final String TYPE = "STORAGE_MIGRATION";
+
+    @Autowired
+    private StorageBackend storage;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.storage.migration-threads:8}")
+    private int threads;
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Object run(JobContext context) {
+        Map<String, Object> result = new HashMap<>();
+        int paths = jdbcTemplate.update(
+            "UPDATE attachments SET file_path = COALESCE(content_hash, filename) " +
+            "WHERE file_path <> COALESCE(content_hash, filename)");
+        result.put("pathsUpdated", paths);
+        context.checkCancelled();
+
+        if (!(storage instanceof ShardedLocalStorageBackend)) {
+            result.put("migrated", 0);
+            result.put("message", "Storage backend has no flat layout to migrate");
+            return result;
+        }
+        ShardedLocalStorageBackend local = (ShardedLocalStorageBackend) storage;
+
+        List<String> keys;
+        try {
+            keys = local.legacyKeys();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to list upload directory: " + e.getMessage(), e);
+        }
+
+        int migrated = 0;
+        int failed = 0;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CompletionService<Boolean> completion = new ExecutorCompletionService<>(pool);
+            // Bounded window so a huge directory does not queue one task per file up front
+            int window = threads * 4;
+            int submitted = 0;
+            int completed = 0;
+            while (completed < keys.size()) {
+                while (submitted < keys.size() && submitted - completed < window) {
+                    String key = keys.get(submitted++);
+                    completion.submit(() -> local.rehome(key));
+                }
+                try {
+                    if (completion.take().get()) {
+                        migrated++;
+                    }
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.warn("Storage migration failed for a file: {}", e.getCause().getMessage());
+                }
+                completed++;
+                context.progress(completed * 100 / keys.size(), completed + " of " + keys.size() + " files checked");
+                context.checkCancelled();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            context.checkCancelled();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        log.info("Storage migration moved {} of {} files, {} failed", migrated, keys.size(), failed);
+        result.put("total", keys.size());
+        result.put("migrated", migrated);
+        result.put("failed", failed);
+        return result;
+    }
+}
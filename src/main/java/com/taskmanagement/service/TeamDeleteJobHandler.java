@@ -0,0 +1,31 @@
+package com.taskmanagement.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class TeamDeleteJobHandler implements JobHandler {
+
+    public static final String TYPE = "TEAM_DELETE";
+
+    @Autowired
+    private TeamService teamService;
+
+    @Override
+    public String getType() {
+        return TYPE;
+    }
+
+    @Override
+    public Object run(JobContext context) {
+        Long teamId = context.getLong("teamId");
+        teamService.deleteTeam(teamId, context);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("teamId", teamId);
+        return result;
+    }
+}
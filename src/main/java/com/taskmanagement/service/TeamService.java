@@ -1,30 +1,50 @@
 package com.taskmanagement.service;
 
+import com.taskmanagement.config.ReplicaRead;
 import com.taskmanagement.model.Team;
 import com.taskmanagement.model.User;
-import com.taskmanagement.model.Activity;
 import com.taskmanagement.repository.TeamRepository;
 import com.taskmanagement.repository.UserRepository;
-import com.taskmanagement.repository.ActivityRepository;
-import com.taskmanagement.repository.NotificationRepository;
-import com.taskmanagement.repository.RemarkRepository;
-import com.taskmanagement.repository.ActivityLinkRepository;
-import com.taskmanagement.repository.AttachmentRepository;
 import com.taskmanagement.dto.CreateTeamRequest;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 
-import javax.persistence.EntityManager;
-import javax.persistence.PersistenceContext;
-import javax.transaction.Transactional;
 
 @Service
 public class TeamService {
 
+    private static final Logger log = LoggerFactory.getLogger(TeamService.class);
+
+    // Highest id of the next chunk of a team's activities after a given id
+    private static final String NEXT_CHUNK_UPPER_ID_SQL =
+        "SELECT MAX(id) FROM (SELECT id FROM activities WHERE team_id = ? AND id > ? ORDER BY id LIMIT ?) chunk";
+
+    private static final String CHUNK_ACTIVITY_IDS =
+        "SELECT id FROM activities WHERE team_id = ? AND id > ? AND id <= ?";
+
+    private static final String[] DELETE_ACTIVITY_DEPENDENCIES_SQL = {
+        "DELETE FROM activity_links WHERE activity_id IN (" + CHUNK_ACTIVITY_IDS + ")",
+        "DELETE FROM attachments WHERE activity_id IN (" + CHUNK_ACTIVITY_IDS + ")",
+        "DELETE FROM remarks WHERE activity_id IN (" + CHUNK_ACTIVITY_IDS + ")",
+        "DELETE FROM notifications WHERE related_activity_id IN (" + CHUNK_ACTIVITY_IDS + ")",
+        "DELETE FROM activity_assigned_users WHERE activity_id IN (" + CHUNK_ACTIVITY_IDS + ")"
+    };
+
+    private static final String DELETE_ACTIVITIES_SQL =
+        "DELETE FROM activities WHERE team_id = ? AND id > ? AND id <= ?";
+
     @Autowired
     private TeamRepository teamRepository;
     
@@ -32,39 +52,38 @@ public class TeamService {
     private UserRepository userRepository;
     
     @Autowired
-    private ActivityRepository activityRepository;
-    
-    @Autowired
-    private NotificationRepository notificationRepository;
-    
-    @Autowired
-    private RemarkRepository remarkRepository;
+    private JdbcTemplate jdbcTemplate;
     
     @Autowired
-    private ActivityLinkRepository activityLinkRepository;
+    private PlatformTransactionManager transactionManager;
     
     @Autowired
-    private AttachmentRepository attachmentRepository;
+    private NotificationService notificationService;
     
     @Autowired
-    private NotificationService notificationService;
+    private ActivityStatsService activityStatsService;
     
-    @PersistenceContext
-    private EntityManager entityManager;
+    @Value("${app.teams.delete-chunk-size:1000}")
+    private int deleteChunkSize;
     
     // Note: We'll use a different approach to avoid circular dependency
     // private ActivityService activityService;
 
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public List<Team> getAllTeams() {
-        return teamRepository.findAll();
+        return teamRepository.findAllWithMembers();
     }
     
+    @ReplicaRead
+    @Transactional(readOnly = true)
     public List<Team> getUserTeams(Long userId) {
         return teamRepository.findTeamsByUserId(userId);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Team> getTeamById(Long id) {
-        return teamRepository.findById(id);
+        return teamRepository.findWithMembersById(id);
     }
 
     public Team createTeam(Team team) {
@@ -97,9 +116,9 @@ public class TeamService {
                     if (!userId.equals(createdBy)) {
                         try {
                             notificationService.notifyUserAddedToTeam(team, user, creator);
-                            System.out.println("Sent team addition notification to user: " + user.getName() + " for team: " + team.getName());
+                            log.debug("Sent team addition notification to user: {} for team: {}", user.getName(), team.getName());
                         } catch (Exception e) {
-                            System.err.println("Failed to send team addition notification to user " + userId + ": " + e.getMessage());
+                            log.warn("Failed to send team addition notification to user {}: {}", userId, e.getMessage());
                         }
                     }
                 }
@@ -111,74 +130,89 @@ public class TeamService {
         return team;
     }
 
+    @Transactional
     public Team updateTeam(Long id, Team teamDetails) {
-        Team team = teamRepository.findById(id).orElseThrow(() -> new RuntimeException("Team not found"));
+        Team team = teamRepository.findWithMembersById(id).orElseThrow(() -> new RuntimeException("Team not found"));
         team.setName(teamDetails.getName());
         // Update other fields as necessary
         return teamRepository.save(team);
     }
 
-    @Transactional
+    /**
+     * Delete a team and everything hanging off its activities with set-based
+     * statements. Activities are removed in id-ordered chunks, each in its own
+     * short transaction, so a very large team never holds one long transaction.
+     * If a chunk fails the remaining data is left intact and the delete can
+     * simply be retried.
+     */
     public void deleteTeam(Long id) {
+        deleteTeam(id, null);
+    }
+
+    /**
+     * Same as {@link #deleteTeam(Long)}, reporting progress to a background job
+     * and stopping between chunks when the job is cancelled.
+     */
+    public void deleteTeam(Long id, JobContext context) {
         try {
-            // Get the team first to check if it exists
-            Team team = teamRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Team not found"));
-            
-            // Step 1: Delete all notifications related to this team
-            notificationRepository.deleteByRelatedTeamId(id);
-            
-            // Step 2: Handle activities - Get all activities for this team
-            List<Activity> teamActivities = activityRepository.findByTeamId(id);
-            
-            // For each activity, we need to clean up its dependencies manually
-            for (Activity activity : teamActivities) {
-                System.out.println("Cleaning up dependencies for activity ID: " + activity.getId());
-                
-                // Delete activity links first
-                System.out.println("Deleting activity links for activity ID: " + activity.getId());
-                activityLinkRepository.deleteByActivityId(activity.getId());
-                entityManager.flush();
-                
-                // Delete attachments
-                System.out.println("Deleting attachments for activity ID: " + activity.getId());
-                attachmentRepository.deleteByActivityId(activity.getId());
-                entityManager.flush();
-                
-                // Delete remarks (this was the missing step causing the constraint violation)
-                System.out.println("Deleting remarks for activity ID: " + activity.getId());
-                remarkRepository.deleteByActivityId(activity.getId());
-                entityManager.flush();
-                
-                // Delete notifications related to this activity
-                System.out.println("Deleting notifications for activity ID: " + activity.getId());
-                notificationRepository.deleteByRelatedActivityId(activity.getId());
-                entityManager.flush();
-                
-                // Clear assigned members relationship (many-to-many)
-                System.out.println("Clearing assigned members for activity ID: " + activity.getId());
-                activity.getAssignedMembers().clear();
-                activityRepository.save(activity);
-                entityManager.flush();
+            if (!teamRepository.existsById(id)) {
+                throw new RuntimeException("Team not found");
             }
-            
-            // Step 3: Now delete all activities (cascade should handle remarks, attachments, links)
-            System.out.println("Deleting " + teamActivities.size() + " activities for team ID: " + id);
-            activityRepository.deleteByTeamId(id);
-            entityManager.flush();
-            
-            // Step 4: Clear all team member relationships (many-to-many)
-            team.getMembers().clear();
-            teamRepository.save(team);
-            
-            // Step 5: Finally delete the team
-            teamRepository.delete(team);
-            
+
+            long started = System.currentTimeMillis();
+            Long totalActivities = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM activities WHERE team_id = ?", Long.class, id);
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            int chunks = 0;
+            int deletedActivities = 0;
+            long lastId = 0L;
+
+            // Step 1: Delete the team's activities and their dependencies, one id range at a time
+            Long nextUpperId;
+            while ((nextUpperId = jdbcTemplate.queryForObject(NEXT_CHUNK_UPPER_ID_SQL, Long.class, id, lastId, deleteChunkSize)) != null) {
+                if (context != null) {
+                    context.checkCancelled();
+                }
+                long lowerId = lastId;
+                long upperId = nextUpperId;
+                long chunkStarted = System.currentTimeMillis();
+                Integer deleted = transactionTemplate.execute(status -> {
+                    for (String sql : DELETE_ACTIVITY_DEPENDENCIES_SQL) {
+                        jdbcTemplate.update(sql, id, lowerId, upperId);
+                    }
+                    return jdbcTemplate.update(DELETE_ACTIVITIES_SQL, id, lowerId, upperId);
+                });
+                deletedActivities += deleted != null ? deleted : 0;
+                chunks++;
+                lastId = upperId;
+                if (context != null && totalActivities != null && totalActivities > 0) {
+                    context.progress((int) Math.min(99, deletedActivities * 100 / totalActivities),
+                        "Deleted " + deletedActivities + " of " + totalActivities + " activities");
+                }
+                log.debug("Deleted activity chunk {} ({} activities) for team ID: {} in {} ms",
+                    chunks, deleted, id, System.currentTimeMillis() - chunkStarted);
+            }
+
+            // Step 2: Delete team notifications, memberships and the team itself
+            transactionTemplate.execute(status -> {
+                jdbcTemplate.update("DELETE FROM notifications WHERE related_team_id = ?", id);
+                jdbcTemplate.update("DELETE FROM team_members WHERE team_id = ?", id);
+                return jdbcTemplate.update("DELETE FROM teams WHERE id = ?", id);
+            });
+            activityStatsService.evictTeam(id);
+
+            log.info("Deleted team ID: {} with {} activities in {} chunks, {} ms",
+                id, deletedActivities, chunks, System.currentTimeMillis() - started);
+
+        } catch (CancellationException e) {
+            throw e;
         } catch (Exception e) {
-            System.err.println("Error deleting team: " + e.getMessage());
-            e.printStackTrace();
-            if (e.getMessage().contains("constraint") || 
-                e.getMessage().contains("ConstraintViolationException")) {
+            log.error("Error deleting team", e);
+            if (e.getMessage() != null && e.getMessage().contains("not found")) {
+                throw new RuntimeException(e.getMessage());
+            }
+            if (e.getMessage() != null && (e.getMessage().contains("constraint") ||
+                e.getMessage().contains("ConstraintViolationException"))) {
                 throw new RuntimeException("Cannot delete team due to existing dependencies. All related items have been cleaned up, please try again.");
             }
             throw new RuntimeException("Failed to delete team: " + e.getMessage());
@@ -207,7 +241,7 @@ public class TeamService {
         try {
             notificationService.notifyUserAddedToTeam(team, user, addedBy);
         } catch (Exception e) {
-            System.err.println("Failed to send team member addition notification: " + e.getMessage());
+            log.warn("Failed to send team member addition notification: {}", e.getMessage());
         }
     }
 
@@ -229,7 +263,7 @@ public class TeamService {
             try {
                 notificationService.notifyUserRemovedFromTeam(team, user, removedBy);
             } catch (Exception e) {
-                System.err.println("Failed to send team member removal notification: " + e.getMessage());
+                log.warn("Failed to send team member removal notification: {}", e.getMessage());
             }
         }
         
@@ -237,12 +271,7 @@ public class TeamService {
     }
 
     public Team getTeamWithMembers(Long teamId) {
-        Team team = teamRepository.findById(teamId).orElse(null);
-        if (team != null) {
-            // Ensure members are loaded (lazy loading)
-            team.getMembers().size(); // This triggers the lazy loading
-        }
-        return team;
+        return teamRepository.findWithMembersById(teamId).orElse(null);
     }
 
     public Team findById(Long teamId) {
@@ -0,0 +1,264 @@
+package com.taskmanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thumbnails for image attachments, kept in the storage backend next to their
+ * source as {storage key}-{size}.png, so attachments sharing a blob share its
+ * thumbnails. A source that cannot be decoded (not an image, or too large) is
+ * remembered with an empty {storage key}.nothumb marker, so later requests
+ * answer 404 without reading it again.
+ *
+ * New attachments are queued on a small bounded executor once their
+ * transaction commits. When the queue is full the task is dropped and the
+ * thumbnail is produced on demand by the first request that needs it; a
+ * request for a thumbnail that is already being generated waits for that
+ * run instead of starting a second one.
+ */
+@Service
+public class ThumbnailService {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
+    @Autowired
+    private StorageBackend storage;
+
+    @Value("${app.thumbnails.sizes:64,128,256}")
+    private Set<Integer> sizes;
+
+    @Value("${app.thumbnails.default-size:128}")
+    private int defaultSize;
+
+    @Value("${app.thumbnails.threads:2}")
+    private int threads;
+
+    @Value("${app.thumbnails.queue-capacity:500}")
+    private int queueCapacity;
+
+    // Larger images are not decoded at all
+    @Value("${app.thumbnails.max-source-pixels:40000000}")
+    private long maxSourcePixels;
+
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        sizes = new TreeSet<>(sizes);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "thumbnail-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            },
+            (runnable, pool) -> log.warn("Thumbnail queue full, deferring to on-demand generation"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public static boolean isImage(String contentType) {
+        return contentType != null && contentType.startsWith("image/") && !contentType.contains("svg");
+    }
+
+    public int resolveSize(Integer requested) {
+        int size = requested != null ? requested : defaultSize;
+        if (!sizes.contains(size)) {
+            throw new RuntimeException("Invalid thumbnail size: supported sizes are " + sizes);
+        }
+        return size;
+    }
+
+    /**
+     * Queue thumbnails for a newly stored attachment, after the surrounding
+     * transaction commits.
+     */
+    public void generateAsync(String filename, String contentType) {
+        if (!isImage(contentType)) {
+            return;
+        }
+        Runnable submit = () -> executor.execute(() -> {
+            for (Integer size : sizes) {
+                try {
+                    getOrCreate(filename, size);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Thumbnail generation failed for {}: {}", filename, e.getMessage());
+                    return;
+                }
+            }
+        });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit.run();
+                }
+            });
+        } else {
+            submit.run();
+        }
+    }
+
+    /**
+     * Storage key of the cached thumbnail, generated now if the background run
+     * has not produced it yet. Returns null when the file is not a decodable
+     * image.
+     */
+    public String getOrCreate(String filename, int size) throws IOException {
+        String thumb = thumbnailKey(filename, size);
+        if (storage.exists(thumb)) {
+            return thumb;
+        }
+        if (storage.exists(markerKey(filename))) {
+            return null;
+        }
+
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.putIfAbsent(thumb, mine);
+        if (running != null) {
+            return running.join();
+        }
+
+        try {
+            String result = storage.exists(thumb) ? thumb : render(filename, size, thumb);
+            mine.complete(result);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(thumb, mine);
+        }
+    }
+
+    public void evict(String filename) {
+        try {
+            for (Integer size : sizes) {
+                storage.delete(thumbnailKey(filename, size));
+            }
+            storage.delete(markerKey(filename));
+        } catch (IOException e) {
+            log.warn("Failed to delete thumbnails for {}: {}", filename, e.getMessage());
+        }
+    }
+
+    private String render(String filename, int size, String thumb) throws IOException {
+        if (!StorageBackend.isValidKey(filename) || !storage.exists(filename)) {
+            throw new RuntimeException("File not found: " + filename);
+        }
+
+        BufferedImage image = readBounded(filename);
+        if (image == null) {
+            store(markerKey(filename), null);
+            return null;
+        }
+
+        double scale = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        store(thumb, scaled);
+        return thumb;
+    }
+
+    // Staged in the upload directory like any upload, then handed to the backend
+    private void store(String key, BufferedImage image) throws IOException {
+        Path dir = Paths.get(uploadDir);
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, "thumb-", ".tmp");
+        try {
+            if (image != null) {
+                ImageIO.write(image, "png", temp.toFile());
+            }
+            storage.put(temp, key);
+        } catch (FileAlreadyExistsException e) {
+            // Another node rendered the same thumbnail first
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Check the dimensions before decoding so huge images cannot exhaust the heap
+    private BufferedImage readBounded(String filename) throws IOException {
+        try (InputStream content = Channels.newInputStream(storage.open(filename));
+             ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxSourcePixels) {
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    static String thumbnailKey(String filename, int size) {
+        return filename + "-" + size + ".png";
+    }
+
+    static String markerKey(String filename) {
+        return filename + ".nothumb";
+    }
+}
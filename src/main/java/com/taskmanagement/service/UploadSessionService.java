@@ -0,0 +1,321 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.dto.ActivityDTO;
+import com.taskmanagement.dto.CompleteUploadRequest;
+import com.taskmanagement.dto.CreateUploadRequest;
+import com.taskmanagement.model.UploadSession;
+import com.taskmanagement.repository.UploadSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resumable chunked uploads. A session preallocates the target file in the
+ * upload directory; chunks are written with positional NIO writes at their
+ * offset, so they can be sent in any order and in parallel, and re-sending a
+ * chunk simply overwrites it. Completing the session verifies the SHA-256
+ * (announced at creation or sent with the completion, one is required) and
+ * hands the file to attachment storage, which renames it into place.
+ */
+@Service
+public class UploadSessionService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadSessionService.class);
+
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_REPORTED_MISSING = 100;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.uploads.max-size-bytes:2147483648}")
+    private long maxSize;
+
+    @Value("${app.uploads.default-chunk-size-bytes:8388608}")
+    private int defaultChunkSize;
+
+    @Value("${app.uploads.min-chunk-size-bytes:262144}")
+    private int minChunkSize;
+
+    @Value("${app.uploads.max-chunk-size-bytes:67108864}")
+    private int maxChunkSize;
+
+    @Value("${app.uploads.session-ttl-hours:24}")
+    private long sessionTtlHours;
+
+    public Map<String, Object> createSession(CreateUploadRequest request, Long userId) throws IOException {
+        if (request.getFileName() == null || request.getFileName().trim().isEmpty()) {
+            throw new RuntimeException("Invalid upload: fileName is required");
+        }
+        if (request.getSize() == null || request.getSize() <= 0 || request.getSize() > maxSize) {
+            throw new RuntimeException("Invalid upload size: must be between 1 and " + maxSize + " bytes");
+        }
+        int chunkSize = request.getChunkSize() != null ? request.getChunkSize() : defaultChunkSize;
+        if (chunkSize < minChunkSize || chunkSize > maxChunkSize) {
+            throw new RuntimeException("Invalid chunk size: must be between " + minChunkSize + " and " + maxChunkSize + " bytes");
+        }
+        String expectedSha256 = normalizeSha256(request.getSha256());
+
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setUserId(userId);
+        session.setFileName(request.getFileName().trim());
+        session.setContentType(request.getContentType());
+        session.setTotalSize(request.getSize());
+        session.setChunkSize(chunkSize);
+        session.setExpectedSha256(expectedSha256);
+        session.setExpiresAt(LocalDateTime.now().plusHours(sessionTtlHours));
+
+        // Preallocate so every chunk can be written at its final position
+        Files.createDirectories(Paths.get(uploadDir));
+        try (RandomAccessFile file = new RandomAccessFile(partFile(session.getId()).toFile(), "rw")) {
+            file.setLength(session.getTotalSize());
+        }
+
+        uploadSessionRepository.save(session);
+        return describe(session, Collections.<Integer>emptyList());
+    }
+
+    /**
+     * Write one chunk at its offset. The offset must be a chunk boundary and the
+     * body exactly one chunk long (shorter only for the last chunk).
+     */
+    public Map<String, Object> writeChunk(String sessionId, Long userId, long offset, InputStream body) throws IOException {
+        UploadSession session = getOpenSession(sessionId, userId);
+        if (offset < 0 || offset >= session.getTotalSize() || offset % session.getChunkSize() != 0) {
+            throw new RuntimeException("Invalid offset: must be a multiple of " + session.getChunkSize()
+                    + " below " + session.getTotalSize());
+        }
+        int chunkIndex = (int) (offset / session.getChunkSize());
+        long expected = Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(partFile(sessionId), StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[IO_BUFFER_SIZE];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                if (written + read > expected) {
+                    throw new RuntimeException("Invalid chunk: longer than " + expected + " bytes");
+                }
+                ByteBuffer source = ByteBuffer.wrap(buffer, 0, read);
+                while (source.hasRemaining()) {
+                    channel.write(source, offset + written + source.position());
+                }
+                written += read;
+            }
+        }
+        if (written != expected) {
+            throw new RuntimeException("Invalid chunk: expected " + expected + " bytes, received " + written);
+        }
+
+        // A re-sent chunk, possibly racing its first attempt, is already recorded
+        jdbcTemplate.update(
+            "INSERT INTO upload_session_chunks (session_id, chunk_index) VALUES (?, ?) ON CONFLICT DO NOTHING",
+            sessionId, chunkIndex);
+        return describe(session, receivedChunks(sessionId));
+    }
+
+    public Map<String, Object> getStatus(String sessionId, Long userId) {
+        UploadSession session = getSession(sessionId, userId);
+        return describe(session, receivedChunks(sessionId));
+    }
+
+    /**
+     * Verify the assembled file and attach it to an activity. The file is
+     * renamed into attachment storage, never copied.
+     */
+    public ActivityDTO complete(String sessionId, Long userId, CompleteUploadRequest request, String token) throws IOException {
+        UploadSession session = getOpenSession(sessionId, userId);
+        if (request.getActivityId() == null) {
+            throw new RuntimeException("Invalid request: activityId is required");
+        }
+        List<Integer> received = receivedChunks(sessionId);
+        if (received.size() < session.getTotalChunks()) {
+            throw new RuntimeException("Invalid request: " + (session.getTotalChunks() - received.size()) + " chunks missing");
+        }
+
+        String expected = request.getSha256() != null ? normalizeSha256(request.getSha256()) : session.getExpectedSha256();
+        if (expected == null) {
+            throw new RuntimeException("Invalid request: sha256 is required when it was not given at creation");
+        }
+        Path file = partFile(sessionId);
+        String actual = sha256(file);
+        if (!expected.equals(actual)) {
+            throw new RuntimeException("Invalid checksum: expected " + expected + " but upload has " + actual);
+        }
+
+        AttachmentStorageService.StoredFile stored = new AttachmentStorageService.StoredFile(
+            file, actual, session.getTotalSize(), session.getFileName(), session.getContentType());
+
+        // Claim the session so a concurrent completion cannot attach the file twice
+        int claimed = jdbcTemplate.update(
+            "UPDATE upload_sessions SET status = 'COMPLETED' WHERE id = ? AND status = 'OPEN'", sessionId);
+        if (claimed == 0) {
+            throw new RuntimeException("Invalid request: upload " + sessionId + " is already completed");
+        }
+        try {
+            ActivityDTO activity = activityService.addAttachments(request.getActivityId(), Collections.singletonList(stored), token);
+            jdbcTemplate.update("DELETE FROM upload_session_chunks WHERE session_id = ?", sessionId);
+            return activity;
+        } catch (RuntimeException e) {
+            // Let the client retry the completion if the file is still here
+            if (Files.exists(file)) {
+                jdbcTemplate.update("UPDATE upload_sessions SET status = 'OPEN' WHERE id = ?", sessionId);
+            }
+            throw e;
+        }
+    }
+
+    public void abort(String sessionId, Long userId) throws IOException {
+        UploadSession session = getSession(sessionId, userId);
+        delete(session);
+    }
+
+    @Scheduled(fixedDelayString = "${app.uploads.cleanup-ms:3600000}")
+    public void removeExpiredSessions() {
+        List<UploadSession> expired = uploadSessionRepository.findByExpiresAtBefore(LocalDateTime.now());
+        for (UploadSession session : expired) {
+            try {
+                delete(session);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to remove expired upload {}: {}", session.getId(), e.getMessage());
+            }
+        }
+        if (!expired.isEmpty()) {
+            log.info("Removed {} expired upload sessions", expired.size());
+        }
+    }
+
+    private void delete(UploadSession session) throws IOException {
+        if (session.getStatus() != UploadSession.UploadStatus.COMPLETED) {
+            Files.deleteIfExists(partFile(session.getId()));
+        }
+        jdbcTemplate.update("DELETE FROM upload_session_chunks WHERE session_id = ?", session.getId());
+        uploadSessionRepository.deleteById(session.getId());
+    }
+
+    private UploadSession getSession(String sessionId, Long userId) {
+        UploadSession session = uploadSessionRepository.findById(sessionId)
+                .orElseThrow(() -> new RuntimeException("Upload not found with ID: " + sessionId));
+        if (!session.getUserId().equals(userId)) {
+            throw new RuntimeException("You do not have permission to access this upload");
+        }
+        return session;
+    }
+
+    private UploadSession getOpenSession(String sessionId, Long userId) {
+        UploadSession session = getSession(sessionId, userId);
+        if (session.getStatus() != UploadSession.UploadStatus.OPEN || session.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new RuntimeException("Invalid request: upload " + sessionId + " is no longer open");
+        }
+        return session;
+    }
+
+    private List<Integer> receivedChunks(String sessionId) {
+        return jdbcTemplate.queryForList(
+            "SELECT DISTINCT chunk_index FROM upload_session_chunks WHERE session_id = ? ORDER BY chunk_index",
+            Integer.class, sessionId);
+    }
+
+    private Map<String, Object> describe(UploadSession session, List<Integer> received) {
+        int totalChunks = session.getTotalChunks();
+        List<Integer> missing = new ArrayList<>();
+        int next = 0;
+        for (Integer index : received) {
+            while (next < index && missing.size() < MAX_REPORTED_MISSING) {
+                missing.add(next++);
+            }
+            next = index + 1;
+        }
+        while (next < totalChunks && missing.size() < MAX_REPORTED_MISSING) {
+            missing.add(next++);
+        }
+
+        // Resume point: end of the contiguous run of chunks from the start
+        long offset = missing.isEmpty()
+                ? session.getTotalSize()
+                : Math.min((long) missing.get(0) * session.getChunkSize(), session.getTotalSize());
+
+        Map<String, Object> upload = new LinkedHashMap<>();
+        upload.put("id", session.getId());
+        upload.put("fileName", session.getFileName());
+        upload.put("size", session.getTotalSize());
+        upload.put("chunkSize", session.getChunkSize());
+        upload.put("totalChunks", totalChunks);
+        upload.put("receivedChunks", received.size());
+        upload.put("offset", offset);
+        upload.put("missingChunks", missing);
+        upload.put("status", session.getStatus().name().toLowerCase());
+        upload.put("expiresAt", session.getExpiresAt().toString());
+        return upload;
+    }
+
+    private Path partFile(String sessionId) {
+        return Paths.get(uploadDir).resolve("session-" + sessionId + ".part");
+    }
+
+    private String normalizeSha256(String sha256) {
+        if (sha256 == null || sha256.isEmpty()) {
+            return null;
+        }
+        String normalized = sha256.trim().toLowerCase();
+        if (!normalized.matches("[0-9a-f]{64}")) {
+            throw new RuntimeException("Invalid checksum: expected a hex SHA-256");
+        }
+        return normalized;
+    }
+
+    private String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
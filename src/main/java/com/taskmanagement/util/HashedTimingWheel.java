@@ -0,0 +1,97 @@
+package com.taskmanagement.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel keyed by K. Scheduling and cancelling are O(1); each
+ * tick only looks at the single bucket the clock hand moves onto, so the cost
+ * of advancing does not depend on how many timers are pending.
+ *
+ * Deadlines are stored as absolute tick numbers, so timers further away than
+ * one rotation simply stay in their bucket until the hand reaches their tick.
+ */
+public class HashedTimingWheel<K> {
+
+    private final long tickMillis;
+    private final List<Map<K, Long>> buckets;
+    private final Map<K, Long> deadlines = new HashMap<>();
+
+    // Last tick that has been processed
+    private long currentTick;
+
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMillis and wheelSize must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new LinkedHashMap<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedule (or reschedule) a timer. Deadlines already in the past fire on
+     * the next tick.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long tick = Math.max((deadlineMillis + tickMillis - 1) / tickMillis, currentTick + 1);
+        buckets.get(bucketOf(tick)).put(key, tick);
+        deadlines.put(key, tick);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Long tick = deadlines.remove(key);
+        if (tick == null) {
+            return false;
+        }
+        buckets.get(bucketOf(tick)).remove(key);
+        return true;
+    }
+
+    public synchronized boolean isScheduled(K key) {
+        return deadlines.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Move the hand up to nowMillis and return every key whose deadline has passed.
+     */
+    public synchronized List<K> advanceTo(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>();
+        if (targetTick <= currentTick) {
+            return expired;
+        }
+
+        // After a gap longer than one rotation every bucket has to be visited once
+        long steps = Math.min(targetTick - currentTick, buckets.size());
+        for (long i = 1; i <= steps; i++) {
+            Iterator<Map.Entry<K, Long>> it = buckets.get(bucketOf(currentTick + i)).entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<K, Long> entry = it.next();
+                if (entry.getValue() <= targetTick) {
+                    expired.add(entry.getKey());
+                    deadlines.remove(entry.getKey());
+                    it.remove();
+                }
+            }
+        }
+        currentTick = targetTick;
+        return expired;
+    }
+
+    private int bucketOf(long tick) {
+        return (int) (tick % buckets.size());
+    }
+}
@@ -3,6 +3,9 @@ package com.taskmanagement.util;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -20,6 +23,9 @@ public class JwtUtil {
     @Value("${app.jwt.expiration}")
     private Long expiration;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -41,8 +47,17 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    // Every authenticated request parses the token at least once
     private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "invalid";
+        try {
+            Claims claims = Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+            outcome = "valid";
+            return claims;
+        } finally {
+            sample.stop(meterRegistry.timer("app.jwt.parse", "outcome", outcome));
+        }
     }
 
     private Boolean isTokenExpired(String token) {
@@ -0,0 +1,32 @@
+package com.taskmanagement.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets one in every N occurrences of a high-frequency event through to the
+ * log, so a burst of notifications or connections leaves a trace without a
+ * line per event. A rate of 0 or less turns the event off entirely.
+ */
+public class LogSampler {
+
+    private final long rate;
+    private final AtomicLong events = new AtomicLong();
+
+    public LogSampler(long rate) {
+        this.rate = rate;
+    }
+
+    /** True for the first event and every rate-th one after it. */
+    public boolean sample() {
+        long count = events.getAndIncrement();
+        return rate > 0 && count % rate == 0;
+    }
+
+    public long getRate() {
+        return rate;
+    }
+
+    public long getEvents() {
+        return events.get();
+    }
+}
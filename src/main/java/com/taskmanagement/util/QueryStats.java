@@ -0,0 +1,81 @@
+package com.taskmanagement.util;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL statements executed on behalf of the current request: how many, how
+ * long they took in total, and how often each distinct statement ran. Bound
+ * to the request thread by QueryStatsFilter, and to the worker thread while
+ * an async response such as a streamed export is produced; fed by the
+ * datasource proxy. Statements run on other threads are not counted.
+ */
+public class QueryStats {
+
+    // Distinct statements remembered per request; later ones are only counted
+    private static final int MAX_DISTINCT_STATEMENTS = 200;
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long elapsedMillis;
+    private final Map<String, int[]> byStatement = new HashMap<>();
+
+    public static QueryStats start() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    // Continue counting for the same request on another thread
+    public static void bind(QueryStats stats) {
+        CURRENT.set(stats);
+    }
+
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public void record(String sql, int count, long elapsedMillis) {
+        statements += count;
+        this.elapsedMillis += elapsedMillis;
+        int[] seen = byStatement.get(sql);
+        if (seen == null && byStatement.size() < MAX_DISTINCT_STATEMENTS) {
+            seen = new int[1];
+            byStatement.put(sql, seen);
+        }
+        if (seen != null) {
+            seen[0] += count;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Statements that ran at least minCount times, most frequent first. A
+     * statement repeated once per row of an earlier result is the usual N+1.
+     */
+    public List<Map.Entry<String, Integer>> repeated(int minCount) {
+        List<Map.Entry<String, Integer>> repeated = new ArrayList<>();
+        for (Map.Entry<String, int[]> entry : byStatement.entrySet()) {
+            if (entry.getValue()[0] >= minCount) {
+                repeated.add(new AbstractMap.SimpleEntry<>(entry.getKey(), entry.getValue()[0]));
+            }
+        }
+        repeated.sort((a, b) -> b.getValue() - a.getValue());
+        return repeated;
+    }
+}
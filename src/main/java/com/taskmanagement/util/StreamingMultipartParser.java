@@ -0,0 +1,68 @@
+package com.taskmanagement.util;
+
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.apache.commons.fileupload.util.Streams;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads a multipart/form-data request body part by part without buffering
+ * uploads in memory or spooling them to a temp directory. Form fields are
+ * collected into a map; each file part is handed to a callback as a stream
+ * that has to be consumed before the next part is read.
+ */
+public class StreamingMultipartParser {
+
+    public interface FilePartHandler {
+        void handle(String fieldName, String filename, String contentType, InputStream content) throws IOException;
+    }
+
+    private final long maxFileSize;
+    private final long maxRequestSize;
+
+    public StreamingMultipartParser(long maxFileSize, long maxRequestSize) {
+        this.maxFileSize = maxFileSize;
+        this.maxRequestSize = maxRequestSize;
+    }
+
+    public static boolean isMultipart(HttpServletRequest request) {
+        return ServletFileUpload.isMultipartContent(request);
+    }
+
+    /**
+     * Parse the request and return its form fields (first value per name).
+     * File parts with an empty filename (no file chosen) are skipped.
+     */
+    public Map<String, String> parse(HttpServletRequest request, FilePartHandler fileHandler) throws IOException {
+        ServletFileUpload upload = new ServletFileUpload();
+        upload.setFileSizeMax(maxFileSize);
+        upload.setSizeMax(maxRequestSize);
+        upload.setHeaderEncoding(StandardCharsets.UTF_8.name());
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        try {
+            FileItemIterator parts = upload.getItemIterator(request);
+            while (parts.hasNext()) {
+                FileItemStream part = parts.next();
+                try (InputStream content = part.openStream()) {
+                    if (part.isFormField()) {
+                        fields.putIfAbsent(part.getFieldName(), Streams.asString(content, StandardCharsets.UTF_8.name()));
+                    } else if (part.getName() != null && !part.getName().isEmpty()) {
+                        fileHandler.handle(part.getFieldName(), part.getName(), part.getContentType(), content);
+                    }
+                }
+            }
+        } catch (FileUploadException e) {
+            throw new RuntimeException("Invalid multipart request: " + e.getMessage(), e);
+        }
+        return fields;
+    }
+}
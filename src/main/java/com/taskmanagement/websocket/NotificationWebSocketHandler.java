@@ -2,14 +2,25 @@ package com.taskmanagement.websocket;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.taskmanagement.util.JwtUtil;
+import com.taskmanagement.util.LogSampler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
+import javax.annotation.PostConstruct;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -17,18 +28,53 @@ import java.util.concurrent.ConcurrentHashMap;
 @Component
 public class NotificationWebSocketHandler extends TextWebSocketHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(NotificationWebSocketHandler.class);
+
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
     private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
     
-    // Store active WebSocket sessions by user ID
+    // Session attribute holding the decorator that serializes sends to a connection
+    private static final String SEND_SESSION = "sendSession";
+
+    // Store active WebSocket sessions by user ID (the send-serializing decorators)
     private final Map<Long, WebSocketSession> userSessions = new ConcurrentHashMap<>();
 
+    @Value("${app.websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${app.websocket.send-buffer-size-bytes:524288}")
+    private int sendBufferSizeBytes;
+
+    @Value("${app.logging.sample-rate:1000}")
+    private long logSampleRate;
+
+    private LogSampler connectSampler;
+    private Counter messagesSent;
+    private Counter sendFailures;
+    private DistributionSummary bytesSent;
+
+    @PostConstruct
+    public void registerMetrics() {
+        connectSampler = new LogSampler(logSampleRate);
+        Gauge.builder("app.websocket.sessions", userSessions, Map::size)
+            .description("Connected WebSocket users")
+            .register(meterRegistry);
+        messagesSent = meterRegistry.counter("app.websocket.messages.sent");
+        sendFailures = meterRegistry.counter("app.websocket.send.failures");
+        bytesSent = DistributionSummary.builder("app.websocket.bytes.sent")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
-        System.out.println("WebSocket connection established: " + session.getId());
+        log.debug("WebSocket connection established: {}", session.getId());
         
         // Extract user ID from query parameters or session attributes
         String query = session.getUri().getQuery();
@@ -37,23 +83,34 @@ public class NotificationWebSocketHandler extends TextWebSocketHandler {
             try {
                 Long userId = jwtUtil.extractUserId(token);
                 if (userId != null) {
-                    userSessions.put(userId, session);
+                    // Notifications for a user are sent from many threads; the decorator
+                    // queues concurrent sends instead of failing with TEXT_PARTIAL_WRITING,
+                    // and closes the session if a slow client exceeds the time or buffer limit
+                    WebSocketSession sendSession =
+                        new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, sendBufferSizeBytes);
+                    session.getAttributes().put(SEND_SESSION, sendSession);
+                    userSessions.put(userId, sendSession);
                     session.getAttributes().put("userId", userId);
-                    System.out.println("User " + userId + " connected to WebSocket");
+                    if (log.isDebugEnabled()) {
+                        log.debug("User {} connected to WebSocket", userId);
+                    } else if (connectSampler.sample()) {
+                        log.info("User {} connected to WebSocket ({} connected, 1 in {} connects logged)",
+                            userId, userSessions.size(), connectSampler.getRate());
+                    }
                     
                     // Send connection confirmation
                     Map<String, Object> connectionMsg = new HashMap<>();
                     connectionMsg.put("type", "connection");
                     connectionMsg.put("message", "Connected successfully");
                     connectionMsg.put("userId", userId);
-                    sendMessage(session, connectionMsg);
+                    sendMessage(sendSession, connectionMsg);
                 }
             } catch (Exception e) {
-                System.err.println("Invalid token in WebSocket connection: " + e.getMessage());
+                log.warn("Invalid token in WebSocket connection: {}", e.getMessage());
                 session.close(CloseStatus.NOT_ACCEPTABLE.withReason("Invalid token"));
             }
         } else {
-            System.err.println("No token provided in WebSocket connection");
+            log.warn("No token provided in WebSocket connection");
             session.close(CloseStatus.NOT_ACCEPTABLE.withReason("Token required"));
         }
     }
@@ -62,8 +119,8 @@ public class NotificationWebSocketHandler extends TextWebSocketHandler {
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         Long userId = (Long) session.getAttributes().get("userId");
         if (userId != null) {
-            userSessions.remove(userId);
-            System.out.println("User " + userId + " disconnected from WebSocket");
+            userSessions.remove(userId, sendSession(session));
+            log.debug("User {} disconnected from WebSocket", userId);
         }
     }
 
@@ -79,19 +136,19 @@ public class NotificationWebSocketHandler extends TextWebSocketHandler {
                 // Respond to ping with pong
                 Map<String, Object> pongMsg = new HashMap<>();
                 pongMsg.put("type", "pong");
-                sendMessage(session, pongMsg);
+                sendMessage(sendSession(session), pongMsg);
             }
         } catch (Exception e) {
-            System.err.println("Error handling WebSocket message: " + e.getMessage());
+            log.warn("Error handling WebSocket message: {}", e.getMessage());
         }
     }
 
     @Override
     public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
-        System.err.println("WebSocket transport error: " + exception.getMessage());
+        log.warn("WebSocket transport error: {}", exception.getMessage());
         Long userId = (Long) session.getAttributes().get("userId");
         if (userId != null) {
-            userSessions.remove(userId);
+            userSessions.remove(userId, sendSession(session));
         }
     }
 
@@ -105,9 +162,9 @@ public class NotificationWebSocketHandler extends TextWebSocketHandler {
                 notificationMsg.put("data", notification);
                 sendMessage(session, notificationMsg);
             } catch (Exception e) {
-                System.err.println("Error sending notification to user " + userId + ": " + e.getMessage());
-                // Remove invalid session
-                userSessions.remove(userId);
+                // A failed or over-limit send closes the session if it is broken, and
+                // afterConnectionClosed removes it then
+                log.warn("Error sending notification to user {}: {}", userId, e.getMessage());
             }
         }
     }
@@ -130,9 +187,21 @@ public class NotificationWebSocketHandler extends TextWebSocketHandler {
         return session != null && session.isOpen();
     }
 
+    private WebSocketSession sendSession(WebSocketSession session) {
+        Object sendSession = session.getAttributes().get(SEND_SESSION);
+        return sendSession instanceof WebSocketSession ? (WebSocketSession) sendSession : session;
+    }
+
     private void sendMessage(WebSocketSession session, Object message) throws IOException {
         String json = objectMapper.writeValueAsString(message);
-        session.sendMessage(new TextMessage(json));
+        try {
+            session.sendMessage(new TextMessage(json));
+        } catch (IOException | RuntimeException e) {
+            sendFailures.increment();
+            throw e;
+        }
+        messagesSent.increment();
+        bytesSent.record(json.getBytes(StandardCharsets.UTF_8).length);
     }
 
     private String extractTokenFromQuery(String query) {
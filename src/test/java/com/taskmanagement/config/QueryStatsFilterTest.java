@@ -0,0 +1,110 @@
+package com.taskmanagement.config;
+
+import com.taskmanagement.util.QueryStats;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitWebConfig
+class QueryStatsFilterTest {
+
+    @Configuration
+    @EnableWebMvc
+    @Import({QueryStatsFilter.class, StatementsController.class})
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    // Stands in for the datasource proxy: each call records statements on the current thread
+    @RestController
+    static class StatementsController {
+
+        @GetMapping("/plain")
+        String plain() {
+            run(2);
+            return "done";
+        }
+
+        @GetMapping("/streamed")
+        StreamingResponseBody streamed() {
+            run(1);
+            return out -> run(5);
+        }
+
+        private static void run(int statements) {
+            QueryStats stats = QueryStats.current();
+            if (stats != null) {
+                stats.record("SELECT 1", statements, 1);
+            }
+        }
+    }
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private QueryStatsFilter filter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry.clear();
+        mvc = MockMvcBuilders.webAppContextSetup(context).addFilters(filter).build();
+    }
+
+    @Test
+    void plainRequestIsRecordedWhenItReturns() throws Exception {
+        mvc.perform(get("/plain")).andExpect(status().isOk());
+
+        DistributionSummary statements = statements("/plain");
+        assertEquals(1, statements.count());
+        assertEquals(2, statements.totalAmount());
+    }
+
+    @Test
+    void streamedResponseIsRecordedOnceWithWhatItsWorkerRan() throws Exception {
+        MvcResult started = mvc.perform(get("/streamed")).andExpect(request().asyncStarted()).andReturn();
+        started.getAsyncResult(10000);
+        assertNull(meterRegistry.find("app.db.statements").summary());
+
+        mvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        DistributionSummary statements = statements("/streamed");
+        assertEquals(1, statements.count());
+        assertEquals(6, statements.totalAmount());
+    }
+
+    private DistributionSummary statements(String uri) {
+        return meterRegistry.get("app.db.statements").tag("uri", uri).summary();
+    }
+}
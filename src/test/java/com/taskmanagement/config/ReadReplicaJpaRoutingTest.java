@@ -0,0 +1,134 @@
+package com.taskmanagement.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.stereotype.Service;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Routing as the application sees it: JPA transactions through
+ * JpaTransactionManager and Spring Data repositories, whose own CRUD calls
+ * run in read-only transactions.
+ */
+@SpringJUnitConfig
+class ReadReplicaJpaRoutingTest {
+
+    @Entity
+    @Table(name = "node")
+    static class Node {
+
+        @Id
+        private String name;
+
+        private double lag;
+
+        public String getName() { return name; }
+    }
+
+    interface NodeRepository extends JpaRepository<Node, String> {
+    }
+
+    @Service
+    static class NodeService {
+
+        @Autowired
+        private NodeRepository nodeRepository;
+
+        @ReplicaRead
+        @Transactional(readOnly = true)
+        public String replicaRead() {
+            return nodeRepository.findAll().get(0).getName();
+        }
+
+        @Transactional(readOnly = true)
+        public String readOnly() {
+            return nodeRepository.findAll().get(0).getName();
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableTransactionManagement
+    @EnableJpaRepositories(considerNestedRepositories = true, basePackageClasses = ReadReplicaJpaRoutingTest.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = NodeRepository.class))
+    @Import({NodeService.class, ReplicaReadAspect.class})
+    static class Config {
+
+        @Bean
+        DataSource dataSource() {
+            ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(
+                database("primary"), database("replica"), 10, "SELECT 0");
+            return new LazyConnectionDataSourceProxy(routing);
+        }
+
+        @Bean
+        LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+            LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factory.setPackagesToScan(ReadReplicaJpaRoutingTest.class.getPackage().getName());
+            return factory;
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+    }
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private NodeService nodeService;
+
+    @Test
+    void onlyReplicaReadsLeaveThePrimary() {
+        assertEquals("replica", nodeService.replicaRead());
+        assertEquals("primary", nodeService.readOnly());
+    }
+
+    @Test
+    void repositoryCrudOutsideAServiceTransactionStaysOnPrimary() {
+        // SimpleJpaRepository runs these in its own read-only transactions
+        assertEquals("primary", nodeRepository.findAll().get(0).getName());
+        assertEquals("primary", nodeRepository.findById("primary").get().getName());
+        assertFalse(nodeRepository.existsById("replica"));
+        assertEquals(1, nodeRepository.count());
+    }
+
+    private static JdbcDataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:jpa-" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20) PRIMARY KEY, lag DOUBLE)");
+        jdbc.update("INSERT INTO node VALUES (?, 0)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,97 @@
+package com.taskmanagement.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadReplicaRoutingDataSourceTest {
+
+    private JdbcDataSource replica;
+    private ReadReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private Reads reads;
+
+    // Stands in for a service: replicaRead() is a @ReplicaRead method
+    static class Reads {
+
+        @ReplicaRead
+        public String replicaRead(TransactionTemplate transaction, Supplier<String> read) {
+            return transaction.execute(status -> read.get());
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        replica = database("replica");
+        routing = new ReadReplicaRoutingDataSource(primary, replica, 10, "SELECT lag FROM node");
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new Reads());
+        proxyFactory.addAspect(ReplicaReadAspect.class);
+        reads = proxyFactory.getProxy();
+    }
+
+    @Test
+    void routesReadOnlyTransactionsOfReplicaReadsToReplica() {
+        assertEquals("replica", reads.replicaRead(readOnly, this::nodeName));
+        assertEquals("primary", reads.replicaRead(readWrite, this::nodeName));
+        assertEquals("primary", readOnly.execute(status -> nodeName()));
+        assertEquals("primary", readWrite.execute(status -> nodeName()));
+        assertEquals("primary", nodeName());
+    }
+
+    @Test
+    void fallsBackToPrimaryWhileReplicaLags() {
+        new JdbcTemplate(replica).update("UPDATE node SET lag = 60");
+        routing.checkLag();
+        assertFalse(routing.isReplicaAvailable());
+        assertEquals("primary", reads.replicaRead(readOnly, this::nodeName));
+
+        new JdbcTemplate(replica).update("UPDATE node SET lag = 0");
+        routing.checkLag();
+        assertTrue(routing.isReplicaAvailable());
+        assertEquals("replica", reads.replicaRead(readOnly, this::nodeName));
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaIsDown() {
+        replica.setURL("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+
+        assertEquals("primary", reads.replicaRead(readOnly, this::nodeName));
+        assertFalse(routing.isReplicaAvailable());
+    }
+
+    private String nodeName() {
+        return jdbc.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static JdbcDataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20), lag DOUBLE)");
+        jdbc.update("INSERT INTO node VALUES (?, 0)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,174 @@
+package com.taskmanagement.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanagement.model.Team;
+import com.taskmanagement.model.User;
+import com.taskmanagement.repository.TeamRepository;
+import com.taskmanagement.repository.UserRepository;
+import com.taskmanagement.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Open-session-in-view is off, so an entity association that a controller
+ * serializes without the repository having fetched it fails the request with
+ * a LazyInitializationException. Calls every endpoint that returns entities
+ * and expects a complete response.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+@DirtiesContext
+class LazyLoadingWebTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${spring.jpa.open-in-view}")
+    private boolean openInView;
+
+    private User admin;
+    private User member;
+    private Team team;
+
+    @BeforeEach
+    void setUp() {
+        admin = user("LAZY-ADMIN", "admin");
+        member = user("LAZY-MEMBER", "user");
+        team = new Team();
+        team.setName("Lazy loading");
+        team.setCreatedBy(admin.getId());
+        team.setMembers(new HashSet<>(Arrays.asList(admin, member)));
+        team = teamRepository.save(team);
+    }
+
+    @Test
+    void teamsAreReturnedWithMembers() {
+        assertFalse(openInView);
+
+        assertMembers(call(HttpMethod.GET, "/api/teams", admin, null, List.class).getBody());
+        assertMembers(call(HttpMethod.GET, "/api/teams", member, null, List.class).getBody());
+        assertMembers(call(HttpMethod.GET, "/api/teams/my-teams", member, null, List.class).getBody());
+        assertMembers(Arrays.asList(call(HttpMethod.GET, "/api/teams/" + team.getId(), member, null, Map.class).getBody()));
+
+        Map<String, Object> rename = new HashMap<>();
+        rename.put("name", "Renamed");
+        Map<?, ?> renamed = call(HttpMethod.PUT, "/api/teams/" + team.getId(), admin, rename, Map.class).getBody();
+        assertEquals("Renamed", renamed.get("name"));
+        assertMembers(Arrays.asList(renamed));
+
+        User added = user("LAZY-ADDED", "user");
+        Map<String, Object> addMembers = new HashMap<>();
+        addMembers.put("userIds", Arrays.asList(added.getId()));
+        Map<?, ?> response = call(HttpMethod.POST, "/api/teams/" + team.getId() + "/members", admin, addMembers, Map.class).getBody();
+        assertEquals(3, ((List<?>) ((Map<?, ?>) response.get("team")).get("members")).size());
+    }
+
+    @Test
+    void activitiesAndNotificationsSerialize() {
+        Map<String, Object> activity = new HashMap<>();
+        activity.put("name", "Check lazy loading");
+        activity.put("description", "Created through the API");
+        activity.put("priority", "high");
+        activity.put("team_id", team.getId());
+        activity.put("assignedUsers", Arrays.asList(member.getId()));
+        Map<?, ?> created = call(HttpMethod.POST, "/api/activities", admin, activity, Map.class).getBody();
+        Object activityId = ((Map<?, ?>) created.get("activity")).get("id");
+
+        Map<String, Object> remark = new HashMap<>();
+        remark.put("text", "First remark");
+        call(HttpMethod.POST, "/api/activities/" + activityId + "/remarks", member, remark, Map.class);
+
+        Map<?, ?> detail = call(HttpMethod.GET, "/api/activities/" + activityId, member, null, Map.class).getBody();
+        // The creator is always assigned as well
+        assertEquals(2, ((List<?>) detail.get("assignedMembers")).size());
+        assertFalse(((List<?>) detail.get("remarks")).isEmpty());
+        call(HttpMethod.GET, "/api/activities/team/" + team.getId(), member, null, List.class);
+        call(HttpMethod.GET, "/api/activities/" + activityId + "/remarks", member, null, List.class);
+
+        List<?> notifications = call(HttpMethod.GET, "/api/notifications", member, null, List.class).getBody();
+        assertFalse(notifications.isEmpty());
+        Map<?, ?> notification = (Map<?, ?>) notifications.get(0);
+        assertEquals(((Number) activityId).intValue(), ((Number) notification.get("relatedActivityId")).intValue());
+        Map<?, ?> relatedActivity = (Map<?, ?>) notification.get("relatedActivity");
+        assertEquals(((Number) activityId).intValue(), ((Number) relatedActivity.get("id")).intValue());
+        assertFalse(((List<?>) relatedActivity.get("remarks")).isEmpty());
+        call(HttpMethod.PUT, "/api/notifications/" + notification.get("id") + "/read", member, null, Map.class);
+        call(HttpMethod.GET, "/api/notifications/unread", member, null, List.class);
+        call(HttpMethod.GET, "/api/notifications/team/" + team.getId(), member, null, List.class);
+        call(HttpMethod.GET, "/api/notifications/activity/" + activityId, member, null, List.class);
+        call(HttpMethod.GET, "/api/auth/me", member, null, Map.class);
+    }
+
+    private <T> ResponseEntity<T> call(HttpMethod method, String path, User user, Object body, Class<T> type) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", user.getId());
+        claims.put("empId", user.getEmpId());
+        claims.put("name", user.getName());
+        claims.put("role", user.getRole());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtUtil.generateToken(user.getEmpId(), claims));
+        // Read as text first so a failed serialization shows its error body
+        ResponseEntity<String> response = rest.exchange(path, method, new HttpEntity<>(body, headers), String.class);
+        assertEquals(200, response.getStatusCodeValue(), method + " " + path + ": " + response.getBody());
+        try {
+            return ResponseEntity.ok(objectMapper.readValue(response.getBody(), type));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void assertMembers(List<?> teams) {
+        assertFalse(teams.isEmpty());
+        for (Object team : teams) {
+            List<?> members = (List<?>) ((Map<?, ?>) team).get("members");
+            assertTrue(members != null && !members.isEmpty(), "Team without members: " + team);
+        }
+    }
+
+    private User user(String empId, String role) {
+        User existing = userRepository.findByEmpId(empId).orElse(null);
+        if (existing != null) {
+            return existing;
+        }
+        User user = new User();
+        user.setEmpId(empId);
+        user.setName(empId);
+        user.setPassword("unused");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,173 @@
+package com.taskmanagement.load;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Fills an empty schema with a synthetic, production-shaped dataset using
+ * JDBC batch inserts. Sizes come from system properties (load.users,
+ * load.teams, ...) so the same harness covers small smoke runs and
+ * capacity-planning runs. All users share one password.
+ */
+public class DatasetGenerator {
+
+    private static final int BATCH_SIZE = 1000;
+
+    public static class Config {
+        int users = Integer.getInteger("load.users", 200);
+        int teams = Integer.getInteger("load.teams", 20);
+        int membersPerTeam = Integer.getInteger("load.members-per-team", 15);
+        int activitiesPerTeam = Integer.getInteger("load.activities-per-team", 200);
+        int assigneesPerActivity = Integer.getInteger("load.assignees-per-activity", 3);
+        int remarksPerActivity = Integer.getInteger("load.remarks-per-activity", 5);
+        int attachmentsPerActivity = Integer.getInteger("load.attachments-per-activity", 1);
+        int notificationsPerUser = Integer.getInteger("load.notifications-per-user", 50);
+        long seed = Long.getLong("load.seed", 42L);
+    }
+
+    public static class Dataset {
+        final List<Long> userIds = new ArrayList<>();
+        final Map<Long, String> empIds = new HashMap<>();
+        final List<Long> teamIds = new ArrayList<>();
+        final Map<Long, List<Long>> teamsByUser = new HashMap<>();
+        final Map<Long, List<Long>> activitiesByTeam = new HashMap<>();
+        final Map<Long, List<Long>> activitiesByAssignee = new HashMap<>();
+        int activities;
+        int remarks;
+        int notifications;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Config config;
+    private final Random random;
+
+    public DatasetGenerator(JdbcTemplate jdbcTemplate, Config config) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = config;
+        this.random = new Random(config.seed);
+    }
+
+    public Dataset generate(String passwordHash) {
+        long started = System.currentTimeMillis();
+        Dataset dataset = new Dataset();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < config.users; i++) {
+            rows.add(new Object[]{"LOAD" + (100000 + i), "Load User " + i, passwordHash, i == 0 ? "admin" : "user"});
+        }
+        insert("INSERT INTO users (emp_id, name, password, role) VALUES (?, ?, ?, ?)", rows);
+        for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT id, emp_id FROM users ORDER BY id")) {
+            Long id = ((Number) row.get("id")).longValue();
+            dataset.userIds.add(id);
+            dataset.empIds.put(id, (String) row.get("emp_id"));
+        }
+
+        rows.clear();
+        for (int t = 0; t < config.teams; t++) {
+            rows.add(new Object[]{"Load Team " + t, "Synthetic team " + t, dataset.userIds.get(0), now, now});
+        }
+        insert("INSERT INTO teams (name, description, created_by, created_at, updated_at) VALUES (?, ?, ?, ?, ?)", rows);
+        dataset.teamIds.addAll(jdbcTemplate.queryForList("SELECT id FROM teams ORDER BY id", Long.class));
+
+        rows.clear();
+        Map<Long, List<Long>> membersByTeam = new HashMap<>();
+        for (Long teamId : dataset.teamIds) {
+            List<Long> members = sample(dataset.userIds, config.membersPerTeam);
+            membersByTeam.put(teamId, members);
+            for (Long userId : members) {
+                rows.add(new Object[]{teamId, userId});
+                dataset.teamsByUser.computeIfAbsent(userId, id -> new ArrayList<>()).add(teamId);
+            }
+        }
+        insert("INSERT INTO team_members (team_id, user_id) VALUES (?, ?)", rows);
+
+        String[] statuses = {"PENDING", "IN_PROGRESS", "COMPLETED", "ON_HOLD"};
+        String[] priorities = {"low", "medium", "high"};
+        rows.clear();
+        List<Long> creators = new ArrayList<>();
+        List<Long> teamOfRow = new ArrayList<>();
+        for (Long teamId : dataset.teamIds) {
+            List<Long> members = membersByTeam.get(teamId);
+            for (int a = 0; a < config.activitiesPerTeam; a++) {
+                Long creator = members.get(random.nextInt(members.size()));
+                Timestamp target = Timestamp.valueOf(LocalDateTime.now().plusDays(random.nextInt(60) - 10));
+                rows.add(new Object[]{"Activity " + teamId + "-" + a, "Synthetic activity for load testing",
+                    priorities[random.nextInt(priorities.length)], target, creator, now, now,
+                    statuses[random.nextInt(statuses.length)], true, teamId});
+                creators.add(creator);
+                teamOfRow.add(teamId);
+            }
+        }
+        insert("INSERT INTO activities (name, description, priority, target_date, created_by, created_at, updated_at, "
+            + "status, creator_subscribed, team_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        List<Long> activityIds = jdbcTemplate.queryForList("SELECT id FROM activities ORDER BY id", Long.class);
+        dataset.activities = activityIds.size();
+
+        List<Object[]> assignees = new ArrayList<>();
+        List<Object[]> remarks = new ArrayList<>();
+        List<Object[]> attachments = new ArrayList<>();
+        for (int i = 0; i < activityIds.size(); i++) {
+            Long activityId = activityIds.get(i);
+            Long teamId = teamOfRow.get(i);
+            dataset.activitiesByTeam.computeIfAbsent(teamId, id -> new ArrayList<>()).add(activityId);
+            for (Long userId : sample(membersByTeam.get(teamId), config.assigneesPerActivity)) {
+                assignees.add(new Object[]{activityId, userId});
+                dataset.activitiesByAssignee.computeIfAbsent(userId, id -> new ArrayList<>()).add(activityId);
+            }
+            for (int r = 0; r < config.remarksPerActivity; r++) {
+                remarks.add(new Object[]{"Progress note " + r, creators.get(i), activityId, "GENERAL", now});
+            }
+            for (int f = 0; f < config.attachmentsPerActivity; f++) {
+                String filename = String.format("%064x", (long) activityId * 1000 + f);
+                attachments.add(new Object[]{filename, "document-" + f + ".pdf", "uploads/" + filename,
+                    50_000L + random.nextInt(5_000_000), "application/pdf", filename, activityId, now});
+            }
+        }
+        insert("INSERT INTO activity_assigned_users (activity_id, user_id) VALUES (?, ?)", assignees);
+        insert("INSERT INTO remarks (text, user_id, activity_id, type, created_at) VALUES (?, ?, ?, ?, ?)", remarks);
+        insert("INSERT INTO attachments (filename, original_name, file_path, file_size, content_type, content_hash, "
+            + "activity_id, uploaded_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", attachments);
+        dataset.remarks = remarks.size();
+
+        rows.clear();
+        for (Long userId : dataset.userIds) {
+            for (int n = 0; n < config.notificationsPerUser; n++) {
+                Long activityId = activityIds.get(random.nextInt(activityIds.size()));
+                rows.add(new Object[]{userId, "Activity Updated", "Activity " + activityId + " has been updated.",
+                    "ACTIVITY_UPDATED", random.nextInt(4) == 0, activityId, now, now});
+            }
+        }
+        insert("INSERT INTO notifications (user_id, title, message, type, is_read, related_activity_id, created_at, "
+            + "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        dataset.notifications = rows.size();
+
+        System.out.println("Generated " + dataset.userIds.size() + " users, " + dataset.teamIds.size() + " teams, "
+            + dataset.activities + " activities, " + dataset.remarks + " remarks, " + attachments.size()
+            + " attachments, " + dataset.notifications + " notifications in "
+            + (System.currentTimeMillis() - started) + " ms");
+        return dataset;
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+
+    private List<Long> sample(List<Long> values, int count) {
+        List<Long> copy = new ArrayList<>(values);
+        List<Long> picked = new ArrayList<>();
+        for (int i = 0; i < count && !copy.isEmpty(); i++) {
+            picked.add(copy.remove(random.nextInt(copy.size())));
+        }
+        return picked;
+    }
+}
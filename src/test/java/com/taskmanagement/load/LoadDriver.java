@@ -0,0 +1,300 @@
+package com.taskmanagement.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays a weighted mix of the API calls the web client makes, from a number
+ * of concurrent virtual users, each logged in as a different generated user.
+ * Latencies are kept per endpoint template (not per concrete URL) so the
+ * report shows throughput, p50 and p99 for e.g. GET /api/activities/{id}.
+ */
+public class LoadDriver {
+
+    public static class Config {
+        int threads = Integer.getInteger("load.threads", 16);
+        int warmupSeconds = Integer.getInteger("load.warmup-seconds", 5);
+        int durationSeconds = Integer.getInteger("load.duration-seconds", 30);
+        long seed = Long.getLong("load.seed", 42L);
+        String threadMode = "platform";
+    }
+
+    private enum Endpoint {
+        MY_ACTIVITIES("GET", "/api/activities/mine", 20),
+        ACTIVITY("GET", "/api/activities/{id}", 20),
+        TEAM_ACTIVITIES("GET", "/api/activities/team/{teamId}", 10),
+        UNREAD_NOTIFICATIONS("GET", "/api/notifications/unread", 10),
+        NOTIFICATION_COUNT("GET", "/api/notifications/count", 15),
+        MY_TEAMS("GET", "/api/teams/my-teams", 10),
+        TEAM_STATS("GET", "/api/teams/{teamId}/stats", 5),
+        ADD_REMARK("POST", "/api/activities/{id}/remarks", 6),
+        UPDATE_STATUS("PATCH", "/api/activities/{id}/status", 4);
+
+        final String method;
+        final String template;
+        final int weight;
+
+        Endpoint(String method, String template, int weight) {
+            this.method = method;
+            this.template = template;
+            this.weight = weight;
+        }
+
+        String label() {
+            return method + " " + template;
+        }
+    }
+
+    private static final String[] STATUSES = {"pending", "in-progress", "completed", "on-hold"};
+
+    // Latencies in microseconds, appended by every worker
+    private static class Recorder {
+        final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    private final String baseUrl;
+    private final DatasetGenerator.Dataset dataset;
+    private final String password;
+    private final Config config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Endpoint, Recorder> recorders = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private final CloseableHttpClient httpClient;
+    private volatile boolean running = true;
+
+    public LoadDriver(String baseUrl, DatasetGenerator.Dataset dataset, String password, Config config) {
+        this.baseUrl = baseUrl;
+        this.dataset = dataset;
+        this.password = password;
+        this.config = config;
+        this.httpClient = HttpClients.custom()
+            .setMaxConnTotal(config.threads * 2)
+            .setMaxConnPerRoute(config.threads * 2)
+            .setDefaultRequestConfig(RequestConfig.custom().setConnectTimeout(5000).setSocketTimeout(30000).build())
+            .build();
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new Recorder());
+        }
+    }
+
+    public Map<String, Object> run() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(config.threads);
+        CountDownLatch loggedIn = new CountDownLatch(config.threads);
+        for (int i = 0; i < config.threads; i++) {
+            Long userId = dataset.userIds.get(1 + i % (dataset.userIds.size() - 1));
+            long seed = config.seed + i;
+            pool.submit(() -> worker(userId, new Random(seed), loggedIn));
+        }
+        loggedIn.await();
+
+        System.out.println("Load driver warming up for " + config.warmupSeconds + " s with " + config.threads
+            + " threads against " + config.threadMode + " request threads");
+        Thread.sleep(TimeUnit.SECONDS.toMillis(config.warmupSeconds));
+        recording = true;
+        long started = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(config.durationSeconds));
+        recording = false;
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        running = false;
+        pool.shutdown();
+        pool.awaitTermination(30, TimeUnit.SECONDS);
+        httpClient.close();
+
+        Map<String, Object> report = report(elapsedSeconds);
+        print(report);
+        File out = new File("target/load-report-" + config.threadMode + ".json");
+        out.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(out, report);
+        System.out.println("Load report written to " + out.getPath());
+        return report;
+    }
+
+    private void worker(Long userId, Random random, CountDownLatch loggedIn) {
+        String token;
+        try {
+            token = login(dataset.empIds.get(userId));
+        } catch (Exception e) {
+            System.err.println("Load driver login failed for user " + userId + ": " + e.getMessage());
+            return;
+        } finally {
+            loggedIn.countDown();
+        }
+
+        List<Long> teams = dataset.teamsByUser.getOrDefault(userId, Collections.emptyList());
+        List<Long> assigned = dataset.activitiesByAssignee.getOrDefault(userId, Collections.emptyList());
+        int totalWeight = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            totalWeight += endpoint.weight;
+        }
+
+        while (running) {
+            Endpoint endpoint = pick(random, totalWeight);
+            String path = endpoint.template;
+            String body = null;
+            if (path.contains("{id}")) {
+                if (assigned.isEmpty()) {
+                    continue;
+                }
+                path = path.replace("{id}", String.valueOf(assigned.get(random.nextInt(assigned.size()))));
+            }
+            if (path.contains("{teamId}")) {
+                if (teams.isEmpty()) {
+                    continue;
+                }
+                path = path.replace("{teamId}", String.valueOf(teams.get(random.nextInt(teams.size()))));
+            }
+            if (endpoint == Endpoint.ADD_REMARK) {
+                body = "{\"text\":\"Load test remark " + random.nextInt(1_000_000) + "\"}";
+            } else if (endpoint == Endpoint.UPDATE_STATUS) {
+                body = "{\"status\":\"" + STATUSES[random.nextInt(STATUSES.length)] + "\"}";
+            }
+
+            long started = System.nanoTime();
+            int status;
+            try {
+                status = send(endpoint.method, path, body, token, null);
+            } catch (IOException e) {
+                status = -1;
+            }
+            long micros = (System.nanoTime() - started) / 1000;
+            if (recording) {
+                Recorder recorder = recorders.get(endpoint);
+                recorder.latencies.add(micros);
+                if (status < 200 || status >= 300) {
+                    recorder.errors.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private Endpoint pick(Random random, int totalWeight) {
+        int roll = random.nextInt(totalWeight);
+        for (Endpoint endpoint : Endpoint.values()) {
+            roll -= endpoint.weight;
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        return Endpoint.MY_ACTIVITIES;
+    }
+
+    private String login(String empId) throws IOException {
+        Map<String, String> request = new HashMap<>();
+        request.put("empId", empId);
+        request.put("password", password);
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        int status = send("POST", "/api/auth/login", objectMapper.writeValueAsString(request), null, response);
+        if (status != 200) {
+            throw new IOException("HTTP " + status);
+        }
+        return (String) objectMapper.readValue(response.toByteArray(), Map.class).get("token");
+    }
+
+    private int send(String method, String path, String body, String token, OutputStream response) throws IOException {
+        RequestBuilder request = RequestBuilder.create(method).setUri(baseUrl + path);
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            request.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+        }
+        try (CloseableHttpResponse httpResponse = httpClient.execute(request.build())) {
+            // Always consume the body so the pooled connection is reused
+            if (httpResponse.getEntity() != null) {
+                if (response != null) {
+                    httpResponse.getEntity().writeTo(response);
+                } else {
+                    EntityUtils.consume(httpResponse.getEntity());
+                }
+            }
+            return httpResponse.getStatusLine().getStatusCode();
+        }
+    }
+
+    private Map<String, Object> report(double elapsedSeconds) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("threadMode", config.threadMode);
+        report.put("threads", config.threads);
+        report.put("durationSeconds", elapsedSeconds);
+        long totalRequests = 0;
+        long totalErrors = 0;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            Recorder recorder = recorders.get(endpoint);
+            long[] sorted;
+            synchronized (recorder.latencies) {
+                sorted = new long[recorder.latencies.size()];
+                for (int i = 0; i < sorted.length; i++) {
+                    sorted[i] = recorder.latencies.get(i);
+                }
+            }
+            Arrays.sort(sorted);
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", sorted.length);
+            stats.put("errors", recorder.errors.get());
+            stats.put("throughput", sorted.length / elapsedSeconds);
+            stats.put("p50Ms", percentile(sorted, 0.50) / 1000.0);
+            stats.put("p99Ms", percentile(sorted, 0.99) / 1000.0);
+            stats.put("maxMs", (sorted.length == 0 ? 0 : sorted[sorted.length - 1]) / 1000.0);
+            endpoints.put(endpoint.label(), stats);
+            totalRequests += sorted.length;
+            totalErrors += recorder.errors.get();
+        }
+        report.put("requests", totalRequests);
+        report.put("errors", totalErrors);
+        report.put("throughput", totalRequests / elapsedSeconds);
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> report) {
+        System.out.println(String.format("%-36s %9s %7s %9s %9s %9s %9s",
+            "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms"));
+        Map<String, Object> endpoints = (Map<String, Object>) report.get("endpoints");
+        for (Map.Entry<String, Object> entry : endpoints.entrySet()) {
+            Map<String, Object> stats = (Map<String, Object>) entry.getValue();
+            System.out.println(String.format("%-36s %9d %7d %9.1f %9.2f %9.2f %9.2f", entry.getKey(),
+                stats.get("requests"), stats.get("errors"), stats.get("throughput"),
+                stats.get("p50Ms"), stats.get("p99Ms"), stats.get("maxMs")));
+        }
+        System.out.println(String.format("%-36s %9d %7d %9.1f", "total",
+            report.get("requests"), report.get("errors"), report.get("throughput")));
+    }
+}
@@ -0,0 +1,63 @@
+package com.taskmanagement.load;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end throughput run against the full application on an in-memory
+ * database. Skipped in normal builds; run with
+ *
+ *   mvn test -Dtest=LoadHarnessTest -Dload.enabled=true [-Dload.threads=32 -Dload.duration-seconds=60 ...]
+ *
+ * Dataset sizes and driver settings are read from load.* system properties
+ * (see DatasetGenerator.Config and LoadDriver.Config). Results are printed and
+ * written to target/load-report-platform.json; VirtualThreadLoadHarnessTest
+ * repeats the run in virtual-thread mode for comparison.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+@DirtiesContext
+class LoadHarnessTest {
+
+    private static final String PASSWORD = "load-test-password";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.threads.virtual:false}")
+    private boolean virtualThreads;
+
+    @Test
+    void replayEndpointMix() throws Exception {
+        DatasetGenerator.Dataset dataset = new DatasetGenerator(jdbcTemplate, new DatasetGenerator.Config())
+            .generate(passwordEncoder.encode(PASSWORD));
+
+        LoadDriver.Config config = new LoadDriver.Config();
+        config.threadMode = virtualThreads ? "virtual" : "platform";
+        Map<String, Object> report = new LoadDriver("http://localhost:" + port, dataset, PASSWORD, config).run();
+
+        long requests = ((Number) report.get("requests")).longValue();
+        long errors = ((Number) report.get("errors")).longValue();
+        assertTrue(requests > 0, "No requests completed");
+        assertTrue(errors * 100 <= requests, "More than 1% of requests failed: " + errors + " of " + requests);
+    }
+}
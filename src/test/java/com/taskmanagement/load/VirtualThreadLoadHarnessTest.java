@@ -0,0 +1,26 @@
+package com.taskmanagement.load;
+
+import com.taskmanagement.util.VirtualThreads;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * The LoadHarnessTest run with app.threads.virtual=true, reported to
+ * target/load-report-virtual.json. Needs a Java 21 runtime; run both with
+ *
+ *   mvn -Pjava21 test -Dtest='*LoadHarnessTest' -Dload.enabled=true
+ */
+@ActiveProfiles("loadtest")
+@TestPropertySource(properties = "app.threads.virtual=true")
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+@EnabledIf("virtualThreadsSupported")
+@DirtiesContext
+class VirtualThreadLoadHarnessTest extends LoadHarnessTest {
+
+    static boolean virtualThreadsSupported() {
+        return VirtualThreads.isSupported();
+    }
+}
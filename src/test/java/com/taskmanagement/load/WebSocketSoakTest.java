@@ -0,0 +1,314 @@
+package com.taskmanagement.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanagement.service.NotificationService;
+import com.taskmanagement.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Soak run for the notification WebSocket: opens one authenticated
+ * connection per generated user on /ws/notifications, then has several
+ * producer threads push notification bursts through NotificationService at
+ * the same time, as concurrent activity updates would. Skipped in normal
+ * builds; run with
+ *
+ *   mvn test -Dtest=WebSocketSoakTest -Dsoak.enabled=true [-Dsoak.clients=5000 -Dsoak.bursts=50 ...]
+ *
+ * Reports end-to-end delivery latency (bulk call start to client receipt),
+ * notifications that never arrived, heap growth over the run, and how long
+ * the producer threads spent blocked or waiting while sending. Results are
+ * printed and written to target/soak-report.json.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+@EnabledIfSystemProperty(named = "soak.enabled", matches = "true")
+class WebSocketSoakTest {
+
+    private static final String TITLE = "Soak Test";
+
+    private final int clients = Integer.getInteger("soak.clients", 2000);
+    private final int producers = Integer.getInteger("soak.producers", 4);
+    private final int bursts = Integer.getInteger("soak.bursts", 20);
+    private final int burstSize = Integer.getInteger("soak.burst-size", 500);
+    private final long burstIntervalMs = Long.getLong("soak.burst-interval-ms", 250L);
+    private final int connectConcurrency = Integer.getInteger("soak.connect-concurrency", 200);
+    private final int drainSeconds = Integer.getInteger("soak.drain-seconds", 15);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong expected = new AtomicLong();
+    // Deliveries per burst id, to tell dropped bursts from slow ones
+    private final Map<Integer, AtomicInteger> deliveredByBurst = new ConcurrentHashMap<>();
+
+    @Test
+    void soakNotificationSockets() throws Exception {
+        DatasetGenerator.Config config = new DatasetGenerator.Config();
+        config.users = clients;
+        config.teams = 1;
+        config.membersPerTeam = 1;
+        config.activitiesPerTeam = 1;
+        config.notificationsPerUser = 0;
+        DatasetGenerator.Dataset dataset = new DatasetGenerator(jdbcTemplate, config)
+            .generate(passwordEncoder.encode("soak-test-password"));
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long heapBefore = usedHeapAfterGc(memory);
+
+        List<WebSocketSession> sessions = connect(dataset);
+        long heapConnected = usedHeapAfterGc(memory);
+        System.out.println("Soak connected " + sessions.size() + " of " + clients + " clients, heap +"
+            + (heapConnected - heapBefore) / (1024 * 1024) + " MB");
+
+        double failuresBefore = sendFailures();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads.isThreadContentionMonitoringSupported()) {
+            threads.setThreadContentionMonitoringEnabled(true);
+        }
+        long[] contention = produce(dataset.userIds, threads);
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(drainSeconds);
+        while (received.get() < expected.get() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        long heapAfter = usedHeapAfterGc(memory);
+
+        for (WebSocketSession session : sessions) {
+            if (session.isOpen()) {
+                session.close(CloseStatus.NORMAL);
+            }
+        }
+
+        Map<String, Object> report = report(sessions.size(), heapBefore, heapConnected, heapAfter,
+            contention, sendFailures() - failuresBefore);
+        print(report);
+        File out = new File("target/soak-report.json");
+        out.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(out, report);
+        System.out.println("Soak report written to " + out.getPath());
+
+        assertTrue(sessions.size() == clients, "Only " + sessions.size() + " of " + clients + " clients connected");
+        assertTrue(received.get() > 0, "No notifications were delivered");
+    }
+
+    private List<WebSocketSession> connect(DatasetGenerator.Dataset dataset) throws Exception {
+        StandardWebSocketClient client = new StandardWebSocketClient();
+        List<WebSocketSession> sessions = new ArrayList<>();
+        List<Future<WebSocketSession>> pending = new ArrayList<>();
+        for (Long userId : dataset.userIds) {
+            Map<String, Object> claims = new HashMap<>();
+            claims.put("userId", userId);
+            claims.put("empId", dataset.empIds.get(userId));
+            claims.put("role", "user");
+            String token = jwtUtil.generateToken(dataset.empIds.get(userId), claims);
+            pending.add(client.doHandshake(new SoakClientHandler(),
+                "ws://localhost:" + port + "/ws/notifications?token=" + token));
+            // Keep a bounded number of handshakes in flight
+            if (pending.size() >= connectConcurrency) {
+                collect(pending, sessions);
+            }
+        }
+        collect(pending, sessions);
+        // Connection confirmations are counted as received; start from zero
+        Thread.sleep(500);
+        received.set(0);
+        latencies.clear();
+        return sessions;
+    }
+
+    private void collect(List<Future<WebSocketSession>> pending, List<WebSocketSession> sessions) {
+        for (Future<WebSocketSession> future : pending) {
+            try {
+                sessions.add(future.get(30, TimeUnit.SECONDS));
+            } catch (Exception e) {
+                System.err.println("Soak client failed to connect: " + e.getMessage());
+            }
+        }
+        pending.clear();
+    }
+
+    /**
+     * Runs the bursts on the producer threads and returns their combined
+     * {blockedCount, blockedMillis, waitedCount, waitedMillis, cpuMillis}.
+     */
+    private long[] produce(List<Long> userIds, ThreadMXBean threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> results = new ArrayList<>();
+        AtomicInteger nextBurst = new AtomicInteger();
+        for (int p = 0; p < producers; p++) {
+            long seed = 42L + p;
+            results.add(pool.submit(() -> {
+                long id = Thread.currentThread().getId();
+                ThreadInfo before = threads.getThreadInfo(id);
+                long cpuBefore = threads.getCurrentThreadCpuTime();
+                Random random = new Random(seed);
+                start.await();
+                int burst;
+                while ((burst = nextBurst.getAndIncrement()) < bursts) {
+                    List<Long> recipients = new ArrayList<>(userIds);
+                    Collections.shuffle(recipients, random);
+                    recipients = recipients.subList(0, Math.min(burstSize, recipients.size()));
+                    expected.addAndGet(recipients.size());
+                    deliveredByBurst.put(burst, new AtomicInteger());
+                    String message = burst + ":" + System.nanoTime();
+                    notificationService.createBulkNotifications(recipients, TITLE, message, "SOAK", null, null);
+                    Thread.sleep(burstIntervalMs);
+                }
+                ThreadInfo after = threads.getThreadInfo(id);
+                return new long[]{
+                    after.getBlockedCount() - before.getBlockedCount(),
+                    Math.max(0, after.getBlockedTime() - before.getBlockedTime()),
+                    after.getWaitedCount() - before.getWaitedCount(),
+                    Math.max(0, after.getWaitedTime() - before.getWaitedTime()),
+                    (threads.getCurrentThreadCpuTime() - cpuBefore) / 1_000_000};
+            }));
+        }
+        start.countDown();
+        long[] total = new long[5];
+        for (Future<long[]> result : results) {
+            long[] values = result.get();
+            for (int i = 0; i < total.length; i++) {
+                total[i] += values[i];
+            }
+        }
+        pool.shutdown();
+        return total;
+    }
+
+    private class SoakClientHandler extends TextWebSocketHandler {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+            long now = System.nanoTime();
+            Map<String, Object> payload = objectMapper.readValue(message.getPayload(), Map.class);
+            if (!"notification".equals(payload.get("type"))) {
+                return;
+            }
+            Map<String, Object> data = (Map<String, Object>) payload.get("data");
+            String[] parts = String.valueOf(data.get("message")).split(":");
+            if (parts.length != 2) {
+                return;
+            }
+            latencies.add((now - Long.parseLong(parts[1])) / 1000);
+            AtomicInteger delivered = deliveredByBurst.get(Integer.parseInt(parts[0]));
+            if (delivered != null) {
+                delivered.incrementAndGet();
+            }
+            received.incrementAndGet();
+        }
+    }
+
+    private Map<String, Object> report(int connected, long heapBefore, long heapConnected, long heapAfter,
+                                       long[] contention, double sendFailures) {
+        long[] sorted;
+        synchronized (latencies) {
+            sorted = new long[latencies.size()];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = latencies.get(i);
+            }
+        }
+        Arrays.sort(sorted);
+        int incompleteBursts = 0;
+        for (AtomicInteger delivered : deliveredByBurst.values()) {
+            if (delivered.get() < Math.min(burstSize, clients)) {
+                incompleteBursts++;
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("clients", clients);
+        report.put("connected", connected);
+        report.put("producers", producers);
+        report.put("bursts", bursts);
+        report.put("burstSize", burstSize);
+        report.put("expected", expected.get());
+        report.put("received", received.get());
+        report.put("dropped", expected.get() - received.get());
+        report.put("incompleteBursts", incompleteBursts);
+        report.put("sendFailures", (long) sendFailures);
+        report.put("p50Ms", LoadDriver.percentile(sorted, 0.50) / 1000.0);
+        report.put("p99Ms", LoadDriver.percentile(sorted, 0.99) / 1000.0);
+        report.put("p999Ms", LoadDriver.percentile(sorted, 0.999) / 1000.0);
+        report.put("maxMs", (sorted.length == 0 ? 0 : sorted[sorted.length - 1]) / 1000.0);
+        report.put("heapBeforeMb", heapBefore / (1024 * 1024));
+        report.put("heapPerConnectionKb", connected == 0 ? 0 : (heapConnected - heapBefore) / 1024 / connected);
+        report.put("heapGrowthMb", (heapAfter - heapConnected) / (1024 * 1024));
+        report.put("producerBlockedCount", contention[0]);
+        report.put("producerBlockedMs", contention[1]);
+        report.put("producerWaitedCount", contention[2]);
+        report.put("producerWaitedMs", contention[3]);
+        report.put("producerCpuMs", contention[4]);
+        return report;
+    }
+
+    private static void print(Map<String, Object> report) {
+        for (Map.Entry<String, Object> entry : report.entrySet()) {
+            System.out.println(String.format("%-22s %s", entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private double sendFailures() {
+        return meterRegistry.counter("app.websocket.send.failures").count();
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) throws InterruptedException {
+        System.gc();
+        Thread.sleep(200);
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,164 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.model.Attachment;
+import com.taskmanagement.repository.AttachmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AttachmentDownloadServiceTest {
+
+    private static final String SHA256 = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+    private static final String CONTENT = "0123456789abcdefghij";
+    private static final String ETAG = "\"" + SHA256 + "\"";
+
+    @TempDir
+    Path uploadDir;
+
+    private AttachmentDownloadService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InMemoryStorageBackend storage = new InMemoryStorageBackend();
+        storage.put(Files.write(uploadDir.resolve("upload-1.tmp"), CONTENT.getBytes(StandardCharsets.UTF_8)), SHA256);
+
+        AttachmentRepository attachmentRepository = mock(AttachmentRepository.class);
+        when(attachmentRepository.findByFilename(anyString())).thenReturn(Optional.empty());
+        when(attachmentRepository.findByFilename("a1.txt"))
+            .thenReturn(Optional.of(attachment("a1.txt", "plan.txt", "text/plain")));
+        when(attachmentRepository.findByFilename("b2.md"))
+            .thenReturn(Optional.of(attachment("b2.md", "notes.md", "text/markdown")));
+
+        service = new AttachmentDownloadService();
+        ReflectionTestUtils.setField(service, "attachmentRepository", attachmentRepository);
+        ReflectionTestUtils.setField(service, "storage", storage);
+        ReflectionTestUtils.setField(service, "cacheMaxAgeSeconds", 3600L);
+    }
+
+    @Test
+    void attachmentsSharingABlobKeepTheirOwnNameAndType() throws Exception {
+        MockHttpServletResponse first = serve("a1.txt", new MockHttpServletRequest());
+        MockHttpServletResponse second = serve("b2.md", new MockHttpServletRequest());
+
+        assertEquals(200, first.getStatus());
+        assertEquals(CONTENT, first.getContentAsString());
+        assertEquals("text/plain", first.getContentType());
+        assertTrue(first.getHeader(HttpHeaders.CONTENT_DISPOSITION).contains("filename=\"plan.txt\""));
+        assertEquals(ETAG, first.getHeader(HttpHeaders.ETAG));
+
+        assertEquals(200, second.getStatus());
+        assertEquals(CONTENT, second.getContentAsString());
+        assertEquals("text/markdown", second.getContentType());
+        assertTrue(second.getHeader(HttpHeaders.CONTENT_DISPOSITION).contains("filename=\"notes.md\""));
+    }
+
+    @Test
+    void unknownNamesAndBareDigestsAreNotFound() throws Exception {
+        assertEquals(404, serve("missing.txt", new MockHttpServletRequest()).getStatus());
+        assertEquals(404, serve(SHA256, new MockHttpServletRequest()).getStatus());
+    }
+
+    @Test
+    void singleRangeIsPartialContent() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+
+        MockHttpServletResponse response = serve("a1.txt", request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 5-9/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(5, response.getContentLengthLong());
+        assertEquals("56789", response.getContentAsString());
+    }
+
+    @Test
+    void multipleRangesAreSentAsByteranges() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-2, 10-12, -3");
+
+        MockHttpServletResponse response = serve("a1.txt", request);
+
+        assertEquals(206, response.getStatus());
+        String contentType = response.getContentType();
+        assertTrue(contentType.startsWith("multipart/byteranges; boundary="));
+        String boundary = contentType.substring(contentType.indexOf("boundary=") + "boundary=".length());
+        String expected = "\r\n--" + boundary + "\r\n"
+            + "Content-Type: text/plain\r\n"
+            + "Content-Range: bytes 0-2/20\r\n\r\n"
+            + "012"
+            + "\r\n--" + boundary + "\r\n"
+            + "Content-Type: text/plain\r\n"
+            + "Content-Range: bytes 10-12/20\r\n\r\n"
+            + "abc"
+            + "\r\n--" + boundary + "\r\n"
+            + "Content-Type: text/plain\r\n"
+            + "Content-Range: bytes 17-19/20\r\n\r\n"
+            + "hij"
+            + "\r\n--" + boundary + "--\r\n";
+        assertEquals(expected, response.getContentAsString());
+    }
+
+    @Test
+    void unsatisfiableRangeIsRejected() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=50-60");
+
+        MockHttpServletResponse response = serve("a1.txt", request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void staleIfRangeGetsTheWholeFile() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"outdated\"");
+
+        MockHttpServletResponse response = serve("a1.txt", request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    void matchingEtagIsNotModified() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", " + ETAG);
+
+        MockHttpServletResponse response = serve("b2.md", request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals("", response.getContentAsString());
+    }
+
+    private MockHttpServletResponse serve(String filename, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.serve(filename, request, response);
+        return response;
+    }
+
+    private static Attachment attachment(String filename, String originalName, String contentType) {
+        Attachment attachment = new Attachment();
+        attachment.setFilename(filename);
+        attachment.setOriginalName(originalName);
+        attachment.setContentType(contentType);
+        attachment.setContentHash(SHA256);
+        return attachment;
+    }
+}
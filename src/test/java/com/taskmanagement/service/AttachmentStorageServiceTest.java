@@ -0,0 +1,308 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.model.Attachment;
+import com.taskmanagement.repository.AttachmentRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the blob bookkeeping against an embedded PostgreSQL, so the upserts
+ * and row locks are exactly the ones production issues.
+ */
+@SpringJUnitConfig
+class AttachmentStorageServiceTest {
+
+    private static final byte[] CONTENT = "same bytes".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    static Path uploadDir;
+
+    @Configuration
+    @Import({AttachmentStorageService.class, ThumbnailService.class})
+    static class Config {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres postgres() throws IOException {
+            return EmbeddedPostgres.start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres postgres) {
+            return postgres.getPostgresDatabase();
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("CREATE TABLE attachment_blobs (sha256 VARCHAR(64) PRIMARY KEY, file_size BIGINT, " +
+                "created_at TIMESTAMP, last_used_at TIMESTAMP)");
+            jdbcTemplate.execute("CREATE TABLE attachments (id BIGSERIAL PRIMARY KEY, filename VARCHAR(255), " +
+                "content_hash VARCHAR(64))");
+            return jdbcTemplate;
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        InMemoryStorageBackend storageBackend() {
+            return new InMemoryStorageBackend();
+        }
+
+        @Bean
+        AttachmentRepository attachmentRepository(JdbcTemplate jdbcTemplate) {
+            AttachmentRepository attachmentRepository = mock(AttachmentRepository.class);
+            when(attachmentRepository.countByContentHash(anyString())).thenAnswer(invocation -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM attachments WHERE content_hash = ?", Long.class, invocation.getArgument(0, String.class)));
+            return attachmentRepository;
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("app.upload.dir", uploadDir::toString);
+        registry.add("app.thumbnails.sizes", () -> 64);
+    }
+
+    @Autowired
+    private AttachmentStorageService service;
+
+    @Autowired
+    private InMemoryStorageBackend storage;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactions;
+
+    @BeforeEach
+    void setUp() {
+        transactions = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        jdbcTemplate.execute("TRUNCATE attachment_blobs, attachments");
+        storage.clear();
+        try (Stream<Path> files = Files.list(uploadDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (Files.isRegularFile(file)) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    void identicalUploadsShareOneBlobButKeepTheirOwnNames() throws IOException {
+        AttachmentStorageService.StoredFile report = write("report.pdf");
+        AttachmentStorageService.StoredFile copy = write("copy-of-report.pdf");
+
+        transactions.execute(status -> {
+            registerAll(Arrays.asList(report, copy));
+            insertAttachment(report);
+            insertAttachment(copy);
+            return null;
+        });
+
+        assertEquals(report.getSha256(), copy.getSha256());
+        assertNotEquals(report.getFilename(), copy.getFilename());
+        assertNotEquals(report.getSha256(), report.getFilename());
+        assertTrue(report.getFilename().endsWith(".pdf"));
+        assertTrue(copy.isDeduplicated() != report.isDeduplicated());
+
+        assertTrue(storage.exists(report.getSha256()));
+        assertFalse(storage.exists(report.getFilename()));
+        assertEquals(CONTENT.length, storage.size(report.getSha256()));
+        assertEquals(1, count("SELECT COUNT(*) FROM attachment_blobs"));
+        assertEquals(report.getSha256(), AttachmentStorageService.storageKey(attachment(report)));
+        assertEquals(copy.getSha256(), AttachmentStorageService.storageKey(attachment(copy)));
+        assertEquals(0, stagedUploads());
+    }
+
+    @Test
+    void reuploadTouchesTheBlobRowButKeepsItsSizeAndCreationTime() throws IOException {
+        AttachmentStorageService.StoredFile original = write("notes.txt");
+        transactions.execute(status -> {
+            registerAll(Collections.singletonList(original));
+            insertAttachment(original);
+            return null;
+        });
+        LocalDateTime created = LocalDateTime.now().minusDays(1).withNano(0);
+        jdbcTemplate.update("UPDATE attachment_blobs SET created_at = ?, last_used_at = ?",
+            Timestamp.valueOf(created), Timestamp.valueOf(created));
+
+        AttachmentStorageService.StoredFile reupload = write("notes-again.txt");
+        transactions.execute(status -> {
+            registerAll(Collections.singletonList(reupload));
+            insertAttachment(reupload);
+            return null;
+        });
+
+        assertTrue(reupload.isDeduplicated());
+        assertEquals(Timestamp.valueOf(created), jdbcTemplate.queryForObject(
+            "SELECT created_at FROM attachment_blobs", Timestamp.class));
+        assertTrue(jdbcTemplate.queryForObject("SELECT last_used_at FROM attachment_blobs", Timestamp.class)
+            .after(Timestamp.valueOf(created)));
+        assertEquals(CONTENT.length, count("SELECT file_size FROM attachment_blobs"));
+    }
+
+    @Test
+    void blobOutlivesDeleteThatRacesAReupload() throws Exception {
+        AttachmentStorageService.StoredFile original = write("notes.txt");
+        transactions.execute(status -> {
+            registerAll(Collections.singletonList(original));
+            insertAttachment(original);
+            return null;
+        });
+        String sha256 = original.getSha256();
+        jdbcTemplate.update("UPDATE attachment_blobs SET last_used_at = ?",
+            Timestamp.valueOf(LocalDateTime.now().minusHours(1)));
+
+        AttachmentStorageService.StoredFile reupload = write("notes-again.txt");
+        AtomicReference<Throwable> deleteFailure = new AtomicReference<>();
+        Thread delete = new Thread(() -> {
+            try {
+                transactions.execute(status -> {
+                    jdbcTemplate.update("DELETE FROM attachments WHERE filename = ?", original.getFilename());
+                    service.release(sha256);
+                    return null;
+                });
+            } catch (Throwable e) {
+                deleteFailure.set(e);
+            }
+        });
+
+        transactions.execute(status -> {
+            // The re-upload holds the blob row; the delete commits and its collection has to wait
+            registerAll(Collections.singletonList(reupload));
+            assertTrue(reupload.isDeduplicated());
+            delete.start();
+            awaitLockWait(delete);
+            insertAttachment(reupload);
+            return null;
+        });
+        delete.join(10000);
+
+        assertNull(deleteFailure.get());
+        assertTrue(storage.exists(sha256));
+        assertEquals(1, count("SELECT COUNT(*) FROM attachment_blobs"));
+        assertEquals(1, count("SELECT COUNT(*) FROM attachments"));
+
+        // Once the last reference is gone the blob is collected
+        transactions.execute(status -> {
+            jdbcTemplate.update("DELETE FROM attachments");
+            service.release(sha256);
+            return null;
+        });
+        assertFalse(storage.exists(sha256));
+        assertEquals(0, count("SELECT COUNT(*) FROM attachment_blobs"));
+    }
+
+    @Test
+    void rolledBackUploadLeavesNoBlob() throws IOException {
+        AttachmentStorageService.StoredFile file = write("draft.txt");
+
+        transactions.execute(status -> {
+            registerAll(Collections.singletonList(file));
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertFalse(storage.exists(file.getSha256()));
+        assertEquals(0, count("SELECT COUNT(*) FROM attachment_blobs"));
+        assertEquals(1, stagedUploads());
+    }
+
+    private AttachmentStorageService.StoredFile write(String originalName) throws IOException {
+        return service.write(new ByteArrayInputStream(CONTENT), originalName, "text/plain");
+    }
+
+    private void registerAll(List<AttachmentStorageService.StoredFile> files) {
+        try {
+            service.registerAll(files);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void insertAttachment(AttachmentStorageService.StoredFile file) {
+        jdbcTemplate.update("INSERT INTO attachments (filename, content_hash) VALUES (?, ?)",
+            file.getFilename(), file.getSha256());
+    }
+
+    private static Attachment attachment(AttachmentStorageService.StoredFile file) {
+        Attachment attachment = new Attachment();
+        attachment.setFilename(file.getFilename());
+        attachment.setContentHash(file.getSha256());
+        return attachment;
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private long stagedUploads() throws IOException {
+        try (Stream<Path> files = Files.list(uploadDir)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("upload-")).count();
+        }
+    }
+
+    // The waiting thread blocks in a socket read, so ask the server for an ungranted lock instead
+    private void awaitLockWait(Thread thread) {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (count("SELECT COUNT(*) FROM pg_locks WHERE NOT granted") == 0) {
+            if (!thread.isAlive() || System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Delete did not wait for the blob row lock");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
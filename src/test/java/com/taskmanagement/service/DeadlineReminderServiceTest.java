@@ -0,0 +1,101 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.model.Activity;
+import com.taskmanagement.model.Team;
+import com.taskmanagement.model.User;
+import com.taskmanagement.repository.ActivityRepository;
+import com.taskmanagement.repository.NotificationRepository;
+import com.taskmanagement.repository.TeamRepository;
+import com.taskmanagement.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reminders are claimed in the database, so a restarted node (a fresh timing
+ * wheel) or a node holding a stale copy of the activity cannot send them again.
+ */
+@SpringBootTest(properties = {
+    "app.reminders.tick-ms=20",
+    "app.reminders.reload-ms=3600000"
+})
+@ActiveProfiles("test")
+@DirtiesContext
+class DeadlineReminderServiceTest {
+
+    private static final String DUE_SOON = "ACTIVITY_DUE_SOON";
+    private static final String OVERDUE = "ACTIVITY_OVERDUE";
+
+    @Autowired
+    private DeadlineReminderService deadlineReminderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Test
+    void remindersAreSentOnceAcrossRestartsAndStaleNodes() throws InterruptedException {
+        User creator = new User();
+        creator.setEmpId("REMINDER-CREATOR");
+        creator.setName("Reminder creator");
+        creator.setPassword("unused");
+        creator.setRole("user");
+        creator = userRepository.save(creator);
+
+        Team team = new Team();
+        team.setName("Reminders");
+        team.setCreatedBy(creator.getId());
+        team = teamRepository.save(team);
+
+        Activity dueSoon = activity("Due soon", team, creator, LocalDateTime.now().plusHours(3));
+        // Went overdue while no node was running
+        Activity missed = activity("Missed", team, creator, LocalDateTime.now().minusHours(1));
+
+        deadlineReminderService.loadHorizon();
+        awaitCount(creator, DUE_SOON, 1);
+        awaitCount(creator, OVERDUE, 1);
+
+        // Restart: a new wheel reloads the same horizon
+        deadlineReminderService.init();
+        deadlineReminderService.loadHorizon();
+        // Another node still holding the activities as loaded before the reminders went out
+        deadlineReminderService.reschedule(dueSoon);
+        deadlineReminderService.reschedule(missed);
+        Thread.sleep(500);
+
+        assertEquals(1, count(creator, DUE_SOON));
+        assertEquals(1, count(creator, OVERDUE));
+    }
+
+    private Activity activity(String name, Team team, User creator, LocalDateTime targetDate) {
+        Activity activity = new Activity(name, name, team, creator.getId());
+        activity.setTargetDate(targetDate);
+        return activityRepository.save(activity);
+    }
+
+    private void awaitCount(User user, String type, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (count(user, type) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, count(user, type));
+    }
+
+    private int count(User user, String type) {
+        return notificationRepository.findByUserIdAndTypeOrderByCreatedAtDesc(user.getId(), type).size();
+    }
+}
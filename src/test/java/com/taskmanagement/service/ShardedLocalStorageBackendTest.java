@@ -0,0 +1,61 @@
+package com.taskmanagement.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedLocalStorageBackendTest {
+
+    private static final String KEY = "3fa2c0ffee";
+
+    @TempDir
+    Path root;
+
+    private ShardedLocalStorageBackend storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new ShardedLocalStorageBackend();
+        ReflectionTestUtils.setField(storage, "uploadDir", root.toString());
+    }
+
+    @Test
+    void storesUnderTwoLevelPrefix() throws Exception {
+        Path staged = Files.write(root.resolve("upload-1.tmp"), "data".getBytes(StandardCharsets.UTF_8));
+
+        storage.put(staged, KEY);
+
+        assertTrue(Files.isRegularFile(root.resolve("3f").resolve("a2").resolve(KEY)));
+        assertFalse(Files.exists(staged));
+        assertEquals(4, storage.size(KEY));
+    }
+
+    @Test
+    void findsAndRehomesFlatLayoutFiles() throws Exception {
+        Files.write(root.resolve(KEY), "data".getBytes(StandardCharsets.UTF_8));
+        Files.write(root.resolve("upload-2.tmp"), new byte[0]);
+
+        assertTrue(storage.exists(KEY));
+        assertEquals(Arrays.asList(KEY), storage.legacyKeys());
+
+        assertTrue(storage.rehome(KEY));
+        assertFalse(storage.rehome(KEY));
+        assertTrue(storage.legacyKeys().isEmpty());
+        assertEquals(root.resolve("3f").resolve("a2").resolve(KEY), storage.localPath(KEY));
+    }
+
+    @Test
+    void hashesNamesWithoutHexPrefix() {
+        assertTrue(ShardedLocalStorageBackend.shardPrefix("report.pdf").matches("[0-9a-f]{4}"));
+    }
+}
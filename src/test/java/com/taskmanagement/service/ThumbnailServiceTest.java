@@ -0,0 +1,114 @@
+package com.taskmanagement.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+@SpringJUnitConfig
+class ThumbnailServiceTest {
+
+    private static final String IMAGE = "3fa2c0ffee";
+    private static final String DOCUMENT = "9b1dd0c5";
+
+    @TempDir
+    static Path uploadDir;
+
+    @Configuration
+    @Import(ThumbnailService.class)
+    static class Config {
+
+        @Bean
+        InMemoryStorageBackend storageBackend() {
+            return spy(new InMemoryStorageBackend());
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("app.upload.dir", uploadDir::toString);
+        registry.add("app.thumbnails.sizes", () -> 64);
+    }
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private InMemoryStorageBackend storage;
+
+    @AfterEach
+    void tearDown() {
+        storage.clear();
+        clearInvocations(storage);
+    }
+
+    @Test
+    void thumbnailsAreKeptInTheStorageBackend() throws IOException {
+        Path source = uploadDir.resolve("source.png");
+        ImageIO.write(new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB), "png", source.toFile());
+        storage.put(source, IMAGE);
+
+        String thumb = thumbnailService.getOrCreate(IMAGE, 64);
+
+        assertEquals(ThumbnailService.thumbnailKey(IMAGE, 64), thumb);
+        try (InputStream content = Channels.newInputStream(storage.open(thumb))) {
+            BufferedImage image = ImageIO.read(content);
+            assertEquals(64, image.getWidth());
+            assertEquals(32, image.getHeight());
+        }
+        assertEquals(0, filesIn(uploadDir));
+
+        thumbnailService.evict(IMAGE);
+        assertFalse(storage.exists(thumb));
+        assertTrue(storage.exists(IMAGE));
+    }
+
+    @Test
+    void sourcesThatAreNotImagesAreOnlyReadOnce() throws IOException {
+        Path source = uploadDir.resolve("source.txt");
+        Files.write(source, "not an image".getBytes(StandardCharsets.UTF_8));
+        storage.put(source, DOCUMENT);
+
+        assertNull(thumbnailService.getOrCreate(DOCUMENT, 64));
+        assertTrue(storage.exists(ThumbnailService.markerKey(DOCUMENT)));
+
+        clearInvocations(storage);
+        assertNull(thumbnailService.getOrCreate(DOCUMENT, 64));
+        verify(storage, never()).open(DOCUMENT);
+
+        // Collecting the blob drops the marker along with any thumbnails
+        thumbnailService.evict(DOCUMENT);
+        assertFalse(storage.exists(ThumbnailService.markerKey(DOCUMENT)));
+    }
+
+    private static long filesIn(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.taskmanagement.service;
+
+import com.taskmanagement.dto.ActivityDTO;
+import com.taskmanagement.dto.CompleteUploadRequest;
+import com.taskmanagement.dto.CreateUploadRequest;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "app.uploads.min-chunk-size-bytes=4")
+@ActiveProfiles("test")
+@DirtiesContext
+class UploadSessionServiceTest {
+
+    private static final Long USER_ID = 41L;
+    private static final Long ACTIVITY_ID = 7L;
+    private static final byte[] CONTENT = "resumable!".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private UploadSessionService uploadSessionService;
+
+    @MockBean
+    private ActivityService activityService;
+
+    @Test
+    void chunksArriveInAnyOrderAndStatusReportsTheGaps() throws IOException {
+        String id = createSession();
+
+        Map<String, Object> status = write(id, 8);
+        assertEquals(Arrays.asList(0, 1), status.get("missingChunks"));
+        assertEquals(0L, status.get("offset"));
+
+        status = write(id, 0);
+        assertEquals(Collections.singletonList(1), status.get("missingChunks"));
+        assertEquals(4L, status.get("offset"));
+
+        status = write(id, 4);
+        assertEquals(Collections.emptyList(), status.get("missingChunks"));
+        assertEquals((long) CONTENT.length, status.get("offset"));
+    }
+
+    @Test
+    void sameChunkSentTwiceInParallelIsRecordedOnce() throws Exception {
+        String id = createSession();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Map<String, Object>>> writes = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                writes.add(pool.submit(() -> {
+                    start.await();
+                    return write(id, 4);
+                }));
+            }
+            start.countDown();
+            for (Future<Map<String, Object>> write : writes) {
+                write.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Map<String, Object> status = uploadSessionService.getStatus(id, USER_ID);
+        assertEquals(1, status.get("receivedChunks"));
+        assertEquals(Arrays.asList(0, 2), status.get("missingChunks"));
+    }
+
+    @Test
+    void completionWithoutAnyChecksumIsRejected() throws IOException {
+        CreateUploadRequest request = new CreateUploadRequest();
+        request.setFileName("notes.txt");
+        request.setSize((long) CONTENT.length);
+        request.setChunkSize(4);
+        String id = (String) uploadSessionService.createSession(request, USER_ID).get("id");
+        write(id, 0);
+        write(id, 4);
+        write(id, 8);
+
+        RuntimeException failure = assertThrows(RuntimeException.class, () -> complete(id));
+        assertEquals("Invalid request: sha256 is required when it was not given at creation", failure.getMessage());
+        assertEquals("open", uploadSessionService.getStatus(id, USER_ID).get("status"));
+    }
+
+    @Test
+    void failedCompletionCanBeRetried() throws Exception {
+        String id = createSession();
+        write(id, 0);
+        write(id, 4);
+        write(id, 8);
+        when(activityService.addAttachments(eq(ACTIVITY_ID), anyList(), any()))
+            .thenThrow(new RuntimeException("Failed to attach files: disk full"))
+            .thenReturn(new ActivityDTO());
+
+        RuntimeException failure = assertThrows(RuntimeException.class, () -> complete(id));
+        assertEquals("Failed to attach files: disk full", failure.getMessage());
+        assertEquals("open", uploadSessionService.getStatus(id, USER_ID).get("status"));
+
+        complete(id);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AttachmentStorageService.StoredFile>> files = ArgumentCaptor.forClass(List.class);
+        verify(activityService, times(2)).addAttachments(eq(ACTIVITY_ID), files.capture(), any());
+        AttachmentStorageService.StoredFile stored = files.getValue().get(0);
+        assertEquals(sha256(CONTENT), stored.getSha256());
+        assertEquals(CONTENT.length, stored.getSize());
+        assertEquals("notes.txt", stored.getOriginalName());
+
+        Map<String, Object> status = uploadSessionService.getStatus(id, USER_ID);
+        assertEquals("completed", status.get("status"));
+        RuntimeException again = assertThrows(RuntimeException.class, () -> complete(id));
+        assertEquals("Invalid request: upload " + id + " is no longer open", again.getMessage());
+    }
+
+    private String createSession() throws IOException {
+        CreateUploadRequest request = new CreateUploadRequest();
+        request.setFileName("notes.txt");
+        request.setContentType("text/plain");
+        request.setSize((long) CONTENT.length);
+        request.setChunkSize(4);
+        request.setSha256(sha256(CONTENT));
+        return (String) uploadSessionService.createSession(request, USER_ID).get("id");
+    }
+
+    private Map<String, Object> write(String id, int offset) throws IOException {
+        byte[] chunk = Arrays.copyOfRange(CONTENT, offset, Math.min(offset + 4, CONTENT.length));
+        return uploadSessionService.writeChunk(id, USER_ID, offset, new ByteArrayInputStream(chunk));
+    }
+
+    private void complete(String id) throws IOException {
+        CompleteUploadRequest request = new CompleteUploadRequest();
+        request.setActivityId(ACTIVITY_ID);
+        uploadSessionService.complete(id, USER_ID, request, "token");
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(content)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
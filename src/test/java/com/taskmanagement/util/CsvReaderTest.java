@@ -0,0 +1,50 @@
+package com.taskmanagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTest {
+
+    @Test
+    void readsRecordsUntilEndOfInput() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("name,priority\nFirst,HIGH\nSecond,\n"));
+
+        assertEquals(Arrays.asList("name", "priority"), reader.readRecord());
+        assertEquals(Arrays.asList("First", "HIGH"), reader.readRecord());
+        assertEquals(Arrays.asList("Second", ""), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("\"a, b\",\"say \"\"hi\"\"\",\"two\r\nlines\"\r\nlast"));
+
+        assertEquals(Arrays.asList("a, b", "say \"hi\"", "two\r\nlines"), reader.readRecord());
+        assertEquals(Arrays.asList("last"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void crLfAndBareCrEndRecords() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,b\r\nc\rd"));
+
+        assertEquals(Arrays.asList("a", "b"), reader.readRecord());
+        assertEquals(Arrays.asList("c"), reader.readRecord());
+        assertEquals(Arrays.asList("d"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void unterminatedQuoteIsAnError() {
+        CsvReader reader = new CsvReader(new StringReader("\"open,field\n"));
+
+        assertThrows(IOException.class, reader::readRecord);
+    }
+}
@@ -0,0 +1,46 @@
+package com.taskmanagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimingWheelTest {
+
+    @Test
+    void firesOnlyExpiredTimers() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 8, 0);
+        wheel.schedule("a", 25);
+        wheel.schedule("b", 500);
+
+        assertTrue(wheel.advanceTo(20).isEmpty());
+        assertEquals(Arrays.asList("a"), wheel.advanceTo(30));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void timersBeyondOneRotationWaitForTheirTick() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 4, 0);
+        wheel.schedule("far", 90);
+
+        assertTrue(wheel.advanceTo(50).isEmpty());
+        assertEquals(Arrays.asList("far"), wheel.advanceTo(90));
+    }
+
+    @Test
+    void rescheduleAndCancelReplaceEarlierTimer() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 8, 0);
+        wheel.schedule("a", 20);
+        wheel.schedule("a", 60);
+        wheel.schedule("b", 30);
+        wheel.cancel("b");
+
+        assertTrue(wheel.advanceTo(40).isEmpty());
+        List<String> expired = wheel.advanceTo(1000);
+        assertEquals(Arrays.asList("a"), expired);
+        assertEquals(0, wheel.size());
+    }
+}
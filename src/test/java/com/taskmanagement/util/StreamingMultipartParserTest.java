@@ -0,0 +1,104 @@
+package com.taskmanagement.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingMultipartParserTest {
+
+    private static final String BOUNDARY = "----boundary7MA4YWxk";
+
+    @Test
+    void collectsFieldsAndStreamsFilesInOrder() throws IOException {
+        MockHttpServletRequest request = multipart(
+            field("name", "Quarterly report"),
+            file("files", "a.txt", "text/plain", "first file"),
+            field("name", "ignored duplicate"),
+            file("files", "b.csv", "text/csv", "x,y\n1,2\n"),
+            field("priority", "HIGH"));
+        List<String> received = new ArrayList<>();
+
+        Map<String, String> fields = new StreamingMultipartParser(1024, 4096).parse(request,
+            (fieldName, filename, contentType, content) -> received.add(fieldName + "|" + filename + "|" + contentType
+                + "|" + StreamUtils.copyToString(content, StandardCharsets.UTF_8)));
+
+        assertEquals("Quarterly report", fields.get("name"));
+        assertEquals("HIGH", fields.get("priority"));
+        assertEquals(Arrays.asList("name", "priority"), new ArrayList<>(fields.keySet()));
+        assertEquals(Arrays.asList("files|a.txt|text/plain|first file", "files|b.csv|text/csv|x,y\n1,2\n"), received);
+    }
+
+    @Test
+    void skipsFilePartsWithoutAFilename() throws IOException {
+        MockHttpServletRequest request = multipart(
+            file("files", "", "application/octet-stream", ""),
+            field("title", "No attachment"));
+        List<String> received = new ArrayList<>();
+
+        Map<String, String> fields = new StreamingMultipartParser(1024, 4096).parse(request,
+            (fieldName, filename, contentType, content) -> received.add(filename));
+
+        assertTrue(received.isEmpty());
+        assertEquals("No attachment", fields.get("title"));
+    }
+
+    @Test
+    void rejectsFilesOverTheSizeLimit() {
+        MockHttpServletRequest request = multipart(file("files", "big.bin", "application/octet-stream", "0123456789"));
+
+        assertThrows(IOException.class, () -> new StreamingMultipartParser(5, 4096).parse(request,
+            (fieldName, filename, contentType, content) -> StreamUtils.drain(content)));
+    }
+
+    @Test
+    void rejectsRequestsOverTheSizeLimit() {
+        MockHttpServletRequest request = multipart(field("description", "a description longer than the limit"));
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> new StreamingMultipartParser(1024, 64)
+            .parse(request, (fieldName, filename, contentType, content) -> StreamUtils.drain(content)));
+        assertTrue(error.getMessage().startsWith("Invalid multipart request"));
+    }
+
+    @Test
+    void recognizesMultipartRequests() {
+        assertTrue(StreamingMultipartParser.isMultipart(multipart(field("a", "b"))));
+
+        MockHttpServletRequest json = new MockHttpServletRequest("POST", "/api/activities");
+        json.setContentType("application/json");
+        assertFalse(StreamingMultipartParser.isMultipart(json));
+    }
+
+    private static String field(String name, String value) {
+        return "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value;
+    }
+
+    private static String file(String name, String filename, String contentType, String content) {
+        return "Content-Disposition: form-data; name=\"" + name + "\"; filename=\"" + filename + "\"\r\n"
+            + "Content-Type: " + contentType + "\r\n\r\n" + content;
+    }
+
+    private static MockHttpServletRequest multipart(String... parts) {
+        StringBuilder body = new StringBuilder();
+        for (String part : parts) {
+            body.append("--").append(BOUNDARY).append("\r\n").append(part).append("\r\n");
+        }
+        body.append("--").append(BOUNDARY).append("--\r\n");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/activities");
+        request.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+        request.setContent(body.toString().getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}